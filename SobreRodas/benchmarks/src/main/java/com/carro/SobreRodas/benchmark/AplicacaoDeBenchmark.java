@@ -0,0 +1,90 @@
+package com.carro.SobreRodas.benchmark;
+
+import com.carro.SobreRodas.SobreRodasApplication;
+import com.carro.SobreRodas.model.Noticia;
+import com.carro.SobreRodas.repository.NoticiaRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sobe a aplicação completa sobre um H2 em memória e popula o banco com um volume realista de notícias,
+ * para que os benchmarks exercitem os mesmos beans (repositórios, Hibernate, Thymeleaf) da produção.
+ */
+final class AplicacaoDeBenchmark {
+
+    static final String[] TAGS = {"Automotivo", "Avaliação", "Comparativos", "Exposição"};
+
+    private static final String[] MARCAS = {"Fiat", "Honda", "Toyota", "Volkswagen", "Chevrolet", "Hyundai", "Jeep", "Renault", "BYD", "Nissan"};
+    private static final String[] MODELOS = {"Civic", "Corolla", "Pulse", "Polo", "Onix", "HB20", "Compass", "Kwid", "Dolphin", "Kicks"};
+    private static final int TAMANHO_LOTE = 500;
+
+    private AplicacaoDeBenchmark() {
+    }
+
+    /**
+     * @param quantidadeNoticias Quantas notícias sintéticas inserir (além das do DataInitializer).
+     * @return O contexto iniciado; deve ser fechado no @TearDown do benchmark.
+     */
+    static ConfigurableApplicationContext iniciar(int quantidadeNoticias) {
+        SpringApplication aplicacao = new SpringApplication(SobreRodasApplication.class);
+        ConfigurableApplicationContext contexto = aplicacao.run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + TAMANHO_LOTE,
+                "--senha.bcrypt.custo=4",
+                "--senha.resposta.bcrypt.custo=4");
+        popular(contexto.getBean(NoticiaRepository.class), quantidadeNoticias);
+        return contexto;
+    }
+
+    private static void popular(NoticiaRepository repositorio, int quantidade) {
+        Random random = new Random(42);
+        List<Noticia> lote = new ArrayList<>(TAMANHO_LOTE);
+        for (int i = 0; i < quantidade; i++) {
+            lote.add(gerarNoticia(random, i));
+            if (lote.size() == TAMANHO_LOTE) {
+                repositorio.saveAll(lote);
+                lote.clear();
+            }
+        }
+        repositorio.saveAll(lote);
+    }
+
+    private static Noticia gerarNoticia(Random random, int indice) {
+        String marca = MARCAS[random.nextInt(MARCAS.length)];
+        String modelo = MODELOS[random.nextInt(MODELOS.length)];
+
+        Noticia noticia = new Noticia();
+        noticia.setTitulo(marca + " " + modelo + ": tudo sobre a versão " + (2020 + indice % 6));
+        noticia.setResumo("Avaliamos o " + marca + " " + modelo + " em consumo, desempenho, conforto e tecnologia.");
+        // Matérias reais têm alguns KB de texto.
+        StringBuilder conteudo = new StringBuilder();
+        int paragrafos = 5 + random.nextInt(10);
+        for (int p = 0; p < paragrafos; p++) {
+            conteudo.append("O ").append(modelo).append(" da ").append(marca)
+                    .append(" chega com motor revisado, central multimídia maior e pacote de assistência à condução. ")
+                    .append("Na pista de testes, o carro acelerou de 0 a 100 km/h em ").append(8 + random.nextInt(5))
+                    .append(" segundos e fez ").append(10 + random.nextInt(8)).append(" km/l na estrada.\n\n");
+        }
+        noticia.setConteudo(conteudo.toString());
+        noticia.setImagem("/images/civic.jpg");
+        noticia.setImagemLargura(1200);
+        noticia.setImagemAltura(800);
+        noticia.setData(String.format("%02d/%02d/2024", 1 + indice % 28, 1 + indice % 12));
+        noticia.setAutor("Redação SobreRodas");
+        noticia.setTag(TAGS[indice % TAGS.length]);
+        return noticia;
+    }
+}
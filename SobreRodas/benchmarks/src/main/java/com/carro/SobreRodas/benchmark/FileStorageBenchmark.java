@@ -0,0 +1,121 @@
+package com.carro.SobreRodas.benchmark;
+
+import com.carro.SobreRodas.dto.ImagemArmazenada;
+import com.carro.SobreRodas.service.FileStorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gravação de uploads grandes pelo FileStorageService (cópia para disco e, no caso de imagens,
+ * leitura das dimensões e geração do placeholder).
+ * Os arquivos são gravados em uploads/ no diretório de trabalho (target/ quando executado pelo Maven)
+ * e apagados após cada chamada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileStorageBenchmark {
+
+    private static final Path UPLOADS = Paths.get("uploads").toAbsolutePath().normalize();
+
+    /**
+     * Arquivo binário qualquer (ex.: vídeo) de tamanho configurável.
+     */
+    @State(Scope.Benchmark)
+    public static class Arquivo {
+
+        @Param({"1048576", "16777216"})
+        public int tamanhoBytes;
+
+        FileStorageService fileStorageService;
+        MockMultipartFile arquivo;
+        String gravado;
+
+        @Setup(Level.Trial)
+        public void iniciar() {
+            fileStorageService = new FileStorageService(new SimpleMeterRegistry());
+            byte[] conteudo = new byte[tamanhoBytes];
+            new Random(42).nextBytes(conteudo);
+            arquivo = new MockMultipartFile("imagem", "video.mp4", "video/mp4", conteudo);
+        }
+
+        @TearDown(Level.Invocation)
+        public void apagar() throws IOException {
+            Files.deleteIfExists(UPLOADS.resolve(gravado));
+        }
+    }
+
+    /**
+     * Foto de câmera (4000x3000) em JPEG.
+     */
+    @State(Scope.Benchmark)
+    public static class Foto {
+
+        FileStorageService fileStorageService;
+        MockMultipartFile imagem;
+        String gravado;
+
+        @Setup(Level.Trial)
+        public void iniciar() throws IOException {
+            fileStorageService = new FileStorageService(new SimpleMeterRegistry());
+            imagem = new MockMultipartFile("imagem", "foto.jpg", "image/jpeg", gerarJpeg(4000, 3000));
+        }
+
+        @TearDown(Level.Invocation)
+        public void apagar() throws IOException {
+            Files.deleteIfExists(UPLOADS.resolve(gravado));
+        }
+    }
+
+    @Benchmark
+    public String storeFile(Arquivo estado) {
+        estado.gravado = estado.fileStorageService.storeFile(estado.arquivo);
+        return estado.gravado;
+    }
+
+    @Benchmark
+    public ImagemArmazenada storeImage(Foto estado) {
+        ImagemArmazenada armazenada = estado.fileStorageService.storeImage(estado.imagem);
+        estado.gravado = armazenada.getFileName();
+        return armazenada;
+    }
+
+    private static byte[] gerarJpeg(int largura, int altura) throws IOException {
+        BufferedImage foto = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = foto.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, Color.DARK_GRAY, largura, altura, Color.ORANGE));
+        g.fillRect(0, 0, largura, altura);
+        g.dispose();
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ImageIO.write(foto, "jpg", saida);
+        return saida.toByteArray();
+    }
+}
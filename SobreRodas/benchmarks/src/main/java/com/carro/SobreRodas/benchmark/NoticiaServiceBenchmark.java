@@ -0,0 +1,82 @@
+package com.carro.SobreRodas.benchmark;
+
+import com.carro.SobreRodas.model.Noticia;
+import com.carro.SobreRodas.service.NoticiaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminhos de leitura do NoticiaService usados pelas páginas públicas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoticiaServiceBenchmark {
+
+    @Param({"1000", "20000"})
+    public int quantidadeNoticias;
+
+    private ConfigurableApplicationContext contexto;
+    private NoticiaService noticiaService;
+    private long maiorId;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = AplicacaoDeBenchmark.iniciar(quantidadeNoticias);
+        noticiaService = contexto.getBean(NoticiaService.class);
+        maiorId = noticiaService.findDestaque().map(Noticia::getId).orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    /**
+     * Todas as consultas feitas pela página inicial (HomeController.index).
+     */
+    @Benchmark
+    public void paginaInicial(Blackhole bh) {
+        bh.consume(noticiaService.findDestaque());
+        bh.consume(noticiaService.findUltimasNoticias());
+        bh.consume(noticiaService.findMaisLidas());
+        bh.consume(noticiaService.findTestesEAvaliacoes());
+        bh.consume(noticiaService.findComparativosHome());
+    }
+
+    @Benchmark
+    public Optional<Noticia> buscarPorId() {
+        return noticiaService.findById(ThreadLocalRandom.current().nextLong(1, maiorId + 1));
+    }
+
+    @Benchmark
+    public List<Noticia> pesquisar() {
+        return noticiaService.search("civic");
+    }
+
+    @Benchmark
+    public List<Noticia> listarPorTag() {
+        return noticiaService.findByTags(List.of("Exposição"));
+    }
+}
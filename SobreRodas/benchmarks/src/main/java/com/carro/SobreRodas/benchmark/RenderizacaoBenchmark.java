@@ -0,0 +1,92 @@
+package com.carro.SobreRodas.benchmark;
+
+import com.carro.SobreRodas.service.NoticiaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import jakarta.servlet.ServletContext;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renderização dos templates index e noticia pelo mesmo ThymeleafView usado pelo Spring MVC,
+ * com os modelos já montados (sem custo de banco), isolando o custo do template.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderizacaoBenchmark {
+
+    private ConfigurableApplicationContext contexto;
+    private ServletContext servletContext;
+    private View viewIndex;
+    private View viewNoticia;
+    private Map<String, Object> modeloIndex;
+    private Map<String, Object> modeloNoticia;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws Exception {
+        contexto = AplicacaoDeBenchmark.iniciar(200);
+        servletContext = ((ServletWebServerApplicationContext) contexto).getServletContext();
+        NoticiaService noticiaService = contexto.getBean(NoticiaService.class);
+
+        ThymeleafViewResolver resolver = contexto.getBean(ThymeleafViewResolver.class);
+        viewIndex = resolver.resolveViewName("index", Locale.getDefault());
+        viewNoticia = resolver.resolveViewName("noticia", Locale.getDefault());
+
+        modeloIndex = new HashMap<>();
+        modeloIndex.put("noticiaDestaque", noticiaService.findDestaque().orElseThrow());
+        modeloIndex.put("ultimasNoticias", noticiaService.findUltimasNoticias());
+        modeloIndex.put("maisLidas", noticiaService.findMaisLidas());
+        modeloIndex.put("testesEAvaliacoes", noticiaService.findTestesEAvaliacoes());
+        modeloIndex.put("comparativosHome", noticiaService.findComparativosHome());
+
+        modeloNoticia = new HashMap<>();
+        modeloNoticia.put("noticia", noticiaService.findDestaque().orElseThrow());
+        modeloNoticia.put("relacionadas", noticiaService.findLatest3());
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public String index() throws Exception {
+        return renderizar(viewIndex, modeloIndex, "/");
+    }
+
+    @Benchmark
+    public String noticia() throws Exception {
+        return renderizar(viewNoticia, modeloNoticia, "/noticia/1");
+    }
+
+    private String renderizar(View view, Map<String, Object> modelo, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        // O ThymeleafView altera o mapa recebido; cada renderização usa uma cópia.
+        view.render(new HashMap<>(modelo), request, response);
+        return response.getContentAsString();
+    }
+}
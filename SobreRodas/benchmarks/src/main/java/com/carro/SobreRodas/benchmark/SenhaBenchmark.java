@@ -0,0 +1,52 @@
+package com.carro.SobreRodas.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do BCrypt no cadastro (encode) e no login (matches), para os custos em uso.
+ * Ajuda a escolher senha.bcrypt.latencia-alvo-ms e a dimensionar login.bcrypt.fracao-cpu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SenhaBenchmark {
+
+    @Param({"10", "12"})
+    public int custo;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        encoder = new BCryptPasswordEncoder(custo);
+        hash = encoder.encode("senha-do-leitor");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("senha-do-leitor");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("senha-do-leitor", hash);
+    }
+}
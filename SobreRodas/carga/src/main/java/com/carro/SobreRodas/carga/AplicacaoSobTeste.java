@@ -0,0 +1,125 @@
+package com.carro.SobreRodas.carga;
+
+import com.carro.SobreRodas.SobreRodasApplication;
+import com.carro.SobreRodas.model.Noticia;
+import com.carro.SobreRodas.model.Usuario;
+import com.carro.SobreRodas.repository.NoticiaRepository;
+import com.carro.SobreRodas.repository.UsuarioRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sobe a aplicação completa (Tomcat embarcado + H2 em memória) em uma porta livre
+ * e a popula com notícias e leitores para o teste de carga.
+ */
+final class AplicacaoSobTeste implements AutoCloseable {
+
+    static final String SENHA_LEITORES = "carga-1234";
+
+    private static final String[] TAGS = {"Automotivo", "Avaliação", "Comparativos", "Exposição"};
+    private static final String[] MARCAS = {"Fiat", "Honda", "Toyota", "Volkswagen", "Chevrolet", "Hyundai", "Jeep", "Renault", "BYD", "Nissan"};
+    private static final String[] MODELOS = {"Civic", "Corolla", "Pulse", "Polo", "Onix", "HB20", "Compass", "Kwid", "Dolphin", "Kicks"};
+    private static final int TAMANHO_LOTE = 500;
+
+    private final ConfigurableApplicationContext contexto;
+    private final URI base;
+    private final DadosDeCarga dados;
+
+    /**
+     * @param noticias Quantidade de notícias sintéticas.
+     * @param leitores Quantidade de leitores cadastrados (usados no cenário de login).
+     * @param argumentosSpring Propriedades extras repassadas à aplicação (--chave=valor).
+     */
+    AplicacaoSobTeste(int noticias, int leitores, List<String> argumentosSpring) {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:carga;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + TAMANHO_LOTE,
+                // Todo o tráfego sai do mesmo IP: sem isso o limitador de login bloquearia o cenário de login.
+                "--login.throttle.ip.capacidade=1000000000",
+                "--login.throttle.ip.reposicao-por-minuto=1000000000",
+                "--login.throttle.email.capacidade=1000000000",
+                "--login.throttle.email.reposicao-por-minuto=1000000000"));
+        argumentos.addAll(argumentosSpring);
+
+        this.contexto = new SpringApplication(SobreRodasApplication.class).run(argumentos.toArray(String[]::new));
+        int porta = ((ServletWebServerApplicationContext) contexto).getWebServer().getPort();
+        this.base = URI.create("http://127.0.0.1:" + porta + "/");
+
+        NoticiaRepository noticiaRepository = contexto.getBean(NoticiaRepository.class);
+        popularNoticias(noticiaRepository, noticias);
+        List<String> emails = popularLeitores(contexto.getBean(UsuarioRepository.class), contexto.getBean(PasswordEncoder.class), leitores);
+
+        // O banco é novo, então os ids das notícias vão de 1 até o maior id.
+        long maiorId = noticiaRepository.findFirstByOrderByIdDesc().map(Noticia::getId).orElse(1L);
+        this.dados = new DadosDeCarga(1, maiorId, emails, SENHA_LEITORES);
+    }
+
+    URI getBase() { return base; }
+
+    DadosDeCarga getDados() { return dados; }
+
+    @Override
+    public void close() {
+        contexto.close();
+    }
+
+    private static void popularNoticias(NoticiaRepository repositorio, int quantidade) {
+        Random random = new Random(42);
+        List<Noticia> lote = new ArrayList<>(TAMANHO_LOTE);
+        for (int i = 0; i < quantidade; i++) {
+            String marca = MARCAS[random.nextInt(MARCAS.length)];
+            String modelo = MODELOS[random.nextInt(MODELOS.length)];
+            Noticia noticia = new Noticia();
+            noticia.setTitulo(marca + " " + modelo + ": tudo sobre a versão " + (2020 + i % 6));
+            noticia.setResumo("Avaliamos o " + marca + " " + modelo + " em consumo, desempenho, conforto e tecnologia.");
+            noticia.setConteudo(("O " + modelo + " chega com motor revisado, central multimídia maior e pacote de assistência à condução.\n\n")
+                    .repeat(5 + random.nextInt(10)));
+            noticia.setImagem("/images/civic.jpg");
+            noticia.setData(String.format("%02d/%02d/2024", 1 + i % 28, 1 + i % 12));
+            noticia.setAutor("Redação SobreRodas");
+            noticia.setTag(TAGS[i % TAGS.length]);
+            lote.add(noticia);
+            if (lote.size() == TAMANHO_LOTE) {
+                repositorio.saveAll(lote);
+                lote.clear();
+            }
+        }
+        repositorio.saveAll(lote);
+    }
+
+    private static List<String> popularLeitores(UsuarioRepository repositorio, PasswordEncoder passwordEncoder, int quantidade) {
+        // Um único hash para todos: a senha é a mesma e o BCrypt calibrado custa centenas de ms por chamada.
+        String hash = passwordEncoder.encode(SENHA_LEITORES);
+        List<Usuario> usuarios = new ArrayList<>(quantidade);
+        List<String> emails = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Usuario usuario = new Usuario();
+            usuario.setNome("Leitor " + i);
+            usuario.setEmail("leitor" + i + "@carga.local");
+            usuario.setSenha(hash);
+            usuario.setRole("ROLE_USER");
+            usuario.setPerguntaSeguranca("Pergunta");
+            usuario.setRespostaSeguranca(hash);
+            usuarios.add(usuario);
+            emails.add(usuario.getEmail());
+        }
+        repositorio.saveAll(usuarios);
+        return emails;
+    }
+}
@@ -0,0 +1,98 @@
+package com.carro.SobreRodas.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Um tipo de requisição da mistura de tráfego, lido de um arquivo de cenários (ver cenarios/padrao.txt).
+ */
+final class Cenario {
+
+    private static final String[] TERMOS = {"civic", "corolla", "suv", "híbrido", "elétrico", "comparativo", "salão", "fiat", "consumo"};
+
+    private final int peso;
+    private final String nome;
+    private final String metodo;
+    private final String caminho;
+    private final String corpo;
+
+    Cenario(int peso, String nome, String metodo, String caminho, String corpo) {
+        if (peso <= 0) {
+            throw new IllegalArgumentException("Peso inválido no cenário " + nome + ": " + peso);
+        }
+        if (!metodo.equals("GET") && !metodo.equals("POST")) {
+            throw new IllegalArgumentException("Método não suportado no cenário " + nome + ": " + metodo);
+        }
+        this.peso = peso;
+        this.nome = nome;
+        this.metodo = metodo;
+        this.caminho = caminho;
+        this.corpo = corpo;
+    }
+
+    /**
+     * Lê um arquivo de cenários. Linhas vazias e iniciadas por # são ignoradas.
+     * @param arquivo O arquivo no formato "peso nome método caminho [corpo]".
+     * @return Os cenários, na ordem do arquivo.
+     */
+    static List<Cenario> carregar(Path arquivo) throws IOException {
+        List<Cenario> cenarios = new ArrayList<>();
+        for (String linha : Files.readAllLines(arquivo, StandardCharsets.UTF_8)) {
+            linha = linha.trim();
+            if (linha.isEmpty() || linha.startsWith("#")) {
+                continue;
+            }
+            String[] campos = linha.split("\\s+");
+            if (campos.length < 4) {
+                throw new IllegalArgumentException("Linha de cenário inválida: " + linha);
+            }
+            cenarios.add(new Cenario(Integer.parseInt(campos[0]), campos[1], campos[2].toUpperCase(), campos[3],
+                    campos.length > 4 ? campos[4] : null));
+        }
+        if (cenarios.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum cenário em " + arquivo);
+        }
+        return cenarios;
+    }
+
+    /**
+     * Monta a requisição, trocando os marcadores por valores sorteados.
+     */
+    HttpRequest criarRequisicao(URI base, DadosDeCarga dados, Random random) {
+        String email = dados.sortearEmail(random);
+        URI uri = base.resolve(substituir(caminho, dados, email, random));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30));
+        if (metodo.equals("POST")) {
+            String formulario = corpo == null ? "" : substituir(corpo, dados, email, random);
+            builder.header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(formulario));
+        } else {
+            builder.GET();
+        }
+        return builder.build();
+    }
+
+    private static String substituir(String modelo, DadosDeCarga dados, String email, Random random) {
+        if (modelo.indexOf('{') < 0) {
+            return modelo;
+        }
+        return modelo
+                .replace("{id}", Long.toString(dados.sortearIdNoticia(random)))
+                .replace("{termo}", URLEncoder.encode(TERMOS[random.nextInt(TERMOS.length)], StandardCharsets.UTF_8))
+                .replace("{email}", URLEncoder.encode(email, StandardCharsets.UTF_8))
+                .replace("{senha}", URLEncoder.encode(dados.getSenha(), StandardCharsets.UTF_8));
+    }
+
+    int getPeso() { return peso; }
+
+    String getNome() { return nome; }
+}
@@ -0,0 +1,32 @@
+package com.carro.SobreRodas.carga;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Dados existentes no servidor sob teste, usados para preencher os marcadores dos cenários.
+ */
+final class DadosDeCarga {
+
+    private final long menorIdNoticia;
+    private final long maiorIdNoticia;
+    private final List<String> emails;
+    private final String senha;
+
+    DadosDeCarga(long menorIdNoticia, long maiorIdNoticia, List<String> emails, String senha) {
+        this.menorIdNoticia = menorIdNoticia;
+        this.maiorIdNoticia = maiorIdNoticia;
+        this.emails = emails;
+        this.senha = senha;
+    }
+
+    long sortearIdNoticia(Random random) {
+        return menorIdNoticia + (long) (random.nextDouble() * (maiorIdNoticia - menorIdNoticia + 1));
+    }
+
+    String sortearEmail(Random random) {
+        return emails.get(random.nextInt(emails.size()));
+    }
+
+    String getSenha() { return senha; }
+}
@@ -0,0 +1,248 @@
+package com.carro.SobreRodas.carga;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Teste de carga em modelo aberto: as requisições chegam segundo um processo de Poisson com a taxa
+ * pedida, independentemente de quanto o servidor demora para responder (como o tráfego real).
+ * A latência é medida a partir do instante em que a requisição deveria ter sido enviada, de modo que
+ * atrasos do próprio gerador também apareçam nos percentis (sem omissão coordenada).
+ *
+ * Argumentos (chave=valor):
+ * <ul>
+ *   <li>cenario: arquivo de cenários (obrigatório; o pom passa cenarios/padrao.txt)</li>
+ *   <li>taxa: requisições por segundo (padrão 100)</li>
+ *   <li>duracao / aquecimento: segundos de medição e de aquecimento descartado (padrão 60 / 15)</li>
+ *   <li>noticias / leitores: volume de dados gerado na aplicação embarcada (padrão 5000 / 200)</li>
+ *   <li>max-em-voo: requisições simultâneas antes de descartar chegadas (padrão 5000)</li>
+ *   <li>saida: diretório do relatório (padrão carga/)</li>
+ *   <li>semente: semente do sorteio, para repetir a mesma sequência (padrão 42)</li>
+ *   <li>qualquer chave com ponto (ex.: senha.bcrypt.custo=10) é repassada à aplicação como propriedade</li>
+ * </ul>
+ */
+public final class TesteDeCarga {
+
+    private final List<Cenario> cenarios;
+    private final int[] pesosAcumulados;
+    private final Map<String, Recorder> latencias = new LinkedHashMap<>();
+    private final Map<String, LongAdder> erros = new HashMap<>();
+    private final Map<String, Map<Integer, LongAdder>> statusPorCenario = new HashMap<>();
+    private final AtomicInteger emVoo = new AtomicInteger();
+    private final LongAdder descartadas = new LongAdder();
+
+    private TesteDeCarga(List<Cenario> cenarios) {
+        this.cenarios = cenarios;
+        this.pesosAcumulados = new int[cenarios.size()];
+        int soma = 0;
+        for (int i = 0; i < cenarios.size(); i++) {
+            soma += cenarios.get(i).getPeso();
+            pesosAcumulados[i] = soma;
+            String nome = cenarios.get(i).getNome();
+            // Latências em microssegundos, de 1 µs a 1 h, com 3 dígitos significativos.
+            latencias.put(nome, new Recorder(TimeUnit.HOURS.toMicros(1), 3));
+            erros.put(nome, new LongAdder());
+            statusPorCenario.put(nome, new ConcurrentHashMap<>());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opcoes = new HashMap<>();
+        List<String> argumentosSpring = new ArrayList<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual <= 0) {
+                throw new IllegalArgumentException("Argumento inválido (use chave=valor): " + arg);
+            }
+            String chave = arg.substring(0, igual);
+            if (chave.contains(".")) {
+                argumentosSpring.add("--" + arg);
+            } else {
+                opcoes.put(chave, arg.substring(igual + 1));
+            }
+        }
+        if (!opcoes.containsKey("cenario")) {
+            throw new IllegalArgumentException("Informe o arquivo de cenários: cenario=<arquivo>");
+        }
+
+        double taxa = Double.parseDouble(opcoes.getOrDefault("taxa", "100"));
+        int duracao = Integer.parseInt(opcoes.getOrDefault("duracao", "60"));
+        int aquecimento = Integer.parseInt(opcoes.getOrDefault("aquecimento", "15"));
+        int noticias = Integer.parseInt(opcoes.getOrDefault("noticias", "5000"));
+        int leitores = Integer.parseInt(opcoes.getOrDefault("leitores", "200"));
+        int maxEmVoo = Integer.parseInt(opcoes.getOrDefault("max-em-voo", "5000"));
+        long semente = Long.parseLong(opcoes.getOrDefault("semente", "42"));
+        Path saida = Paths.get(opcoes.getOrDefault("saida", "carga"));
+
+        TesteDeCarga teste = new TesteDeCarga(Cenario.carregar(Paths.get(opcoes.get("cenario"))));
+
+        System.out.println("Iniciando a aplicação com " + noticias + " notícias e " + leitores + " leitores...");
+        try (AplicacaoSobTeste aplicacao = new AplicacaoSobTeste(noticias, leitores, argumentosSpring)) {
+            HttpClient cliente = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            System.out.printf("Aquecimento: %d s a %.0f req/s em %s%n", aquecimento, taxa, aplicacao.getBase());
+            teste.disparar(cliente, aplicacao.getBase(), aplicacao.getDados(), taxa, aquecimento, maxEmVoo, new Random(semente), null);
+            teste.aguardarEmVoo();
+            teste.zerar();
+
+            System.out.printf("Medição: %d s a %.0f req/s%n", duracao, taxa);
+            AtomicLongArray concluidasPorSegundo = new AtomicLongArray(duracao + 1);
+            teste.disparar(cliente, aplicacao.getBase(), aplicacao.getDados(), taxa, duracao, maxEmVoo, new Random(semente + 1), concluidasPorSegundo);
+            teste.aguardarEmVoo();
+
+            teste.gravarRelatorio(saida, taxa, duracao, concluidasPorSegundo);
+        }
+    }
+
+    /**
+     * Dispara requisições nos instantes de chegada sorteados durante o período, sem esperar as respostas.
+     */
+    private void disparar(HttpClient cliente, URI base, DadosDeCarga dados, double taxa, int segundos, int maxEmVoo,
+                          Random random, AtomicLongArray concluidasPorSegundo) {
+        double intervaloMedioNanos = TimeUnit.SECONDS.toNanos(1) / taxa;
+        long inicio = System.nanoTime();
+        long fim = inicio + TimeUnit.SECONDS.toNanos(segundos);
+        double deslocamento = 0;
+
+        while (true) {
+            // Intervalos exponenciais entre chegadas = processo de Poisson.
+            deslocamento += -Math.log(1 - random.nextDouble()) * intervaloMedioNanos;
+            long chegada = inicio + (long) deslocamento;
+            if (chegada - fim >= 0) {
+                return;
+            }
+            long espera;
+            while ((espera = chegada - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(espera);
+            }
+
+            if (emVoo.get() >= maxEmVoo) {
+                descartadas.increment();
+                continue;
+            }
+            Cenario cenario = sortear(random);
+            HttpRequest requisicao = cenario.criarRequisicao(base, dados, random);
+            emVoo.incrementAndGet();
+            cliente.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((resposta, erro) -> {
+                        long latenciaMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - chegada);
+                        registrar(cenario.getNome(), latenciaMicros, resposta, erro);
+                        if (concluidasPorSegundo != null) {
+                            int segundo = (int) TimeUnit.NANOSECONDS.toSeconds(chegada - inicio);
+                            concluidasPorSegundo.incrementAndGet(Math.min(segundo, concluidasPorSegundo.length() - 1));
+                        }
+                        emVoo.decrementAndGet();
+                    });
+        }
+    }
+
+    private Cenario sortear(Random random) {
+        int sorteio = random.nextInt(pesosAcumulados[pesosAcumulados.length - 1]);
+        for (int i = 0; i < pesosAcumulados.length; i++) {
+            if (sorteio < pesosAcumulados[i]) {
+                return cenarios.get(i);
+            }
+        }
+        throw new IllegalStateException("Sorteio fora dos pesos: " + sorteio);
+    }
+
+    private void registrar(String cenario, long latenciaMicros, HttpResponse<?> resposta, Throwable erro) {
+        latencias.get(cenario).recordValue(Math.min(latenciaMicros, TimeUnit.HOURS.toMicros(1)));
+        int status = resposta != null ? resposta.statusCode() : 0;
+        statusPorCenario.get(cenario).computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (erro != null || status >= 400) {
+            erros.get(cenario).increment();
+        }
+    }
+
+    private void aguardarEmVoo() throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (emVoo.get() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Descarta o que foi medido no aquecimento.
+     */
+    private void zerar() {
+        latencias.values().forEach(Recorder::reset);
+        erros.values().forEach(LongAdder::reset);
+        statusPorCenario.values().forEach(Map::clear);
+        descartadas.reset();
+    }
+
+    private void gravarRelatorio(Path saida, double taxa, int duracao, AtomicLongArray concluidasPorSegundo) throws IOException {
+        Files.createDirectories(saida);
+        Histogram total = new Histogram(TimeUnit.HOURS.toMicros(1), 3);
+        StringBuilder relatorio = new StringBuilder();
+        relatorio.append(String.format("Taxa alvo: %.1f req/s, duração: %d s%n", taxa, duracao));
+        relatorio.append(String.format("%-14s %9s %7s %9s %9s %9s %9s %9s%n", "cenário", "req", "erros", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+        for (Map.Entry<String, Recorder> entrada : latencias.entrySet()) {
+            String nome = entrada.getKey();
+            Histogram histograma = entrada.getValue().getIntervalHistogram();
+            total.add(histograma);
+            relatorio.append(linha(nome, histograma, erros.get(nome).sum()));
+            relatorio.append("               status: ").append(statusPorCenario.get(nome)).append(System.lineSeparator());
+            gravarDistribuicao(saida.resolve(nome + ".hgrm"), histograma);
+        }
+        long totalErros = erros.values().stream().mapToLong(LongAdder::sum).sum();
+        relatorio.append(linha("total", total, totalErros));
+        gravarDistribuicao(saida.resolve("total.hgrm"), total);
+
+        relatorio.append(String.format("Vazão: %.1f req/s concluídas; %d chegadas descartadas (max-em-voo atingido)%n",
+                (double) total.getTotalCount() / duracao, descartadas.sum()));
+
+        StringBuilder vazao = new StringBuilder("segundo,concluidas\n");
+        for (int i = 0; i < duracao; i++) {
+            vazao.append(i).append(',').append(concluidasPorSegundo.get(i)).append('\n');
+        }
+        Files.writeString(saida.resolve("vazao.csv"), vazao, StandardCharsets.UTF_8);
+        Files.writeString(saida.resolve("relatorio.txt"), relatorio, StandardCharsets.UTF_8);
+
+        System.out.print(relatorio);
+        System.out.println("Relatório gravado em " + saida.toAbsolutePath());
+    }
+
+    private static String linha(String nome, Histogram h, long erros) {
+        return String.format("%-14s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", nome, h.getTotalCount(), erros,
+                h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0, h.getValueAtPercentile(99) / 1000.0,
+                h.getValueAtPercentile(99.9) / 1000.0, h.getMaxValue() / 1000.0);
+    }
+
+    private static void gravarDistribuicao(Path arquivo, Histogram histograma) throws IOException {
+        try (PrintStream saida = new PrintStream(Files.newOutputStream(arquivo), false, StandardCharsets.UTF_8)) {
+            // Valores em ms, no formato aceito pelo HdrHistogram plotter.
+            histograma.outputPercentileDistribution(saida, 1000.0);
+        }
+    }
+}
@@ -1,14 +1,40 @@
 package com.carro.SobreRodas;
 
+import com.carro.SobreRodas.config.DicasDeExecucaoNativa;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(DicasDeExecucaoNativa.class)
 public class SobreRodasApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(SobreRodasApplication.class, args);
+		SpringApplication app = new SpringApplication(SobreRodasApplication.class);
+		// Guarda os passos da inicialização (fases e criação de cada bean) para o RelatorioDeInicializacao
+		// e para /actuator/startup, só quando pedido: cada passo tem um custo e ocupa memória.
+		if (linhaDoTempoHabilitada(args)) {
+			app.setApplicationStartup(new BufferingApplicationStartup(10_000));
+		}
+		app.run(args);
 	}
 
-}
+	/**
+	 * A gravação precisa ser escolhida antes de o contexto (e o application.properties) ser carregado:
+	 * inicio.linha-do-tempo (na linha de comando, em -D ou em variável de ambiente) ou, sem ela, o perfil
+	 * inicio-rapido.
+	 */
+	private static boolean linhaDoTempoHabilitada(String[] args) {
+		StandardEnvironment ambiente = new StandardEnvironment();
+		ambiente.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+		Boolean habilitada = ambiente.getProperty("inicio.linha-do-tempo", Boolean.class);
+		return habilitada != null ? habilitada : ambiente.acceptsProfiles(Profiles.of("inicio-rapido"));
+	}
 
+}
@@ -0,0 +1,187 @@
+package com.carro.SobreRodas.config;
+
+import com.carro.SobreRodas.service.CacheDePaginas;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Serve as páginas públicas (home, notícia, eventos, comparativo e pesquisa) a partir do {@link CacheDePaginas}
+ * para visitantes sem sessão. Quem tem sessão (usuário logado ou uma mensagem flash pendente) ou envia credenciais
+ * (cabeçalho Authorization) sempre passa direto, pois a página muda conforme o usuário; uma página renderizada para
+ * um usuário autenticado também nunca é guardada.
+ * <p>
+ * Roda depois do Spring Session e antes do Spring Security: um acerto não passa pelos filtros de segurança nem pelo
+ * controller. Os cabeçalhos da renderização original (ETag, Cache-Control, cabeçalhos de segurança)
+ * são guardados e repetidos; requisições condicionais são respondidas com 304 aqui mesmo.
+ * O cabeçalho X-Cache indica HIT (do cache) ou MISS (renderizada nesta requisição).
+ * Numa falha a página é enviada enquanto é renderizada e copiada para o cache (até cache.paginas.max-bytes-por-pagina);
+ * os acertos são enviados em gzip.
+ */
+public class CacheDePaginasFilter extends OncePerRequestFilter {
+
+    private static final Pattern ROTAS = Pattern.compile("/|/eventos|/comparativo|/noticia/\\d+|/pesquisa");
+
+    // Cabeçalhos que não são guardados: dependem da requisição ou do corpo enviado.
+    private static final Set<String> NAO_GUARDADOS = Set.of("set-cookie", "content-length", "content-type",
+            "content-encoding", "transfer-encoding", "vary", "x-cache");
+
+    private final CacheDePaginas cacheDePaginas;
+    private final int maxBytesPorPagina;
+
+    public CacheDePaginasFilter(CacheDePaginas cacheDePaginas, int maxBytesPorPagina) {
+        this.cacheDePaginas = cacheDePaginas;
+        this.maxBytesPorPagina = maxBytesPorPagina;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!cacheavel(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CacheDePaginas.Resultado resultado = cacheDePaginas.obter(chave(request),
+                () -> renderizar(request, response, filterChain));
+        if (resultado.renderizada()) {
+            return;
+        }
+        if (resultado.getPagina() != null) {
+            servir(request, response, resultado.getPagina());
+        } else {
+            // A renderização agrupada não pôde ir para o cache (ou demorou demais): atende normalmente.
+            response.setHeader("X-Cache", "MISS");
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private boolean cacheavel(HttpServletRequest request) {
+        return cacheDePaginas.isHabilitado()
+                && "GET".equals(request.getMethod())
+                && ROTAS.matcher(caminho(request)).matches()
+                && request.getHeader(HttpHeaders.AUTHORIZATION) == null
+                && request.getSession(false) == null;
+    }
+
+    // Outros parâmetros (ex.: utm_*) não mudam a página e não podem multiplicar as entradas do cache.
+    private static String chave(HttpServletRequest request) {
+        String caminho = caminho(request);
+        if ("/pesquisa".equals(caminho)) {
+            String termo = request.getParameter("q");
+            return caminho + "?q=" + (termo != null ? termo : "");
+        }
+        return caminho;
+    }
+
+    private static String caminho(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Renderiza e envia a página normalmente, guardando uma cópia e coletando suas dependências.
+     * Devolve a página para o cache ou null se a resposta não pode ser reaproveitada.
+     */
+    private CacheDePaginas.Pagina renderizar(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        response.setHeader("X-Cache", "MISS");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        CopiaDaResposta copia = new CopiaDaResposta(response, maxBytesPorPagina);
+        Set<String> dependencias = CacheDePaginas.iniciarColeta();
+        try {
+            filterChain.doFilter(request, copia);
+            copia.concluir();
+        } finally {
+            CacheDePaginas.encerrarColeta();
+        }
+
+        byte[] corpo = copia.getCopia();
+        if (corpo == null || !reaproveitavel(request, copia)) {
+            return null;
+        }
+        return new CacheDePaginas.Pagina(cabecalhos(copia), corpo, dependencias);
+    }
+
+    private static boolean reaproveitavel(HttpServletRequest request, HttpServletResponse resposta) {
+        return resposta.getStatus() == HttpServletResponse.SC_OK
+                && resposta.getContentType() != null && resposta.getContentType().startsWith("text/html")
+                && resposta.getHeader(HttpHeaders.SET_COOKIE) == null
+                && request.getSession(false) == null
+                && !autenticada(request);
+    }
+
+    /**
+     * Se a requisição foi autenticada por algum mecanismo sem sessão. Depois da cadeia do Spring Security o
+     * SecurityContextHolder já foi limpo, mas o contexto salvo na requisição continua disponível.
+     */
+    private static boolean autenticada(HttpServletRequest request) {
+        if (request.getUserPrincipal() != null) {
+            return true;
+        }
+        Object salvo = request.getAttribute(RequestAttributeSecurityContextRepository.DEFAULT_REQUEST_ATTR_NAME);
+        return autenticada(salvo instanceof SecurityContext contexto ? contexto.getAuthentication() : null)
+                || autenticada(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static boolean autenticada(Authentication autenticacao) {
+        return autenticacao != null && autenticacao.isAuthenticated()
+                && !(autenticacao instanceof AnonymousAuthenticationToken);
+    }
+
+    private static Map<String, List<String>> cabecalhos(HttpServletResponse resposta) {
+        Map<String, List<String>> cabecalhos = new LinkedHashMap<>();
+        for (String nome : resposta.getHeaderNames()) {
+            if (!NAO_GUARDADOS.contains(nome.toLowerCase())) {
+                cabecalhos.put(nome, new ArrayList<>(resposta.getHeaders(nome)));
+            }
+        }
+        cabecalhos.put(HttpHeaders.CONTENT_TYPE, List.of(resposta.getContentType()));
+        return cabecalhos;
+    }
+
+    private static void servir(HttpServletRequest request, HttpServletResponse response, CacheDePaginas.Pagina pagina)
+            throws IOException {
+        HttpHeaders cabecalhos = new HttpHeaders();
+        pagina.getCabecalhos().forEach((nome, valores) -> {
+            cabecalhos.addAll(nome, valores);
+            valores.forEach(valor -> response.addHeader(nome, valor));
+        });
+        response.setHeader("X-Cache", "HIT");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (new ServletWebRequest(request, response).checkNotModified(cabecalhos.getETag(), cabecalhos.getLastModified())) {
+            return;
+        }
+        byte[] corpo;
+        if (aceitaGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            corpo = pagina.getGzip();
+        } else {
+            corpo = pagina.getCorpo();
+        }
+        response.setContentLength(corpo.length);
+        response.getOutputStream().write(corpo);
+    }
+
+    private static boolean aceitaGzip(HttpServletRequest request) {
+        String aceitas = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return aceitas != null && aceitas.toLowerCase().contains("gzip");
+    }
+}
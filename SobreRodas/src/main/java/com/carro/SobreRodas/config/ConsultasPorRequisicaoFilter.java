@@ -0,0 +1,61 @@
+package com.carro.SobreRodas.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registra, para cada handler (padrão de URI + método), quantos comandos SQL a requisição executou
+ * e quanto tempo passou no banco, incluindo as consultas feitas durante a renderização da view
+ * e a gravação da sessão.
+ */
+public class ConsultasPorRequisicaoFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public ConsultasPorRequisicaoFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContadorDeConsultas.Escopo escopo = ContadorDeConsultas.abrir();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            escopo.close();
+            registrar(request, escopo);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, ContadorDeConsultas.Escopo escopo) {
+        // Sem padrão não há handler (ex.: 404); não vale a pena criar uma série para isso.
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (padrao == null) {
+            return;
+        }
+        Tags tags = Tags.of("uri", padrao.toString(), "method", request.getMethod());
+        DistributionSummary.builder("http.server.requests.sql")
+                .description("Comandos SQL executados por requisição")
+                .baseUnit("comandos")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(escopo.getComandos());
+        Timer.builder("http.server.requests.sql.tempo")
+                .description("Tempo gasto no banco por requisição")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(escopo.getTempoNanos(), TimeUnit.NANOSECONDS);
+    }
+}
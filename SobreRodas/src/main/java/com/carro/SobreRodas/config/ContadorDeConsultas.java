@@ -0,0 +1,119 @@
+package com.carro.SobreRodas.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listener do proxy do DataSource que conta e cronometra cada comando SQL executado.
+ * Além do timer global sql.comandos, acumula os números nos {@link Escopo}s abertos na thread atual,
+ * o que permite medir quantos comandos cada requisição executou (ver {@link ConsultasPorRequisicaoFilter}).
+ * <p>
+ * O tempo é medido aqui com System.nanoTime(), e não pelo ExecutionInfo do proxy: o cronômetro padrão do
+ * datasource-proxy trunca para milissegundos inteiros, o que zeraria os comandos de menos de 1 ms.
+ */
+public class ContadorDeConsultas implements QueryExecutionListener {
+
+    private static final ThreadLocal<Escopo> ESCOPO_ATUAL = new ThreadLocal<>();
+    // Início (nanoTime) do comando em execução na thread atual.
+    private static final ThreadLocal<long[]> INICIO_DO_COMANDO = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private volatile Timer tempoPorComando;
+
+    public ContadorDeConsultas(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Abre um escopo de contagem na thread atual. Escopos podem ser aninhados: cada comando
+     * é contado em todos os escopos abertos.
+     * @return O escopo, que deve ser fechado na mesma thread (try-with-resources).
+     */
+    public static Escopo abrir() {
+        return abrir(false);
+    }
+
+    /**
+     * Como {@link #abrir()}, mas também guarda o texto de cada comando (útil para diagnosticar N+1 em testes).
+     * @param guardarSql Se o SQL dos comandos deve ser guardado.
+     * @return O escopo.
+     */
+    public static Escopo abrir(boolean guardarSql) {
+        Escopo escopo = new Escopo(ESCOPO_ATUAL.get(), guardarSql);
+        ESCOPO_ATUAL.set(escopo);
+        return escopo;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        INICIO_DO_COMANDO.get()[0] = System.nanoTime();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Um lote (batch) conta como um único comando: é uma única ida ao banco.
+        long nanos = System.nanoTime() - INICIO_DO_COMANDO.get()[0];
+        for (Escopo escopo = ESCOPO_ATUAL.get(); escopo != null; escopo = escopo.anterior) {
+            escopo.comandos++;
+            escopo.tempoNanos += nanos;
+            if (escopo.sql != null) {
+                for (QueryInfo query : queryInfoList) {
+                    escopo.sql.add(query.getQuery());
+                }
+            }
+        }
+        timer().record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // O DataSource é criado antes do MeterRegistry; o timer é registrado no primeiro comando.
+    private Timer timer() {
+        Timer timer = tempoPorComando;
+        if (timer == null) {
+            timer = Timer.builder("sql.comandos")
+                    .description("Tempo de execução de cada comando SQL")
+                    .register(meterRegistry.getObject());
+            tempoPorComando = timer;
+        }
+        return timer;
+    }
+
+    /**
+     * Comandos SQL executados na thread atual desde a abertura do escopo.
+     */
+    public static final class Escopo implements AutoCloseable {
+
+        private final Escopo anterior;
+        private final List<String> sql;
+        private long comandos;
+        private long tempoNanos;
+
+        private Escopo(Escopo anterior, boolean guardarSql) {
+            this.anterior = anterior;
+            this.sql = guardarSql ? new ArrayList<>() : null;
+        }
+
+        public long getComandos() { return comandos; }
+
+        public long getTempoNanos() { return tempoNanos; }
+
+        /**
+         * @return O SQL dos comandos executados, ou uma lista vazia se o escopo não guarda SQL.
+         */
+        public List<String> getSql() { return sql != null ? sql : List.of(); }
+
+        @Override
+        public void close() {
+            if (ESCOPO_ATUAL.get() == this) {
+                ESCOPO_ATUAL.set(anterior);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.carro.SobreRodas.config;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Envia a resposta normalmente (inclusive os envios parciais de {@link #flushBuffer()}) e guarda uma cópia
+ * do corpo para o {@link CacheDePaginasFilter}. Ao contrário do ContentCachingResponseWrapper, não segura
+ * nada em buffer, então uma página renderizada em partes chega ao navegador em partes mesmo quando vai
+ * para o cache. Acima do limite a cópia é abandonada.
+ */
+class CopiaDaResposta extends HttpServletResponseWrapper {
+
+    private final ByteArrayOutputStream copia = new ByteArrayOutputStream(8192);
+    private final int limite;
+    private boolean excedida;
+    private ServletOutputStream saida;
+    private PrintWriter writer;
+
+    CopiaDaResposta(HttpServletResponse response, int limite) {
+        super(response);
+        this.limite = limite;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (saida == null) {
+            saida = new SaidaCopiada(super.getOutputStream());
+        }
+        return saida;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    /**
+     * Escreve o que ainda estiver no writer. Deve ser chamado ao fim da requisição.
+     */
+    void concluir() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * @return O corpo enviado, ou null se passou do limite.
+     */
+    byte[] getCopia() {
+        return excedida ? null : copia.toByteArray();
+    }
+
+    private void copiar(byte[] bytes, int inicio, int tamanho) {
+        if (excedida) {
+            return;
+        }
+        if (copia.size() + tamanho > limite) {
+            excedida = true;
+            copia.reset();
+            return;
+        }
+        copia.write(bytes, inicio, tamanho);
+    }
+
+    private final class SaidaCopiada extends ServletOutputStream {
+        private final ServletOutputStream original;
+
+        private SaidaCopiada(ServletOutputStream original) {
+            this.original = original;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            original.write(b);
+            copiar(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            original.write(b, off, len);
+            copiar(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            original.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return original.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            original.setWriteListener(writeListener);
+        }
+    }
+}
@@ -4,36 +4,75 @@ import com.carro.SobreRodas.model.Noticia;
 import com.carro.SobreRodas.model.Usuario;
 import com.carro.SobreRodas.repository.NoticiaRepository;
 import com.carro.SobreRodas.repository.UsuarioRepository;
+import com.carro.SobreRodas.security.RespostaSegurancaEncoder;
+import com.carro.SobreRodas.service.RegistroDeAlteracoes;
+import com.carro.SobreRodas.service.RenderizadorDeConteudo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Componente que é executado na inicialização da aplicação.
  * Implementa CommandLineRunner para popular o banco de dados com dados iniciais (notícias),
  * garantindo que a aplicação tenha conteúdo ao ser iniciada pela primeira vez.
+ *
+ * A propriedade {@code dados.iniciais.modo} controla quando isso acontece: "sincrono" (padrão) antes de a
+ * aplicação ficar pronta, "assincrono" em segundo plano (a aplicação atende requisições enquanto isso) e
+ * "desligado" para nós de um banco que já foi populado.
+ * Os preenchimentos das colunas criadas depois (data de publicação, conteúdo renderizado) rodam em todos os
+ * modos, pois um banco já populado também precisa deles; no modo "desligado", em segundo plano. Só alteram
+ * as notícias que ainda não têm a coluna preenchida, então vários nós podem rodá-los ao mesmo tempo.
  */
 @Component
 public class DataInitializer implements CommandLineRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
+
+    private static final int LOTE_PREENCHIMENTO = 1000;
+
     // Repositório para interagir com a entidade Noticia no banco de dados.
     private final NoticiaRepository noticiaRepository;
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RespostaSegurancaEncoder respostaSegurancaEncoder;
+    private final RegistroDeAlteracoes registroDeAlteracoes;
+    private final RenderizadorDeConteudo renderizadorDeConteudo;
+    private final JdbcTemplate jdbcTemplate;
+    private final String modo;
 
     /**
      * Construtor para injeção de dependência do NoticiaRepository.
      * @param noticiaRepository O repositório de notícias.
      */
     @Autowired
-    public DataInitializer(NoticiaRepository noticiaRepository, UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder) {
+    public DataInitializer(NoticiaRepository noticiaRepository, UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder,
+                           RespostaSegurancaEncoder respostaSegurancaEncoder, RegistroDeAlteracoes registroDeAlteracoes,
+                           RenderizadorDeConteudo renderizadorDeConteudo, JdbcTemplate jdbcTemplate,
+                           @Value("${dados.iniciais.modo:sincrono}") String modo) {
         this.noticiaRepository = noticiaRepository;
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
+        this.respostaSegurancaEncoder = respostaSegurancaEncoder;
+        this.registroDeAlteracoes = registroDeAlteracoes;
+        this.renderizadorDeConteudo = renderizadorDeConteudo;
+        // Template próprio, com limite de linhas por consulta, para ler cada lote de forma portável.
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setMaxRows(LOTE_PREENCHIMENTO);
+        this.modo = modo;
     }
 
     /**
@@ -42,6 +81,37 @@ public class DataInitializer implements CommandLineRunner {
      */
     @Override
     public void run(String... args) throws Exception {
+        switch (modo) {
+            case "sincrono" -> {
+                popular();
+                preencher();
+            }
+            case "desligado" -> {
+                logger.info("Carga de dados iniciais desligada (dados.iniciais.modo=desligado)");
+                emSegundoPlano(this::preencher);
+            }
+            case "assincrono" -> emSegundoPlano(() -> {
+                popular();
+                preencher();
+            });
+            default -> throw new IllegalArgumentException(
+                    "dados.iniciais.modo inválido: " + modo + " (use sincrono, assincrono ou desligado)");
+        }
+    }
+
+    private static void emSegundoPlano(Runnable tarefa) {
+        Thread thread = new Thread(() -> {
+            try {
+                tarefa.run();
+            } catch (RuntimeException e) {
+                logger.error("Falha ao popular os dados iniciais", e);
+            }
+        }, "dados-iniciais");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void popular() {
         // Popula notícias apenas se o repositório estiver vazio
         if (noticiaRepository.count() == 0) {
             popularNoticias();
@@ -61,10 +131,89 @@ public class DataInitializer implements CommandLineRunner {
                 new Noticia("Comparativo: Honda Civic vs. Toyota Corolla", "Os dois sedãs mais famosos do mundo se enfrentam em mais um duelo.", "Descubra qual deles oferece o melhor pacote de tecnologia, desempenho e conforto.", "/images/civic.jpg", "03/01/2024", "Quatro Rodas", "Comparativos"),
                 new Noticia("Salão do Automóvel de São Paulo: As Grandes Novidades", "Confira os lançamentos e conceitos que marcaram o maior evento automotivo da América Latina.", "Cobertura completa do que rolou no São Paulo Expo.", "/images/salaosaopaulo.webp", "04/01/2024", "Motor1", "Exposição")
         );
+        noticias.forEach(renderizadorDeConteudo::aplicar);
         noticiaRepository.saveAll(noticias);
+        // No modo assíncrono a home pode ter sido guardada ainda vazia (aqui ou em outro nó).
+        registroDeAlteracoes.limparEmTodos();
         System.out.println("Notícias inseridas com sucesso.");
     }
 
+    /**
+     * Preenche as colunas das notícias gravadas antes de elas existirem.
+     */
+    private void preencher() {
+        preencherDatasDePublicacao();
+        preencherConteudoRenderizado();
+    }
+
+    /**
+     * Preenche a coluna data_publicacao das notícias gravadas antes de ela existir, convertendo o texto
+     * do campo "data". Percorre a tabela em lotes pela chave primária; datas em outro formato ficam nulas.
+     */
+    private void preencherDatasDePublicacao() {
+        long ultimoId = 0;
+        int preenchidas = 0;
+        List<Map<String, Object>> lote;
+        do {
+            lote = jdbcTemplate.queryForList(
+                    "SELECT id, data FROM noticia WHERE data_publicacao IS NULL AND id > ? ORDER BY id", ultimoId);
+            List<Object[]> datas = new ArrayList<>();
+            for (Map<String, Object> linha : lote) {
+                ultimoId = ((Number) linha.get("id")).longValue();
+                LocalDate data = Noticia.converterData((String) linha.get("data"));
+                if (data != null) {
+                    datas.add(new Object[] { Date.valueOf(data), ultimoId });
+                }
+            }
+            if (!datas.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE noticia SET data_publicacao = ? WHERE id = ?", datas);
+                preenchidas += datas.size();
+            }
+        } while (lote.size() == LOTE_PREENCHIMENTO);
+
+        if (preenchidas > 0) {
+            logger.info("Data de publicação preenchida em {} notícias", preenchidas);
+        }
+    }
+
+    /**
+     * Renderiza o conteúdo das notícias gravadas antes de o HTML ser guardado junto com elas, em lotes pela
+     * chave primária. A data de modificação é atualizada para que as respostas condicionais e o cache de
+     * páginas não continuem servindo a versão sem o HTML.
+     */
+    private void preencherConteudoRenderizado() {
+        long ultimoId = 0;
+        int preenchidas = 0;
+        List<Map<String, Object>> lote;
+        do {
+            lote = jdbcTemplate.queryForList(
+                    "SELECT id, conteudo, resumo FROM noticia WHERE conteudo_html IS NULL AND id > ? ORDER BY id", ultimoId);
+            Timestamp agora = Timestamp.from(Instant.now());
+            List<Object[]> renderizados = new ArrayList<>();
+            for (Map<String, Object> linha : lote) {
+                ultimoId = ((Number) linha.get("id")).longValue();
+                RenderizadorDeConteudo.ConteudoRenderizado conteudo =
+                        renderizadorDeConteudo.renderizar((String) linha.get("conteudo"));
+                String resumo = (String) linha.get("resumo");
+                if (resumo == null || resumo.isBlank()) {
+                    resumo = renderizadorDeConteudo.resumir(conteudo.getTexto());
+                }
+                renderizados.add(new Object[] { conteudo.getHtml(), conteudo.getPalavras(),
+                        conteudo.getMinutosDeLeitura(), resumo, agora, ultimoId });
+            }
+            if (!renderizados.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE noticia SET conteudo_html = ?, palavras = ?, minutos_de_leitura = ?, "
+                        + "resumo = ?, modificado_em = ? WHERE id = ?", renderizados);
+                preenchidas += renderizados.size();
+            }
+        } while (lote.size() == LOTE_PREENCHIMENTO);
+
+        if (preenchidas > 0) {
+            registroDeAlteracoes.limparEmTodos();
+            logger.info("Conteúdo renderizado em {} notícias", preenchidas);
+        }
+    }
+
     private void criarUsuarioAdmin() {
         System.out.println("Criando usuário ADMIN padrão...");
         Usuario admin = new Usuario();
@@ -73,7 +222,7 @@ public class DataInitializer implements CommandLineRunner {
         admin.setSenha(passwordEncoder.encode("1234")); // A senha será "1234"
         admin.setRole("ROLE_ADMIN"); // Define o papel como administrador
         admin.setPerguntaSeguranca("Qual é o seu nome de usuário?");
-        admin.setRespostaSeguranca(passwordEncoder.encode(admin.getNome()));
+        admin.setRespostaSeguranca(respostaSegurancaEncoder.encode(admin.getNome()));
         usuarioRepository.save(admin);
         System.out.println("Usuário ADMIN criado com sucesso (email: juanadm@gmail.com, senha: 1234)");
     }
@@ -0,0 +1,92 @@
+package com.carro.SobreRodas.config;
+
+import com.carro.SobreRodas.dto.Article;
+import com.carro.SobreRodas.dto.CarimboNoticias;
+import com.carro.SobreRodas.dto.CartaoNoticia;
+import com.carro.SobreRodas.dto.FiltroNoticias;
+import com.carro.SobreRodas.dto.GradeNoticias;
+import com.carro.SobreRodas.dto.ImagemArmazenada;
+import com.carro.SobreRodas.dto.LinhaNoticiaAdmin;
+import com.carro.SobreRodas.dto.NewsApiResponse;
+import com.carro.SobreRodas.dto.Source;
+import com.carro.SobreRodas.model.AlteracaoNoticia;
+import com.carro.SobreRodas.model.Assinante;
+import com.carro.SobreRodas.model.EmailOutbox;
+import com.carro.SobreRodas.model.NewsletterEnvio;
+import com.carro.SobreRodas.model.Noticia;
+import com.carro.SobreRodas.model.PasswordResetToken;
+import com.carro.SobreRodas.model.Usuario;
+import com.carro.SobreRodas.security.UsuarioPrincipal;
+import com.carro.SobreRodas.service.OperacoesEmMassaService;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Informa ao GraalVM native-image (perfil Maven "native") o que a aplicação acessa por reflexão,
+ * proxies ou serialização e que a análise estática do AOT do Spring não consegue descobrir sozinha.
+ * Na JVM estas dicas não têm efeito.
+ */
+public class DicasDeExecucaoNativa implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> ENTIDADES = List.of(
+            Noticia.class, Usuario.class, PasswordResetToken.class,
+            Assinante.class, EmailOutbox.class, NewsletterEnvio.class, AlteracaoNoticia.class);
+
+    private static final List<Class<?>> DTOS = List.of(
+            NewsApiResponse.class, Article.class, Source.class, ImagemArmazenada.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Entidades: o Hibernate lê/grava os campos privados e usa o construtor sem argumentos;
+        // o Thymeleaf (SpEL) e o data binding dos formulários do admin chamam os getters/setters.
+        BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+        for (Class<?> entidade : ENTIDADES) {
+            hints.reflection().registerType(entidade, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+            binding.registerReflectionHints(hints.reflection(), entidade);
+        }
+        // DTOs desserializados/serializados pelo Jackson.
+        DTOS.forEach(dto -> binding.registerReflectionHints(hints.reflection(), dto));
+
+        // Projeções instanciadas pelo Hibernate em expressões "SELECT new ..." das consultas JPQL.
+        hints.reflection().registerType(CarimboNoticias.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        // A linha da grade do admin também é lida pelo Thymeleaf; a grade e o filtro são lidos e preenchidos pelo Spring MVC.
+        hints.reflection().registerType(LinhaNoticiaAdmin.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(GradeNoticias.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(FiltroNoticias.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(OperacoesEmMassaService.Progresso.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(OperacoesEmMassaService.Tipo.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        // Lidos pelo Thymeleaf (SpEL) nas listagens em partes: os cartões e o "empty" da própria listagem.
+        hints.reflection().registerType(CartaoNoticia.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(TypeReference.of("com.carro.SobreRodas.controller.ListagemEmPartes"),
+                MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        // O principal fica serializado na sessão (spring-session-jdbc) e é lido pelas páginas via sec:authentication.
+        hints.serialization().registerType(UsuarioPrincipal.class);
+        hints.reflection().registerType(UsuarioPrincipal.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        // Templates (páginas e e-mails) e assets estáticos, incluindo as variantes .gz pré-comprimidas.
+        hints.resources().registerPattern("templates/**");
+        hints.resources().registerPattern("static/**");
+
+        // O datasource-proxy (MetricasConfig) embrulha conexões e comandos JDBC em proxies dinâmicos.
+        for (Class<?> tipo : List.of(Connection.class, Statement.class, PreparedStatement.class,
+                CallableStatement.class, ResultSet.class)) {
+            hints.proxies().registerJdkProxy(ProxyJdbcObject.class, tipo);
+        }
+    }
+}
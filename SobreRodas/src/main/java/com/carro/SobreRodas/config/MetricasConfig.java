@@ -0,0 +1,73 @@
+package com.carro.SobreRodas.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de banco de dados: substitui o spring.jpa.show-sql por contagem/tempo de comandos SQL
+ * por requisição e por um log apenas das consultas lentas.
+ * As métricas ficam em /actuator/prometheus (junto com as do Hibernate, do pool Hikari e do Tomcat).
+ */
+@Configuration
+public class MetricasConfig {
+
+    /**
+     * Envolve o DataSource em um proxy que mede cada comando SQL e registra em log (logger "sql.lenta")
+     * os que passarem de sql.lenta.limite-ms.
+     * O proxy delega unwrap() ao pool, então as métricas do Hikari continuam funcionando.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceComMetricas(ObjectProvider<MeterRegistry> meterRegistry,
+                                                          @Value("${sql.lenta.limite-ms:200}") long limiteLentaMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new ContadorDeConsultas(meterRegistry))
+                            .logSlowQueryBySlf4j(limiteLentaMs, TimeUnit.MILLISECONDS, SLF4JLogLevel.WARN, "sql.lenta")
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Registra o filtro antes do Spring Session, para que a gravação da sessão também seja contada.
+     */
+    @Bean
+    public FilterRegistrationBean<ConsultasPorRequisicaoFilter> consultasPorRequisicaoFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConsultasPorRequisicaoFilter> registro =
+                new FilterRegistrationBean<>(new ConsultasPorRequisicaoFilter(meterRegistry));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registro;
+    }
+
+    /**
+     * Cabeçalho Server-Timing: depois do Spring Session e antes do Spring Security (ordem -100).
+     */
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(MeterRegistry meterRegistry,
+                                                                        @Value("${server-timing.amostragem:0.01}") double amostragem,
+                                                                        @Value("${server-timing.admins:true}") boolean paraAdmins) {
+        FilterRegistrationBean<ServerTimingFilter> registro =
+                new FilterRegistrationBean<>(new ServerTimingFilter(meterRegistry, amostragem, paraAdmins));
+        registro.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 5);
+        return registro;
+    }
+}
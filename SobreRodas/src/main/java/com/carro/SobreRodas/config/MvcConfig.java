@@ -1,18 +1,48 @@
 package com.carro.SobreRodas.config;
 
+import com.carro.SobreRodas.service.CacheDePaginas;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class MvcConfig implements WebMvcConfigurer {
 
+    /**
+     * Cache das páginas públicas para visitantes anônimos. Fica logo depois do ServerTimingFilter
+     * e antes do Spring Security, para que um acerto não passe pelos filtros de segurança.
+     */
+    @Bean
+    public FilterRegistrationBean<CacheDePaginasFilter> cacheDePaginasFilter(CacheDePaginas cacheDePaginas,
+                                                                            @Value("${cache.paginas.max-bytes-por-pagina:1048576}") int maxBytesPorPagina) {
+        FilterRegistrationBean<CacheDePaginasFilter> registro =
+                new FilterRegistrationBean<>(new CacheDePaginasFilter(cacheDePaginas, maxBytesPorPagina));
+        registro.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 4);
+        return registro;
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         Path uploadDir = Paths.get("./uploads");
-        registry.addResourceHandler("/uploads/**").addResourceLocations("file:/" + uploadDir.toAbsolutePath() + "/");
+        // Os uploads recebem um nome UUID único e nunca são sobrescritos, então podem ficar em cache por um ano.
+        registry.addResourceHandler("/uploads/**")
+                .addResourceLocations("file:/" + uploadDir.toAbsolutePath() + "/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Marca as fases handler/view das requisições amostradas pelo ServerTimingFilter.
+        registry.addInterceptor(new ServerTimingInterceptor());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,158 @@
+package com.carro.SobreRodas.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Relatório do tempo de inicialização, para acompanhar o "tempo até a primeira requisição" entre versões.
+ *
+ * Quando a aplicação é iniciada com {@link BufferingApplicationStartup} (ver {@code SobreRodasApplication}),
+ * registra no log, ao ficar pronta, a duração de cada fase do Spring e os beans mais lentos (tempo próprio,
+ * descontado o tempo dos beans criados como dependência). Na primeira requisição atendida, publica a métrica
+ * {@code aplicacao.primeira.requisicao} e, se {@code inicio.historico.arquivo} estiver definido, acrescenta
+ * uma linha CSV com os tempos desta inicialização.
+ */
+@Component
+public class RelatorioDeInicializacao {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelatorioDeInicializacao.class);
+
+    private static final String INSTANCIAR_BEAN = "spring.beans.instantiate";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxBeans;
+    private final String arquivoHistorico;
+    private final AtomicBoolean primeiraRequisicao = new AtomicBoolean();
+
+    private volatile long prontoMs = -1;
+    private volatile long refreshMs = -1;
+
+    public RelatorioDeInicializacao(MeterRegistry meterRegistry,
+                                    @Value("${inicio.relatorio.max-beans:15}") int maxBeans,
+                                    @Value("${inicio.historico.arquivo:}") String arquivoHistorico) {
+        this.meterRegistry = meterRegistry;
+        this.maxBeans = maxBeans;
+        this.arquivoHistorico = arquivoHistorico;
+    }
+
+    @EventListener
+    public void aoFicarPronta(ApplicationReadyEvent event) {
+        prontoMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        ApplicationStartup startup = event.getSpringApplication().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            logger.info("Aplicação pronta em {} ms desde o início da JVM", prontoMs);
+            return;
+        }
+
+        StartupTimeline linhaDoTempo = buffering.getBufferedTimeline();
+        List<StartupTimeline.TimelineEvent> eventos = linhaDoTempo.getEvents();
+
+        // Tempo próprio de cada bean: duração da criação menos a dos beans criados dentro dela.
+        Map<Long, Long> nanosDosFilhos = new HashMap<>();
+        for (StartupTimeline.TimelineEvent evento : eventos) {
+            StartupStep passo = evento.getStartupStep();
+            if (INSTANCIAR_BEAN.equals(passo.getName()) && passo.getParentId() != null) {
+                nanosDosFilhos.merge(passo.getParentId(), evento.getDuration().toNanos(), Long::sum);
+            }
+        }
+
+        Map<String, Duration> fases = new LinkedHashMap<>();
+        Map<String, Long> beans = new HashMap<>();
+        for (StartupTimeline.TimelineEvent evento : eventos) {
+            StartupStep passo = evento.getStartupStep();
+            if (INSTANCIAR_BEAN.equals(passo.getName())) {
+                long proprio = evento.getDuration().toNanos() - nanosDosFilhos.getOrDefault(passo.getId(), 0L);
+                beans.merge(nomeDoBean(passo), proprio, Long::sum);
+            } else if (passo.getName().startsWith("spring.boot.application.")
+                    || "spring.context.refresh".equals(passo.getName())) {
+                fases.merge(passo.getName(), evento.getDuration(), Duration::plus);
+            }
+        }
+        Duration refresh = fases.get("spring.context.refresh");
+        refreshMs = refresh != null ? refresh.toMillis() : -1;
+
+        StringBuilder relatorio = new StringBuilder()
+                .append("Aplicação pronta em ").append(prontoMs).append(" ms desde o início da JVM")
+                .append(" (").append(eventos.size()).append(" passos registrados)\nFases:");
+        fases.forEach((fase, duracao) ->
+                relatorio.append(String.format("%n  %-50s %7d ms", fase, duracao.toMillis())));
+        relatorio.append("\nBeans mais lentos (tempo próprio):");
+        beans.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(maxBeans)
+                .forEach(bean -> relatorio.append(String.format("%n  %-70s %7d ms",
+                        bean.getKey(), TimeUnit.NANOSECONDS.toMillis(bean.getValue()))));
+        logger.info("{}", relatorio);
+    }
+
+    @EventListener
+    public void aoAtenderRequisicao(ServletRequestHandledEvent event) {
+        if (primeiraRequisicao.get() || !primeiraRequisicao.compareAndSet(false, true)) {
+            return;
+        }
+        long primeiraMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        TimeGauge.builder("aplicacao.primeira.requisicao", () -> primeiraMs, TimeUnit.MILLISECONDS)
+                .description("Tempo desde o início da JVM até a primeira requisição atendida")
+                .register(meterRegistry);
+        logger.info("Primeira requisição ({}) atendida {} ms após o início da JVM", event.getRequestUrl(), primeiraMs);
+
+        if (!arquivoHistorico.isBlank()) {
+            gravarHistorico(primeiraMs);
+        }
+    }
+
+    private void gravarHistorico(long primeiraMs) {
+        Path arquivo = Path.of(arquivoHistorico);
+        String versao = RelatorioDeInicializacao.class.getPackage().getImplementationVersion();
+        String linha = String.join(",", Instant.now().toString(), versao != null ? versao : "dev",
+                Long.toString(refreshMs), Long.toString(prontoMs), Long.toString(primeiraMs)) + "\n";
+        try {
+            if (arquivo.getParent() != null) {
+                Files.createDirectories(arquivo.getParent());
+            }
+            if (Files.notExists(arquivo)) {
+                Files.writeString(arquivo, "momento,versao,refresh_ms,pronta_ms,primeira_requisicao_ms\n",
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW);
+            }
+            Files.writeString(arquivo, linha, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            logger.warn("Não foi possível gravar o histórico de inicialização em {}", arquivo, ex);
+        }
+    }
+
+    private static String nomeDoBean(StartupStep passo) {
+        for (StartupStep.Tag tag : passo.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+}
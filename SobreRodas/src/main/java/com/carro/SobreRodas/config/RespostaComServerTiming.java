@@ -0,0 +1,159 @@
+package com.carro.SobreRodas.config;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.function.Supplier;
+
+/**
+ * Escreve o cabeçalho Server-Timing do {@link ServerTimingFilter} no último momento possível, sem segurar o
+ * corpo em buffer: logo antes de a resposta ser enviada (ao fim da requisição, num flushBuffer, num
+ * sendError/sendRedirect ou quando o que foi escrito não cabe mais no buffer do servidor). Uma resposta
+ * pequena leva os tempos completos; uma enviada em partes (ou um download grande) leva os tempos até o
+ * primeiro envio.
+ */
+class RespostaComServerTiming extends HttpServletResponseWrapper {
+
+    private final Supplier<String> cabecalho;
+    private boolean enviado;
+    private long escritos;
+    private long tamanhoDeclarado = -1;
+    private ServletOutputStream saida;
+    private PrintWriter writer;
+
+    RespostaComServerTiming(HttpServletResponse response, Supplier<String> cabecalho) {
+        super(response);
+        this.cabecalho = cabecalho;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (saida == null) {
+            saida = new SaidaMedida(super.getOutputStream());
+        }
+        return saida;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        tamanhoDeclarado = len;
+        super.setContentLength(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        tamanhoDeclarado = len;
+        super.setContentLengthLong(len);
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        enviarCabecalho();
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        enviarCabecalho();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        enviarCabecalho();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        enviarCabecalho();
+        super.sendRedirect(location);
+    }
+
+    /**
+     * Escreve o cabeçalho (se a resposta ainda não foi enviada) e o que ainda estiver no writer. Deve ser
+     * chamado ao fim da requisição.
+     */
+    void concluir() {
+        enviarCabecalho();
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    private void enviarCabecalho() {
+        if (!enviado && !isCommitted()) {
+            setHeader("Server-Timing", cabecalho.get());
+        }
+        enviado = true;
+    }
+
+    // Antes de uma escrita que faria o servidor enviar a resposta: buffer cheio ou Content-Length atingido.
+    private void antesDeEscrever(int tamanho) {
+        if (enviado) {
+            return;
+        }
+        escritos += tamanho;
+        if (escritos >= getBufferSize() || (tamanhoDeclarado >= 0 && escritos >= tamanhoDeclarado)) {
+            enviarCabecalho();
+        }
+    }
+
+    private final class SaidaMedida extends ServletOutputStream {
+        private final ServletOutputStream original;
+
+        private SaidaMedida(ServletOutputStream original) {
+            this.original = original;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            antesDeEscrever(1);
+            original.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            antesDeEscrever(len);
+            original.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            enviarCabecalho();
+            original.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            enviarCabecalho();
+            original.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return original.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            original.setWriteListener(writeListener);
+        }
+    }
+}
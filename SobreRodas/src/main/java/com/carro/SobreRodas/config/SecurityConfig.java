@@ -1,16 +1,33 @@
 package com.carro.SobreRodas.config;
 
+import com.carro.SobreRodas.security.BCryptCalibrador;
+import com.carro.SobreRodas.security.BoundedPasswordEncoder;
+import com.carro.SobreRodas.security.LoginSaturadoException;
+import com.carro.SobreRodas.security.LoginThrottleFilter;
+import com.carro.SobreRodas.security.LoginThrottleService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.ExceptionMappingAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 
+import java.util.Map;
+
 /**
  * Classe de configuração para o Spring Security.
  * Define as regras de autorização, configuração de login, logout e outros aspectos de segurança.
@@ -19,28 +36,88 @@ import org.springframework.security.config.annotation.authentication.configurati
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * Cadeia própria dos endpoints de monitoramento: o coletor do Prometheus (/actuator/prometheus) não faz login
+     * por formulário e se autentica por HTTP Basic. A autenticação básica fica restrita a /actuator/**, sem sessão,
+     * e passa pelo mesmo limite de tentativas do formulário de login.
+     * @param http O objeto HttpSecurity para configurar a segurança web.
+     * @param loginThrottleService O serviço que limita a taxa de tentativas de login.
+     * @return A cadeia de filtros de /actuator/**.
+     * @throws Exception Se ocorrer um erro na configuração.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http, LoginThrottleService loginThrottleService) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .addFilterBefore(new LoginThrottleFilter(loginThrottleService), BasicAuthenticationFilter.class)
+            .authorizeHttpRequests(authorize -> authorize
+                .requestMatchers("/actuator/health").permitAll()
+                .anyRequest().hasRole("ADMIN")
+            )
+            .httpBasic(Customizer.withDefaults())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .csrf(csrf -> csrf.disable()); // Sem sessão nem formulários: o coletor envia as credenciais a cada requisição.
+
+        return http.build();
+    }
+
+    /**
+     * Cadeia da área administrativa (/admin/**), com proteção CSRF: um formulário de outro site enviado pelo
+     * navegador de um admin logado (ex.: uma exclusão em massa) é rejeitado. Os formulários com th:action recebem
+     * o token automaticamente. Fica separada da cadeia principal para que as páginas públicas não criem uma
+     * sessão só para guardar o token (o que as tiraria do cache de páginas).
+     * A autenticação vem da sessão criada pelo login da cadeia principal.
+     * @param http O objeto HttpSecurity para configurar a segurança web.
+     * @return A cadeia de filtros de /admin/**.
+     * @throws Exception Se ocorrer um erro na configuração.
+     */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain adminFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/admin/**")
+            .authorizeHttpRequests(authorize -> authorize.anyRequest().hasRole("ADMIN"))
+            // Quem não está logado vai para o login da cadeia principal e volta à página pedida depois.
+            .exceptionHandling(excecoes -> excecoes
+                .authenticationEntryPoint(new LoginUrlAuthenticationEntryPoint("/usuario/login")));
+
+        return http.build();
+    }
+
     /**
      * Configura a cadeia de filtros de segurança (Security Filter Chain).
+     * A autenticação é só por formulário; /actuator/** e /admin/** são tratados por {@link #actuatorFilterChain}
+     * e {@link #adminFilterChain}.
      * Define quais URLs são públicas e quais requerem autenticação.
      * @param http O objeto HttpSecurity para configurar a segurança web.
+     * @param loginThrottleService O serviço que limita a taxa de tentativas de login.
      * @return A cadeia de filtros de segurança construída.
      * @throws Exception Se ocorrer um erro na configuração.
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    @Order(3)
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, LoginThrottleService loginThrottleService) throws Exception {
+        // Redireciona para mensagens específicas quando o pool de verificação de senhas está saturado.
+        ExceptionMappingAuthenticationFailureHandler failureHandler = new ExceptionMappingAuthenticationFailureHandler();
+        failureHandler.setDefaultFailureUrl("/usuario/login?error=true");
+        failureHandler.setExceptionMappings(Map.of(LoginSaturadoException.class.getName(), "/usuario/login?ocupado=true"));
+
         http
+            // Rejeita tentativas de login acima do limite por IP/e-mail antes de qualquer verificação de senha.
+            .addFilterBefore(new LoginThrottleFilter(loginThrottleService, "/usuario/login"), UsernamePasswordAuthenticationFilter.class)
             .authorizeHttpRequests(authorize -> authorize
                 // Permite acesso público a URLs estáticas, páginas principais e de autenticação.
-                .requestMatchers("/", "/index", "/eventos", "/comparativo", "/noticia/**", "/pesquisa", "/usuario/login", "/usuario/cadastro", "/usuario/esqueci-senha", "/usuario/resetar-senha", "/css/**", "/js/**", "/images/**", "/uploads/**").permitAll()
-                // Apenas usuários com a role 'ADMIN' podem acessar URLs que começam com /admin/
-                .requestMatchers("/admin/**").hasRole("ADMIN")
+                .requestMatchers("/", "/index", "/eventos", "/comparativo", "/noticia/**", "/pesquisa", "/usuario/login", "/usuario/cadastro", "/usuario/esqueci-senha", "/usuario/resetar-senha", "/newsletter/**", "/css/**", "/js/**", "/images/**", "/uploads/**").permitAll()
+                // A página de erro (ex.: o 401 ou 429 de /actuator/**) não pode virar um redirecionamento para o login.
+                .requestMatchers("/error").permitAll()
                 .anyRequest().authenticated() // Exige autenticação para qualquer outra requisição.
             )
             .formLogin(form -> form
                 .loginPage("/usuario/login") // Página de login customizada.
                 .loginProcessingUrl("/usuario/login") // URL que processa o login.
                 .defaultSuccessUrl("/") // Página para redirecionar após login bem-sucedido.
-                .failureUrl("/usuario/login?error=true") // Página para redirecionar após falha no login.
+                .failureHandler(failureHandler) // Redireciona para /usuario/login?error=true (ou ?ocupado=true) após falha no login.
                 .permitAll() // Permite acesso à página de login para todos.
             )
             .logout(logout -> logout
@@ -48,7 +125,7 @@ public class SecurityConfig {
                 .logoutSuccessUrl("/usuario/login?logout") // Página para redirecionar após logout.
                 .permitAll() // Permite acesso à funcionalidade de logout para todos.
             )
-            .csrf(csrf -> csrf.disable()); // Simplificado para desenvolvimento. Em produção, configure o CSRF corretamente.
+            .csrf(csrf -> csrf.disable()); // Ligado só em /admin/** (adminFilterChain).
         
         return http.build();
     }
@@ -66,10 +143,36 @@ public class SecurityConfig {
 
     /**
      * Define o BCryptPasswordEncoder como o codificador de senhas padrão da aplicação.
-     * @return Uma instância do BCryptPasswordEncoder.
+     * O fator de custo é calibrado na inicialização para atingir a latência alvo no hardware atual
+     * (ou fixado por senha.bcrypt.custo). Os hashes são gravados com o prefixo {bcrypt}; hashes antigos,
+     * sem prefixo ou com custo menor, são regravados de forma transparente no próximo login bem-sucedido
+     * (ver {@link com.carro.SobreRodas.service.CustomUserDetailsService#updatePassword}). Baixar o custo não
+     * regrava os hashes existentes: eles continuam válidos, com o custo com que foram gravados.
+     * As verificações de senha passam por um pool limitado a uma fração da CPU.
+     * @param meterRegistry Registro de métricas.
+     * @param custoFixo Fator de custo fixo; 0 para calibrar automaticamente.
+     * @param latenciaAlvoMs Latência alvo de um hash usada na calibração.
+     * @param custoMinimo Menor fator de custo aceito na calibração.
+     * @param custoMaximo Maior fator de custo aceito na calibração.
+     * @param fracaoCpu Fração dos processadores que as verificações de senha podem ocupar.
+     * @param esperaMaximaMs Tempo máximo de espera por uma vaga no pool antes de rejeitar o login.
+     * @return O codificador de senhas da aplicação.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${senha.bcrypt.custo:0}") int custoFixo,
+                                           @Value("${senha.bcrypt.latencia-alvo-ms:250}") long latenciaAlvoMs,
+                                           @Value("${senha.bcrypt.custo-minimo:10}") int custoMinimo,
+                                           @Value("${senha.bcrypt.custo-maximo:14}") int custoMaximo,
+                                           @Value("${login.bcrypt.fracao-cpu:0.5}") double fracaoCpu,
+                                           @Value("${login.bcrypt.espera-maxima-ms:200}") long esperaMaximaMs) {
+        int custo = custoFixo > 0 ? custoFixo : BCryptCalibrador.calibrar(latenciaAlvoMs, custoMinimo, custoMaximo);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(custo)));
+        // Hashes gravados antes desta configuração não têm o prefixo {bcrypt}.
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(custo));
+
+        return new BoundedPasswordEncoder(delegating, fracaoCpu, esperaMaximaMs, meterRegistry);
     }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.carro.SobreRodas.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Divide o tempo das requisições de administradores e de uma amostra das demais em fases
+ * (segurança, aplicação, banco, template) e as devolve no cabeçalho Server-Timing, visível no DevTools
+ * do navegador. Os mesmos números alimentam a métrica http.server.requests.fases.
+ * O tempo de "db" se sobrepõe ao das outras fases (é onde as consultas acontecem) e é medido comando a
+ * comando pelo {@link ContadorDeConsultas}; as durações vão com precisão de microssegundos, para que uma
+ * página com muitas consultas rápidas não apareça com "db" zerado.
+ * <p>
+ * Roda antes do Spring Security (para medir os filtros de segurança) e depois do Spring Session
+ * (para reconhecer um administrador pela sessão). O corpo não fica em buffer: o cabeçalho é escrito logo
+ * antes de a resposta ser enviada (ver {@link RespostaComServerTiming}), então as páginas enviadas em partes
+ * e os downloads continuam sendo enviados aos poucos. As requisições não amostradas passam direto.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final double amostragem;
+    private final boolean paraAdmins;
+
+    public ServerTimingFilter(MeterRegistry meterRegistry, double amostragem, boolean paraAdmins) {
+        this.meterRegistry = meterRegistry;
+        this.amostragem = amostragem;
+        this.paraAdmins = paraAdmins;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!amostrada(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        TemposDaRequisicao tempos = new TemposDaRequisicao();
+        request.setAttribute(TemposDaRequisicao.ATRIBUTO, tempos);
+        ContadorDeConsultas.Escopo consultas = ContadorDeConsultas.abrir();
+        RespostaComServerTiming resposta = new RespostaComServerTiming(response,
+                () -> montarCabecalho(tempos, consultas, System.nanoTime()));
+        try {
+            filterChain.doFilter(request, resposta);
+        } finally {
+            consultas.close();
+            long fim = System.nanoTime();
+            resposta.concluir();
+            registrarMetricas(request, tempos, consultas, fim);
+        }
+    }
+
+    private boolean amostrada(HttpServletRequest request) {
+        if (amostragem > 0 && ThreadLocalRandom.current().nextDouble() < amostragem) {
+            return true;
+        }
+        return paraAdmins && administrador(request);
+    }
+
+    private static boolean administrador(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return false;
+        }
+        Object contexto = session.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+        if (!(contexto instanceof SecurityContext securityContext) || securityContext.getAuthentication() == null) {
+            return false;
+        }
+        for (GrantedAuthority authority : securityContext.getAuthentication().getAuthorities()) {
+            if ("ROLE_ADMIN".equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String montarCabecalho(TemposDaRequisicao tempos, ContadorDeConsultas.Escopo consultas, long fim) {
+        StringBuilder cabecalho = new StringBuilder();
+        if (tempos.inicioHandler != 0) {
+            metrica(cabecalho, "seguranca", tempos.inicioHandler - tempos.inicio, null);
+        }
+        if (tempos.fimHandler != 0) {
+            metrica(cabecalho, "aplicacao", tempos.fimHandler - tempos.inicioHandler, null);
+        }
+        if (tempos.fimView != 0) {
+            metrica(cabecalho, "template", tempos.fimView - tempos.fimHandler, null);
+        }
+        metrica(cabecalho, "db", consultas.getTempoNanos(), consultas.getComandos() + " comandos SQL");
+        metrica(cabecalho, "total", fim - tempos.inicio, null);
+        return cabecalho.toString();
+    }
+
+    private static void metrica(StringBuilder cabecalho, String nome, long nanos, String descricao) {
+        if (cabecalho.length() > 0) {
+            cabecalho.append(", ");
+        }
+        cabecalho.append(nome).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+        if (descricao != null) {
+            cabecalho.append(";desc=\"").append(descricao).append('"');
+        }
+    }
+
+    private void registrarMetricas(HttpServletRequest request, TemposDaRequisicao tempos, ContadorDeConsultas.Escopo consultas, long fim) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (padrao == null || tempos.fimHandler == 0) {
+            return;
+        }
+        String uri = padrao.toString();
+        registrar(uri, "seguranca", tempos.inicioHandler - tempos.inicio);
+        registrar(uri, "aplicacao", tempos.fimHandler - tempos.inicioHandler);
+        if (tempos.fimView != 0) {
+            registrar(uri, "template", tempos.fimView - tempos.fimHandler);
+        }
+        registrar(uri, "db", consultas.getTempoNanos());
+    }
+
+    private void registrar(String uri, String fase, long nanos) {
+        Timer.builder("http.server.requests.fases")
+                .description("Tempo por fase das requisições amostradas")
+                .tag("uri", uri)
+                .tag("fase", fase)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,38 @@
+package com.carro.SobreRodas.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Marca o início e o fim do handler e o fim da renderização da view nas requisições amostradas
+ * pelo {@link ServerTimingFilter}.
+ */
+public class ServerTimingInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        TemposDaRequisicao tempos = TemposDaRequisicao.de(request);
+        if (tempos != null) {
+            tempos.inicioHandler = System.nanoTime();
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        TemposDaRequisicao tempos = TemposDaRequisicao.de(request);
+        if (tempos != null) {
+            tempos.fimHandler = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        TemposDaRequisicao tempos = TemposDaRequisicao.de(request);
+        if (tempos != null && tempos.fimHandler != 0) {
+            tempos.fimView = System.nanoTime();
+        }
+    }
+}
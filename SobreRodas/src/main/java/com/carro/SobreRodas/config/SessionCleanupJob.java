@@ -0,0 +1,58 @@
+package com.carro.SobreRodas.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Remove periodicamente as sessões expiradas da tabela SPRING_SESSION em lotes de tamanho limitado,
+ * para que a limpeza nunca segure locks sobre milhares de linhas de uma só vez.
+ * Substitui a limpeza padrão do Spring Session (desativada com spring.session.jdbc.cleanup-cron=-).
+ * Os atributos são removidos em cascata pela chave estrangeira de SPRING_SESSION_ATTRIBUTES.
+ */
+@Component
+public class SessionCleanupJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionCleanupJob.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final int tamanhoLote;
+
+    public SessionCleanupJob(JdbcTemplate jdbcTemplate, @Value("${sessao.limpeza.tamanho-lote:500}") int tamanhoLote) {
+        // Template próprio, com limite de linhas por consulta, para selecionar cada lote de forma portável.
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setMaxRows(tamanhoLote);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate.getDataSource());
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Apaga as sessões expiradas, um lote por vez, até não restar nenhuma.
+     */
+    @Scheduled(cron = "${sessao.limpeza.cron:0 * * * * *}")
+    public void limparSessoesExpiradas() {
+        long agora = System.currentTimeMillis();
+        int total = 0;
+        List<String> ids;
+        do {
+            ids = jdbcTemplate.queryForList(
+                    "SELECT PRIMARY_ID FROM SPRING_SESSION WHERE EXPIRY_TIME < ?", String.class, agora);
+            if (!ids.isEmpty()) {
+                total += namedJdbcTemplate.update("DELETE FROM SPRING_SESSION WHERE PRIMARY_ID IN (:ids)",
+                        new MapSqlParameterSource("ids", ids));
+            }
+        } while (ids.size() == tamanhoLote);
+
+        if (total > 0) {
+            logger.info("{} sessões expiradas removidas", total);
+        }
+    }
+}
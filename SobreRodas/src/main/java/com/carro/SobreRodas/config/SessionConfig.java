@@ -0,0 +1,86 @@
+package com.carro.SobreRodas.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Configuração das sessões HTTP armazenadas via Spring Session JDBC (tabelas SPRING_SESSION*).
+ * Os atributos são gravados com serialização Java comprimida (deflate), o que reduz bastante
+ * o tamanho de objetos como o SecurityContext guardado após o login.
+ */
+@Configuration
+public class SessionConfig {
+
+    // Marcador gravado antes dos atributos comprimidos; atributos sem ele são lidos como serialização Java pura.
+    private static final int MARCADOR_COMPRIMIDO = 0xC5;
+
+    /**
+     * Conversor usado pelo JdbcIndexedSessionRepository para transformar atributos em bytes e vice-versa.
+     * O nome do bean é o esperado pelo Spring Session.
+     * @return O serviço de conversão com serialização comprimida.
+     */
+    @Bean("springSessionConversionService")
+    public ConversionService springSessionConversionService() {
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(Object.class, byte[].class,
+                new SerializingConverter(new SerializadorComprimido()));
+        conversionService.addConverter(byte[].class, Object.class,
+                new DeserializingConverter(new DesserializadorComprimido(getClass().getClassLoader())));
+        return conversionService;
+    }
+
+    /**
+     * Grava o marcador seguido da serialização Java padrão comprimida.
+     */
+    static class SerializadorComprimido implements Serializer<Object> {
+
+        private final DefaultSerializer delegate = new DefaultSerializer();
+
+        @Override
+        public void serialize(Object object, OutputStream outputStream) throws IOException {
+            outputStream.write(MARCADOR_COMPRIMIDO);
+            DeflaterOutputStream deflater = new DeflaterOutputStream(outputStream, new Deflater(Deflater.BEST_SPEED));
+            delegate.serialize(object, deflater);
+            deflater.finish();
+        }
+    }
+
+    /**
+     * Lê atributos comprimidos (com marcador) ou, por compatibilidade, serialização Java pura.
+     */
+    static class DesserializadorComprimido implements Deserializer<Object> {
+
+        private final DefaultDeserializer delegate;
+
+        DesserializadorComprimido(ClassLoader classLoader) {
+            this.delegate = new DefaultDeserializer(classLoader);
+        }
+
+        @Override
+        public Object deserialize(InputStream inputStream) throws IOException {
+            InputStream in = new BufferedInputStream(inputStream);
+            in.mark(1);
+            if (in.read() == MARCADOR_COMPRIMIDO) {
+                return delegate.deserialize(new InflaterInputStream(in));
+            }
+            in.reset();
+            return delegate.deserialize(in);
+        }
+    }
+}
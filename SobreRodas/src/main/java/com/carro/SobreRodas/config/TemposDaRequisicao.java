@@ -0,0 +1,23 @@
+package com.carro.SobreRodas.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Marcos de tempo de uma requisição amostrada pelo {@link ServerTimingFilter}.
+ * Fica em um atributo da requisição; nas requisições não amostradas o atributo não existe
+ * e o {@link ServerTimingInterceptor} não faz nada.
+ */
+final class TemposDaRequisicao {
+
+    static final String ATRIBUTO = TemposDaRequisicao.class.getName();
+
+    final long inicio = System.nanoTime();
+    // Instantes (System.nanoTime) em que o handler começou, terminou e a view terminou de renderizar; 0 se não ocorreu.
+    long inicioHandler;
+    long fimHandler;
+    long fimView;
+
+    static TemposDaRequisicao de(HttpServletRequest request) {
+        return (TemposDaRequisicao) request.getAttribute(ATRIBUTO);
+    }
+}
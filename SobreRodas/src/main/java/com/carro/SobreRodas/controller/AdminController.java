@@ -1,45 +1,127 @@
 package com.carro.SobreRodas.controller;
 
+import com.carro.SobreRodas.dto.FiltroNoticias;
+import com.carro.SobreRodas.dto.GradeNoticias;
+import com.carro.SobreRodas.dto.ImagemArmazenada;
 import com.carro.SobreRodas.model.Noticia;
 import com.carro.SobreRodas.service.FileStorageService;
 import com.carro.SobreRodas.service.NoticiaService;
+import com.carro.SobreRodas.service.OperacoesEmMassaService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Controller para gerenciar as operações de CRUD (Create, Read, Update, Delete) de Notícias.
  * Acessível apenas por usuários com a role 'ADMIN'.
+ * É criado só no primeiro acesso (@Lazy), junto com o FileStorageService: a área administrativa
+ * não precisa atrasar a inicialização dos nós que atendem o público.
  */
 @Controller
+@Lazy
 @RequestMapping("/admin/noticias")
 public class AdminController {
 
     private final NoticiaService noticiaService;
     private final FileStorageService fileStorageService;
+    private final OperacoesEmMassaService operacoesEmMassa;
 
     @Autowired
-    public AdminController(NoticiaService noticiaService, FileStorageService fileStorageService) {
+    public AdminController(NoticiaService noticiaService, FileStorageService fileStorageService,
+                           OperacoesEmMassaService operacoesEmMassa) {
         this.noticiaService = noticiaService;
         this.fileStorageService = fileStorageService;
+        this.operacoesEmMassa = operacoesEmMassa;
     }
 
     /**
-     * Lista todas as notícias para gerenciamento.
+     * Lista as notícias para gerenciamento, uma página por vez, com filtros e ordenação feitos no banco.
+     * Os parâmetros ficam na URL, então uma grade filtrada pode ser recarregada ou compartilhada.
      */
     @GetMapping
-    public String listarNoticias(Model model) {
-        model.addAttribute("noticias", noticiaService.findAll());
+    public String listarNoticias(@ModelAttribute("filtro") FiltroNoticias filtro,
+                                 @RequestParam(defaultValue = "0") int pagina,
+                                 @RequestParam(defaultValue = "${admin.grade.tamanho:25}") int tamanho,
+                                 @RequestParam(defaultValue = "id") String ordenar,
+                                 @RequestParam(defaultValue = "desc") String direcao,
+                                 Model model) {
+        boolean crescente = "asc".equalsIgnoreCase(direcao);
+        GradeNoticias grade = noticiaService.grade(filtro, pagina, tamanho, ordenar, crescente);
+        model.addAttribute("grade", grade);
+        model.addAttribute("tags", noticiaService.findTags());
+        model.addAttribute("ordenar", ordenar);
+        model.addAttribute("direcao", crescente ? "asc" : "desc");
+        model.addAttribute("parametrosDoFiltro", parametros("tag", filtro.getTag(), "autor", filtro.getAutor(),
+                "titulo", filtro.getTitulo(), "de", filtro.getDe(), "ate", filtro.getAte()));
+        model.addAttribute("parametrosDaOrdem", parametros("ordenar", ordenar, "direcao", crescente ? "asc" : "desc",
+                "tamanho", grade.getTamanho()));
+        model.addAttribute("tiposDeOperacao", OperacoesEmMassaService.Tipo.values());
         return "admin/noticias";
     }
 
+    /**
+     * Agenda uma operação em massa sobre as notícias marcadas (alvo "selecao") ou sobre todas as do filtro
+     * atual da grade (alvo "filtro") e redireciona para o acompanhamento do progresso.
+     * Sobre o filtro, o primeiro envio só exibe quantas notícias serão alteradas; a operação é agendada quando
+     * o admin confirma esse número (parâmetro "confirmacao") e ele ainda é o do filtro.
+     */
+    @PostMapping("/massa")
+    public String operacaoEmMassa(@ModelAttribute FiltroNoticias filtro,
+                                  @RequestParam(required = false) OperacoesEmMassaService.Tipo operacao,
+                                  @RequestParam(required = false) String valor,
+                                  @RequestParam(defaultValue = "selecao") String alvo,
+                                  @RequestParam(required = false) List<Long> ids,
+                                  @RequestParam(required = false) Long confirmacao,
+                                  Model model,
+                                  RedirectAttributes redirectAttributes) {
+        try {
+            OperacoesEmMassaService.Progresso progresso;
+            if (!"filtro".equals(alvo)) {
+                progresso = operacoesEmMassa.agendar(operacao, valor, ids);
+            } else if (confirmacao == null) {
+                model.addAttribute("filtro", filtro);
+                model.addAttribute("operacao", operacao);
+                model.addAttribute("valor", valor);
+                model.addAttribute("total", operacoesEmMassa.contar(operacao, valor, filtro));
+                return "admin/confirmar-operacao";
+            } else {
+                progresso = operacoesEmMassa.agendar(operacao, valor, filtro, confirmacao);
+            }
+            return "redirect:/admin/noticias/massa/" + progresso.getId();
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("mensagemErro", e.getMessage());
+            String parametrosDoFiltro = parametros("tag", filtro.getTag(), "autor", filtro.getAutor(),
+                    "titulo", filtro.getTitulo(), "de", filtro.getDe(), "ate", filtro.getAte());
+            return parametrosDoFiltro.isEmpty() ? "redirect:/admin/noticias"
+                    : "redirect:/admin/noticias?" + parametrosDoFiltro.substring(0, parametrosDoFiltro.length() - 1);
+        }
+    }
+
+    /**
+     * Acompanha uma operação em massa; a página se recarrega enquanto ela não termina.
+     */
+    @GetMapping("/massa/{id}")
+    public String progressoDaOperacao(@PathVariable String id, Model model, RedirectAttributes redirectAttributes) {
+        Optional<OperacoesEmMassaService.Progresso> progresso = operacoesEmMassa.progresso(id);
+        if (progresso.isEmpty()) {
+            redirectAttributes.addFlashAttribute("mensagemErro", "Operação não encontrada.");
+            return "redirect:/admin/noticias";
+        }
+        model.addAttribute("operacao", progresso.get());
+        return "admin/operacao";
+    }
+
     /**
      * Exibe o formulário para criar uma nova notícia.
      */
@@ -62,8 +144,7 @@ public class AdminController {
         }
 
         if (!imagemFile.isEmpty()) {
-            String fileName = fileStorageService.storeFile(imagemFile);
-            noticia.setImagem("/uploads/" + fileName);
+            aplicarImagem(noticia, imagemFile);
         }
         noticiaService.save(noticia);
         redirectAttributes.addFlashAttribute("mensagemSucesso", "Notícia criada com sucesso!");
@@ -92,24 +173,46 @@ public class AdminController {
         if (result.hasErrors()) {
             return "admin/noticia-form";
         }
+        // Sem a versão lida no formulário não há como detectar uma edição concorrente.
+        if (noticia.getVersao() == null) {
+            return edicaoEmConflito(id, redirectAttributes);
+        }
 
         if (!imagemFile.isEmpty()) {
-            String fileName = fileStorageService.storeFile(imagemFile);
-            noticia.setImagem("/uploads/" + fileName);
+            aplicarImagem(noticia, imagemFile);
         } else {
-            // Mantém a imagem antiga se nenhuma nova for enviada
-            noticiaService.findById(id).ifPresent(noticiaExistente -> noticia.setImagem(noticiaExistente.getImagem()));
+            // Mantém a imagem antiga (e seus metadados) se nenhuma nova for enviada
+            noticiaService.findById(id).ifPresent(noticiaExistente -> {
+                noticia.setImagem(noticiaExistente.getImagem());
+                noticia.setImagemLargura(noticiaExistente.getImagemLargura());
+                noticia.setImagemAltura(noticiaExistente.getImagemAltura());
+                noticia.setImagemPlaceholder(noticiaExistente.getImagemPlaceholder());
+            });
         }
         noticia.setId(id); // Garante que estamos atualizando a notícia correta
-        noticiaService.save(noticia);
+        try {
+            noticiaService.save(noticia);
+        } catch (OptimisticLockingFailureException e) {
+            return edicaoEmConflito(id, redirectAttributes);
+        }
         redirectAttributes.addFlashAttribute("mensagemSucesso", "Notícia atualizada com sucesso!");
         return "redirect:/admin/noticias";
     }
 
+    /**
+     * Outra pessoa salvou a notícia depois que o formulário foi aberto: reabre o formulário com a versão atual
+     * em vez de sobrescrever a alteração dela.
+     */
+    private String edicaoEmConflito(Long id, RedirectAttributes redirectAttributes) {
+        redirectAttributes.addFlashAttribute("mensagemErro",
+                "Esta notícia foi alterada por outra pessoa enquanto você editava. Confira a versão atual e refaça suas alterações.");
+        return "redirect:/admin/noticias/editar/" + id;
+    }
+
     /**
      * Deleta uma notícia.
      */
-    @GetMapping("/deletar/{id}")
+    @PostMapping("/deletar/{id}")
     public String deletarNoticia(@PathVariable("id") Long id, RedirectAttributes redirectAttributes) {
         try {
             noticiaService.deleteById(id);
@@ -119,4 +222,31 @@ public class AdminController {
         }
         return "redirect:/admin/noticias";
     }
-}
\ No newline at end of file
+
+    /**
+     * Armazena a imagem enviada e copia para a notícia o caminho, as dimensões e o placeholder.
+     */
+    private void aplicarImagem(Noticia noticia, MultipartFile imagemFile) {
+        ImagemArmazenada imagem = fileStorageService.storeImage(imagemFile);
+        noticia.setImagem("/uploads/" + imagem.getFileName());
+        noticia.setImagemLargura(imagem.getLargura());
+        noticia.setImagemAltura(imagem.getAltura());
+        noticia.setImagemPlaceholder(imagem.getPlaceholder());
+    }
+
+    /**
+     * Parâmetros preenchidos como trecho de query string ("nome=valor&..."), codificados e terminados em "&",
+     * para os links de ordenação e paginação repetirem o estado atual da grade.
+     */
+    private static String parametros(Object... nomesEValores) {
+        UriComponentsBuilder parametros = UriComponentsBuilder.newInstance();
+        for (int i = 0; i < nomesEValores.length; i += 2) {
+            Object valor = nomesEValores[i + 1];
+            if (valor != null && !valor.toString().isBlank()) {
+                parametros.queryParam((String) nomesEValores[i], valor);
+            }
+        }
+        String query = parametros.encode().build().getQuery();
+        return query != null ? query + "&" : "";
+    }
+}
@@ -0,0 +1,105 @@
+package com.carro.SobreRodas.controller;
+
+import com.carro.SobreRodas.service.DiagnosticoJfrService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Controller da área administrativa para diagnóstico de desempenho com o Java Flight Recorder.
+ * Os arquivos .jfr baixados podem ser abertos no JDK Mission Control. Criado só no primeiro acesso (@Lazy).
+ */
+@Controller
+@Lazy
+@RequestMapping("/admin/diagnostico")
+public class AdminDiagnosticoController {
+
+    private static final DateTimeFormatter CARIMBO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final DiagnosticoJfrService diagnosticoJfrService;
+
+    @Autowired
+    public AdminDiagnosticoController(DiagnosticoJfrService diagnosticoJfrService) {
+        this.diagnosticoJfrService = diagnosticoJfrService;
+    }
+
+    /**
+     * Exibe a página de diagnóstico, com a gravação pontual em andamento ou pronta para baixar.
+     */
+    @GetMapping
+    public String pagina(Model model) {
+        model.addAttribute("gravacao", diagnosticoJfrService.getGravacaoPontual().orElse(null));
+        return "admin/diagnostico";
+    }
+
+    /**
+     * Inicia uma gravação JFR pontual e volta para a página, que acompanha a gravação até ela poder ser baixada.
+     */
+    @PostMapping("/jfr")
+    public String gravar(@RequestParam(value = "perfil", defaultValue = "default") String perfil,
+                         @RequestParam(value = "segundos", defaultValue = "30") long segundos,
+                         RedirectAttributes redirectAttributes) {
+        diagnosticoJfrService.iniciar(perfil, Duration.ofSeconds(segundos));
+        redirectAttributes.addFlashAttribute("mensagemSucesso", "Gravação JFR iniciada.");
+        return "redirect:/admin/diagnostico";
+    }
+
+    /**
+     * Baixa uma gravação pontual terminada (uma única vez).
+     */
+    @PostMapping("/jfr/{id}")
+    public ResponseEntity<Resource> baixar(@PathVariable("id") String id) throws IOException {
+        String perfil = diagnosticoJfrService.getGravacaoPontual()
+                .map(DiagnosticoJfrService.GravacaoPontual::getPerfil).orElse("pontual");
+        return download(diagnosticoJfrService.baixar(id), perfil);
+    }
+
+    /**
+     * Exporta os últimos minutos da gravação contínua (útil logo após um incidente).
+     */
+    @PostMapping("/jfr/continuo")
+    public ResponseEntity<Resource> exportarContinuo() throws IOException {
+        return download(diagnosticoJfrService.exportarContinua(), "continuo");
+    }
+
+    /**
+     * Perfil/duração inválidos, gravação já em andamento (ou ainda não terminada) ou gravação contínua desligada:
+     * volta para a página com a mensagem de erro.
+     */
+    @ExceptionHandler({IllegalArgumentException.class, IllegalStateException.class})
+    public String erro(RuntimeException e, HttpServletRequest request) {
+        RequestContextUtils.getOutputFlashMap(request).put("mensagemErro", e.getMessage());
+        return "redirect:/admin/diagnostico";
+    }
+
+    private static ResponseEntity<Resource> download(InputStream jfr, String nome) {
+        String arquivo = "sobrerodas-" + nome + "-" + LocalDateTime.now().format(CARIMBO) + ".jfr";
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(arquivo).build().toString())
+                .body(new InputStreamResource(jfr));
+    }
+}
@@ -1,35 +1,73 @@
 package com.carro.SobreRodas.controller;
 
+import com.carro.SobreRodas.dto.CarimboNoticias;
+import com.carro.SobreRodas.dto.CartaoNoticia;
 import com.carro.SobreRodas.model.Noticia;
 import com.carro.SobreRodas.service.NoticiaService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Controller responsável por gerenciar as requisições das páginas públicas principais,
  * como a página inicial, página de eventos e de comparativos.
+ *
+ * Antes de buscar e renderizar qualquer coisa, cada página compara o ETag que o navegador (ou crawler) já
+ * tem com o carimbo atual das notícias ({@link CarimboNoticias}, uma única consulta agregada). Se nada
+ * mudou, responde 304 sem corpo. Não há Last-Modified: excluir uma notícia não move a data da última
+ * modificação (só o total, que está no ETag), e um If-Modified-Since receberia um 304 indevido.
+ *
+ * Eventos, comparativo e pesquisa podem listar milhares de notícias. Com listagem.em-partes.habilitado,
+ * a lista vai para o template como {@link ListagemEmPartes}: o cabeçalho da página é enviado logo e os
+ * cartões são lidos por cursor e enviados em lotes, com memória constante.
  */
 @Controller
 public class HomeController {
 
+    // "no-cache" obriga a revalidar a cada visita (o 304 é barato); "private" porque o cabeçalho
+    // das páginas muda conforme o usuário logado.
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
     private final NoticiaService noticiaService;
+    // Muda a cada build: um deploy novo (templates, assets com hash) invalida os ETags antigos.
+    private final String versaoDoSite;
+    private final boolean listagemEmPartes;
+    private final int tamanhoLote;
 
     @Autowired
-    public HomeController(NoticiaService noticiaService) {
+    public HomeController(NoticiaService noticiaService, ObjectProvider<BuildProperties> buildProperties,
+                          @Value("${listagem.em-partes.habilitado:true}") boolean listagemEmPartes,
+                          @Value("${listagem.em-partes.tamanho-lote:50}") int tamanhoLote) {
         this.noticiaService = noticiaService;
+        this.listagemEmPartes = listagemEmPartes;
+        this.tamanhoLote = tamanhoLote;
+        BuildProperties build = buildProperties.getIfAvailable();
+        Instant momento = build != null && build.getTime() != null ? build.getTime() : Instant.now();
+        this.versaoDoSite = Long.toString(momento.getEpochSecond(), 36);
     }
 
     @GetMapping("/")
-    public String index(Model model) {
+    public String index(Model model, ServletWebRequest webRequest) {
+        if (naoModificada("home", noticiaService.carimbo(), webRequest)) {
+            return null;
+        }
         model.addAttribute("noticiaDestaque", noticiaService.findDestaque().orElse(null)); // Busca a notícia mais recente como destaque
         model.addAttribute("ultimasNoticias", noticiaService.findUltimasNoticias()); // Busca as 3 notícias mais recentes após o destaque.
         model.addAttribute("maisLidas", noticiaService.findMaisLidas()); // Busca as mais recentes da tag "Automotivo".
@@ -39,21 +77,34 @@ public class HomeController {
     }
 
     @GetMapping("/eventos")
-    public String eventos(Model model) {
+    public String eventos(Model model, ServletWebRequest webRequest) {
         List<String> tags = Arrays.asList("Exposição");
-        model.addAttribute("eventos", noticiaService.findByTags(tags));
+        if (naoModificada("eventos", noticiaService.carimboPorTags(tags), webRequest)) {
+            return null;
+        }
+        model.addAttribute("eventos", listagem(() -> noticiaService.streamCartoesPorTags(tags),
+                () -> noticiaService.findByTags(tags), webRequest));
         return "eventos";
     }
 
     @GetMapping("/comparativo")
-    public String comparativo(Model model) {
+    public String comparativo(Model model, ServletWebRequest webRequest) {
         // Busca notícias apenas com a tag "Comparativos" para garantir a relevância.
-        model.addAttribute("comparativos", noticiaService.findByTags(Arrays.asList("Comparativos")));
+        List<String> tags = Arrays.asList("Comparativos");
+        if (naoModificada("comparativo", noticiaService.carimboPorTags(tags), webRequest)) {
+            return null;
+        }
+        model.addAttribute("comparativos", listagem(() -> noticiaService.streamCartoesPorTags(tags),
+                () -> noticiaService.findByTags(tags), webRequest));
         return "comparativo";
     }
 
     @GetMapping("/noticia/{id}")
-    public String noticia(@PathVariable("id") Long id, Model model) {
+    public String noticia(@PathVariable("id") Long id, Model model, ServletWebRequest webRequest) {
+        // O carimbo geral cobre a própria notícia e as "relacionadas" (as mais recentes).
+        if (naoModificada("noticia-" + id, noticiaService.carimbo(), webRequest)) {
+            return null;
+        }
         Optional<Noticia> noticiaOpt = noticiaService.findById(id);
         if (noticiaOpt.isPresent()) {
             model.addAttribute("noticia", noticiaOpt.get());
@@ -70,10 +121,14 @@ public class HomeController {
      * @return O nome da view "pesquisa".
      */
     @GetMapping("/pesquisa")
-    public String pesquisa(@RequestParam(value = "q", required = false) String termo, Model model) {
-        List<Noticia> resultados = Collections.emptyList();
+    public String pesquisa(@RequestParam(value = "q", required = false) String termo, Model model,
+                           ServletWebRequest webRequest) {
+        if (naoModificada("pesquisa", noticiaService.carimbo(), webRequest)) {
+            return null;
+        }
+        Iterable<?> resultados = Collections.emptyList();
         if (termo != null && !termo.trim().isEmpty()) {
-            resultados = noticiaService.search(termo);
+            resultados = listagem(() -> noticiaService.streamCartoesPorTermo(termo), () -> noticiaService.search(termo), webRequest);
         }
         // Se a busca não retornar resultados ou o termo for vazio, a lista estará vazia,
         // o que pode ser tratado na view para exibir uma mensagem "Nenhum resultado encontrado".
@@ -81,4 +136,31 @@ public class HomeController {
         model.addAttribute("termo", termo);
         return "pesquisa";
     }
-}
\ No newline at end of file
+
+    /**
+     * A lista da página: lida por cursor durante a renderização (em partes) ou carregada inteira antes.
+     */
+    private Iterable<?> listagem(Supplier<Stream<CartaoNoticia>> emPartes, Supplier<List<Noticia>> inteira,
+                                 ServletWebRequest webRequest) {
+        if (listagemEmPartes) {
+            return new ListagemEmPartes<>(emPartes, webRequest.getResponse(), tamanhoLote);
+        }
+        return inteira.get();
+    }
+
+    /**
+     * Define ETag e Cache-Control da página e verifica o If-None-Match da requisição.
+     * O ETag combina a página, o carimbo das notícias, o usuário logado e a versão do site.
+     * @return true se o cliente já tem a versão atual; a resposta 304 está pronta e nada deve ser renderizado.
+     */
+    private boolean naoModificada(String pagina, CarimboNoticias carimbo, ServletWebRequest webRequest) {
+        Instant ultimaModificacao = carimbo.getUltimaModificacao();
+        long lastModified = ultimaModificacao != null ? ultimaModificacao.toEpochMilli() : -1;
+        String usuario = webRequest.getRemoteUser() != null ? Integer.toHexString(webRequest.getRemoteUser().hashCode()) : "anonimo";
+        String etag = "W/\"" + pagina + "-" + carimbo.getTotal() + "-" + Long.toString(lastModified, 36)
+                + "-" + usuario + "-" + versaoDoSite + "\"";
+
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        return webRequest.checkNotModified(etag);
+    }
+}
@@ -0,0 +1,94 @@
+package com.carro.SobreRodas.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Lista de resultados entregue ao template sem ser carregada antes: a consulta só começa quando o
+ * {@code th:each} começa a percorrê-la, e os itens são lidos do banco em páginas à medida que são escritos
+ * (ver {@link com.carro.SobreRodas.repository.NoticiaCartoesRepository}).
+ * <ul>
+ *   <li>Antes da consulta, envia ao navegador tudo o que o Thymeleaf já escreveu (cabeçalho da página),
+ *       que pode começar a baixar CSS e JS enquanto a consulta roda.</li>
+ *   <li>A cada {@code tamanhoLote} itens envia o trecho renderizado até ali.</li>
+ *   <li>O stream é fechado ao fim da listagem ou, se a renderização falhar no meio, ao fim da requisição.</li>
+ * </ul>
+ * Como {@link java.util.List}, expõe {@link #isEmpty()} ({@code ${lista.empty}} no template), válido
+ * depois de percorrida. Só pode ser percorrida uma vez.
+ */
+final class ListagemEmPartes<T> implements Iterable<T> {
+
+    private final Supplier<Stream<T>> consulta;
+    private final HttpServletResponse response;
+    private final int tamanhoLote;
+    private boolean percorrida;
+    private boolean vazia = true;
+
+    ListagemEmPartes(Supplier<Stream<T>> consulta, HttpServletResponse response, int tamanhoLote) {
+        this.consulta = consulta;
+        this.response = response;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        if (percorrida) {
+            throw new IllegalStateException("A listagem em partes só pode ser percorrida uma vez.");
+        }
+        percorrida = true;
+        enviar();
+
+        Stream<T> itens = consulta.get();
+        RequestContextHolder.currentRequestAttributes().registerDestructionCallback(
+                ListagemEmPartes.class.getName() + "@" + System.identityHashCode(this), itens::close,
+                RequestAttributes.SCOPE_REQUEST);
+        Iterator<T> cursor = itens.iterator();
+        return new Iterator<>() {
+            private int lidos;
+            private boolean fim;
+
+            @Override
+            public boolean hasNext() {
+                if (fim) {
+                    return false;
+                }
+                if (cursor.hasNext()) {
+                    return true;
+                }
+                fim = true;
+                itens.close();
+                return false;
+            }
+
+            @Override
+            public T next() {
+                T item = cursor.next();
+                vazia = false;
+                if (++lidos % tamanhoLote == 0) {
+                    enviar();
+                }
+                return item;
+            }
+        };
+    }
+
+    public boolean isEmpty() {
+        return vazia;
+    }
+
+    private void enviar() {
+        try {
+            response.flushBuffer();
+        } catch (IOException e) {
+            // Normalmente o navegador fechou a conexão; interrompe a renderização (e fecha o cursor).
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.carro.SobreRodas.controller;
+
+import com.carro.SobreRodas.service.NewsletterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.util.Map;
+
+/**
+ * Controller para a inscrição e o cancelamento da newsletter.
+ */
+@Controller
+@RequestMapping("/newsletter")
+public class NewsletterController {
+
+    private final NewsletterService newsletterService;
+
+    @Autowired
+    public NewsletterController(NewsletterService newsletterService) {
+        this.newsletterService = newsletterService;
+    }
+
+    /**
+     * Inscreve um e-mail (chamado via fetch pelo formulário "Receba as melhores matérias" em main.js).
+     * @param email O e-mail informado.
+     * @return 200 com uma mensagem de confirmação, ou 400 se o e-mail for inválido.
+     */
+    @PostMapping("/assinar")
+    @ResponseBody
+    public ResponseEntity<Map<String, String>> assinar(@RequestParam("email") String email) {
+        try {
+            newsletterService.assinar(email);
+            return ResponseEntity.ok(Map.of("mensagem", "Obrigado! O e-mail " + email.trim() + " foi inscrito com sucesso."));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("mensagem", e.getMessage()));
+        }
+    }
+
+    /**
+     * Cancela a assinatura a partir do link enviado no rodapé de cada e-mail.
+     * @param token O token de cancelamento.
+     * @param redirectAttributes Atributos para a mensagem exibida na página inicial.
+     * @return Redireciona para a página inicial.
+     */
+    @GetMapping("/cancelar")
+    public String cancelar(@RequestParam("token") String token, RedirectAttributes redirectAttributes) {
+        if (newsletterService.cancelar(token)) {
+            redirectAttributes.addFlashAttribute("mensagemSucesso", "Sua assinatura da newsletter foi cancelada.");
+        }
+        return "redirect:/";
+    }
+}
@@ -14,12 +14,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.carro.SobreRodas.model.Usuario;
+import com.carro.SobreRodas.security.UsuarioPrincipal;
 import com.carro.SobreRodas.service.UsuarioService;
-import com.carro.SobreRodas.service.EmailService;
 import jakarta.validation.Valid;
 
 import java.util.Optional;
-import java.util.UUID;
 
 /**
  * Controller para gerenciar todas as requisições relacionadas ao usuário,
@@ -31,7 +30,6 @@ public class UsuarioController {
 
     private final UsuarioService usuarioService;
     private final MessageSource messages;
-    private EmailService emailService; // Agora não é mais final
 
     /**
      * Construtor para injeção de dependências.
@@ -44,11 +42,6 @@ public class UsuarioController {
         this.messages = messages;
     }
 
-    @Autowired(required = false) // Injeta o EmailService apenas se ele existir
-    public void setEmailService(EmailService emailService) {
-        this.emailService = emailService;
-    }
-
     /**
      * Exibe o formulário de login.
      * @return O nome da view "login".
@@ -117,12 +110,9 @@ public class UsuarioController {
             return "redirect:/usuario/esqueci-senha";
         } else {
             Usuario usuario = usuarioOpt.get();
-            String token = UUID.randomUUID().toString();
-            usuarioService.createPasswordResetTokenForUser(usuario, token);
+            String token = usuarioService.solicitarRedefinicao(usuario);
 
-            // Tenta enviar o e-mail se o serviço estiver configurado.
-            if (emailService != null) {
-                emailService.sendPasswordResetEmail(usuario.getEmail(), token);
+            if (usuarioService.isEnvioDeEmailHabilitado()) {
                 redirectAttributes.addFlashAttribute("mensagemSucesso", "Um e-mail com instruções para redefinir sua senha foi enviado.");
             } else {
                 // Se o serviço de e-mail não estiver ativo, exibe o link para desenvolvimento.
@@ -198,10 +188,10 @@ public class UsuarioController {
      * @return O nome da view "perfil" ou redireciona para o login se o usuário não for encontrado.
      */
     @GetMapping("/perfil")
-    public String perfil(@AuthenticationPrincipal Usuario userDetails, Model model) {
-        // O Spring injeta diretamente o objeto Usuario (que é um UserDetails) do usuário logado.
+    public String perfil(@AuthenticationPrincipal UsuarioPrincipal principal, Model model) {
+        // O Spring injeta o principal compacto guardado na sessão (id, nome, e-mail e role).
         // Isso evita a necessidade de buscar o usuário no banco de dados novamente.
-        model.addAttribute("usuario", userDetails);
+        model.addAttribute("usuario", principal);
         return "perfil";
     }
 }
\ No newline at end of file
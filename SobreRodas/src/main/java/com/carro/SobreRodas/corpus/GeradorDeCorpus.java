@@ -0,0 +1,269 @@
+package com.carro.SobreRodas.corpus;
+
+import com.carro.SobreRodas.dto.ImagemArmazenada;
+import com.carro.SobreRodas.security.RespostaSegurancaEncoder;
+import com.carro.SobreRodas.service.FileStorageService;
+import com.carro.SobreRodas.service.RenderizadorDeConteudo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Gera um corpus sintético grande (notícias, imagens de upload e usuários) para reproduzir localmente
+ * os problemas de desempenho que só aparecem com volume. Ativado pelo perfil "corpus":
+ * <pre>
+ * java -jar SobreRodas.jar --spring.profiles.active=corpus --corpus.noticias=1000000 --corpus.usuarios=5000
+ * </pre>
+ * As linhas são divididas em blocos; cada bloco tem sua própria semente, derivada de corpus.semente e do
+ * número do bloco, e é inserido por uma thread com JDBC em lotes (sem passar pelo Hibernate). Assim o
+ * conteúdo gerado é sempre o mesmo para a mesma semente, independentemente do número de threads;
+ * só a ordem dos ids entre blocos varia. Ao terminar, a aplicação é encerrada (corpus.encerrar).
+ */
+@Component
+@Profile("corpus")
+public class GeradorDeCorpus implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeradorDeCorpus.class);
+
+    private static final String INSERIR_NOTICIA = "INSERT INTO noticia (titulo, conteudo, resumo, imagem, data, autor, tag, "
+            + "imagem_largura, imagem_altura, imagem_placeholder, versao, modificado_em, data_publicacao, "
+            + "conteudo_html, palavras, minutos_de_leitura) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?)";
+    private static final String INSERIR_USUARIO = "INSERT INTO usuario (nome, email, senha, pergunta_seguranca, "
+            + "resposta_seguranca, role) VALUES (?, ?, ?, ?, ?, ?)";
+
+    static final String DOMINIO_USUARIOS = "@corpus.sobrerodas.test";
+    private static final String SENHA_USUARIOS = "corpus123";
+    private static final String PERGUNTA = "Qual é o seu carro favorito?";
+
+    // Fração das notícias com imagem de upload; as demais usam as imagens estáticas do site.
+    private static final double FRACAO_COM_UPLOAD = 0.85;
+    private static final List<String> IMAGENS_ESTATICAS = List.of("/images/fiat.jfif", "/images/civic.jpg",
+            "/images/civichibrido.webp", "/images/salaosaopaulo.webp");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FileStorageService fileStorageService;
+    private final RenderizadorDeConteudo renderizadorDeConteudo;
+    private final PasswordEncoder passwordEncoder;
+    private final RespostaSegurancaEncoder respostaSegurancaEncoder;
+    private final ConfigurableApplicationContext contexto;
+    private final TextoSintetico texto;
+
+    private final long semente;
+    private final long noticias;
+    private final long usuarios;
+    private final int imagens;
+    private final int threads;
+    private final int tamanhoLote;
+    private final int tamanhoBloco;
+    private final boolean encerrar;
+
+    public GeradorDeCorpus(JdbcTemplate jdbcTemplate, FileStorageService fileStorageService,
+                           RenderizadorDeConteudo renderizadorDeConteudo,
+                           PasswordEncoder passwordEncoder, RespostaSegurancaEncoder respostaSegurancaEncoder,
+                           ConfigurableApplicationContext contexto,
+                           @Value("${corpus.semente:42}") long semente,
+                           @Value("${corpus.noticias:100000}") long noticias,
+                           @Value("${corpus.usuarios:5000}") long usuarios,
+                           @Value("${corpus.imagens:50}") int imagens,
+                           @Value("${corpus.threads:0}") int threads,
+                           @Value("${corpus.tamanho-lote:1000}") int tamanhoLote,
+                           @Value("${corpus.tamanho-bloco:10000}") int tamanhoBloco,
+                           @Value("${corpus.tags.expoente-zipf:1.1}") double expoenteZipf,
+                           @Value("${corpus.conteudo.mediana-caracteres:2500}") int medianaConteudo,
+                           @Value("${corpus.anos:8}") int anos,
+                           @Value("${corpus.data-referencia:2026-01-01}") LocalDate dataReferencia,
+                           @Value("${corpus.encerrar:true}") boolean encerrar) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fileStorageService = fileStorageService;
+        this.renderizadorDeConteudo = renderizadorDeConteudo;
+        this.passwordEncoder = passwordEncoder;
+        this.respostaSegurancaEncoder = respostaSegurancaEncoder;
+        this.contexto = contexto;
+        this.texto = new TextoSintetico(expoenteZipf, medianaConteudo, anos, dataReferencia);
+        this.semente = semente;
+        this.noticias = noticias;
+        this.usuarios = usuarios;
+        this.imagens = imagens;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.tamanhoLote = tamanhoLote;
+        this.tamanhoBloco = tamanhoBloco;
+        this.encerrar = encerrar;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        long inicio = System.nanoTime();
+        logger.info("Gerando corpus: {} notícias, {} usuários, {} imagens (semente {}, {} threads)",
+                noticias, usuarios, imagens, semente, threads);
+
+        List<ImagemArmazenada> uploads = gerarImagens();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> new Thread(r, "gerador-corpus"));
+        try {
+            inserirEmBlocos(executor, "notícias", noticias, 0, INSERIR_NOTICIA,
+                    (random, numero) -> linhaDeNoticia(random, uploads));
+
+            // Um único hash para todos: gerar milhares de BCrypt levaria mais que todo o resto.
+            String senha = passwordEncoder.encode(SENHA_USUARIOS);
+            String resposta = respostaSegurancaEncoder.encode("Fusca");
+            Long existentes = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM usuario WHERE email LIKE ?", Long.class, "%" + DOMINIO_USUARIOS);
+            inserirEmBlocos(executor, "usuários", usuarios, existentes != null ? existentes : 0, INSERIR_USUARIO,
+                    (random, numero) -> new Object[] { texto.nome(random), "leitor" + numero + DOMINIO_USUARIOS,
+                            senha, PERGUNTA, resposta, "ROLE_USER" });
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logger.info("Corpus gerado em {} s (usuários com a senha \"{}\")",
+                Duration.ofNanos(System.nanoTime() - inicio).toSeconds(), SENHA_USUARIOS);
+        if (encerrar) {
+            System.exit(SpringApplication.exit(contexto));
+        }
+    }
+
+    /**
+     * Insere {@code total} linhas em blocos paralelos. Cada bloco usa um gerador aleatório próprio,
+     * derivado da semente e do número do bloco, e grava em lotes JDBC de corpus.tamanho-lote linhas.
+     * @param primeiroNumero Número da primeira linha (para valores únicos, como e-mails, entre execuções).
+     * @param linha Gera os parâmetros do INSERT de uma linha a partir do gerador do bloco e do número da linha.
+     */
+    private void inserirEmBlocos(ExecutorService executor, String nome, long total, long primeiroNumero, String sql,
+                                 BiFunction<SplittableRandom, Long, Object[]> linha) throws InterruptedException {
+        if (total <= 0) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        long blocos = (total + tamanhoBloco - 1) / tamanhoBloco;
+        AtomicLong inseridas = new AtomicLong();
+        AtomicLong proximoRelatorio = new AtomicLong(total / 10);
+        // Sementes diferentes para cada tipo de linha, para que mudar a quantidade de um não altere o outro.
+        long sementeDoTipo = semente * 31 + nome.hashCode();
+
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (long bloco = 0; bloco < blocos; bloco++) {
+            long primeira = bloco * tamanhoBloco;
+            long quantidade = Math.min(tamanhoBloco, total - primeira);
+            SplittableRandom random = new SplittableRandom(sementeDoTipo ^ (bloco * 0x9E3779B97F4A7C15L));
+            tarefas.add(executor.submit(() -> {
+                List<Object[]> lote = new ArrayList<>(tamanhoLote);
+                for (long i = 0; i < quantidade; i++) {
+                    lote.add(linha.apply(random, primeiroNumero + primeira + i));
+                    if (lote.size() == tamanhoLote || i == quantidade - 1) {
+                        jdbcTemplate.batchUpdate(sql, lote);
+                        lote.clear();
+                    }
+                }
+                long agora = inseridas.addAndGet(quantidade);
+                long marco = proximoRelatorio.get();
+                if (agora >= marco && proximoRelatorio.compareAndSet(marco, marco + total / 10)) {
+                    logger.info("{}: {} de {} inseridas", nome, agora, total);
+                }
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            try {
+                tarefa.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Falha ao inserir " + nome + " do corpus", e.getCause());
+            }
+        }
+
+        double segundos = Math.max(1e-3, (System.nanoTime() - inicio) / 1e9);
+        logger.info("{}: {} linhas em {} s ({} linhas/s)", nome, total, Math.round(segundos), Math.round(total / segundos));
+    }
+
+    private Object[] linhaDeNoticia(SplittableRandom random, List<ImagemArmazenada> uploads) {
+        String imagem;
+        Integer largura = null;
+        Integer altura = null;
+        String placeholder = null;
+        if (!uploads.isEmpty() && random.nextDouble() < FRACAO_COM_UPLOAD) {
+            // Imagens mais antigas são reaproveitadas com mais frequência (distribuição enviesada).
+            double u = random.nextDouble();
+            ImagemArmazenada upload = uploads.get((int) (u * u * uploads.size()));
+            imagem = "/uploads/" + upload.getFileName();
+            largura = upload.getLargura();
+            altura = upload.getAltura();
+            placeholder = upload.getPlaceholder();
+        } else {
+            imagem = IMAGENS_ESTATICAS.get(random.nextInt(IMAGENS_ESTATICAS.size()));
+        }
+        LocalDate data = texto.data(random);
+        String titulo = texto.titulo(random);
+        String conteudo = texto.conteudo(random);
+        // O HTML é gerado pela mesma rotina da gravação pelo admin (e não consome números aleatórios).
+        RenderizadorDeConteudo.ConteudoRenderizado renderizado = renderizadorDeConteudo.renderizar(conteudo);
+        return new Object[] { titulo, conteudo, texto.resumo(random), imagem,
+                TextoSintetico.formatar(data), texto.fonte(random), texto.tag(random), largura, altura, placeholder,
+                Timestamp.from(data.atTime(12, 0).toInstant(ZoneOffset.UTC)), Date.valueOf(data),
+                renderizado.getHtml(), renderizado.getPalavras(), renderizado.getMinutosDeLeitura() };
+    }
+
+    /**
+     * Gera as imagens JPEG de upload (tamanhos e proporções variados) pela mesma rotina dos uploads do admin.
+     */
+    private List<ImagemArmazenada> gerarImagens() {
+        int[] larguras = { 640, 960, 1280, 1600, 1920 };
+        List<ImagemArmazenada> geradas = new ArrayList<>(imagens);
+        for (int i = 0; i < imagens; i++) {
+            SplittableRandom random = new SplittableRandom(semente * 31 + i);
+            int largura = larguras[random.nextInt(larguras.length)];
+            int altura = random.nextBoolean() ? largura * 9 / 16 : largura * 3 / 4;
+
+            BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = imagem.createGraphics();
+            try {
+                g.setPaint(new GradientPaint(0, 0, cor(random), largura, altura, cor(random)));
+                g.fillRect(0, 0, largura, altura);
+                for (int forma = 0; forma < 20 + random.nextInt(80); forma++) {
+                    g.setColor(cor(random));
+                    int x = random.nextInt(largura);
+                    int y = random.nextInt(altura);
+                    int w = 10 + random.nextInt(largura / 3);
+                    int h = 10 + random.nextInt(altura / 3);
+                    if (random.nextBoolean()) {
+                        g.fillRect(x, y, w, h);
+                    } else {
+                        g.fillOval(x, y, w, h);
+                    }
+                }
+            } finally {
+                g.dispose();
+            }
+            geradas.add(fileStorageService.storeImage(imagem, String.format("corpus-%d-%04d.jpg", semente, i)));
+        }
+        return geradas;
+    }
+
+    private static Color cor(SplittableRandom random) {
+        return new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256));
+    }
+}
@@ -0,0 +1,154 @@
+package com.carro.SobreRodas.corpus;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Gera títulos, resumos, conteúdos e nomes com cara de notícia automotiva a partir de um gerador
+ * aleatório recebido por parâmetro: a mesma semente sempre produz o mesmo texto.
+ * O tamanho dos conteúdos segue uma distribuição log-normal (a maioria curta, alguns muito longos)
+ * e as tags seguem uma distribuição de Zipf (poucas tags concentram a maior parte das notícias),
+ * como no conteúdo real.
+ */
+final class TextoSintetico {
+
+    // As quatro primeiras são as tags que as páginas consultam (home, eventos, comparativos).
+    static final List<String> TAGS = List.of("Automotivo", "Avaliação", "Comparativos", "Exposição",
+            "Lançamentos", "Elétricos", "Mercado", "Motos", "Caminhões", "Serviço", "Esportivos", "Clássicos",
+            "Tecnologia", "Segurança", "Consumo", "Recall");
+
+    private static final List<String> MARCAS = List.of("Fiat", "Volkswagen", "Chevrolet", "Toyota", "Honda",
+            "Hyundai", "Renault", "Jeep", "Nissan", "Ford", "BYD", "Peugeot", "Citroën", "BMW", "Mercedes-Benz",
+            "Audi", "Kia", "Mitsubishi", "Caoa Chery", "Volvo");
+
+    private static final List<String> MODELOS = List.of("Strada", "Polo", "Onix", "Corolla", "Civic", "HB20",
+            "Kwid", "Compass", "Kicks", "Ranger", "Dolphin", "208", "C3", "X1", "Classe C", "A3", "Sportage",
+            "L200", "Tiggo 5X", "XC40", "T-Cross", "Tracker", "Hilux", "HR-V", "Creta", "Duster", "Renegade",
+            "Frontier", "Maverick", "Seal");
+
+    private static final List<String> CHAMADAS = List.of("chega ao mercado com novidades",
+            "ganha versão híbrida", "tem preço revelado", "passa por reestilização", "é flagrado em testes",
+            "lidera as vendas do mês", "recebe nota máxima em segurança", "sai de linha no Brasil",
+            "ganha motor turbo", "é convocado para recall", "estreia nova central multimídia",
+            "supera expectativas no teste de consumo", "vira elétrico na próxima geração");
+
+    private static final List<String> PALAVRAS = List.of("motor", "câmbio", "automático", "suspensão",
+            "consumo", "quilômetros", "litro", "potência", "cavalos", "torque", "acabamento", "porta-malas",
+            "espaço", "cabine", "segurança", "airbags", "frenagem", "direção", "elétrica", "bateria", "autonomia",
+            "recarga", "híbrido", "turbo", "cilindros", "tração", "versão", "topo", "linha", "preço", "mercado",
+            "concessionárias", "vendas", "lançamento", "geração", "plataforma", "conforto", "rodagem", "pneus",
+            "estrada", "cidade", "teste", "avaliação", "desempenho", "aceleração", "retomada", "velocidade",
+            "painel", "multimídia", "conectividade", "assistente", "faixa", "sensor", "câmera", "revisão",
+            "garantia", "manutenção", "seguro", "fabricante", "montadora", "fábrica", "produção", "exportação",
+            "o", "a", "de", "do", "da", "em", "com", "para", "que", "mais", "menos", "novo", "nova", "bem",
+            "muito", "também", "ainda", "já", "entre", "sobre", "quando", "porque");
+
+    private static final List<String> FONTES = List.of("Redação Sobre Rodas", "Auto Esporte", "Quatro Rodas",
+            "Motor1", "Revista Carro", "AutoPapo", "Car and Driver Brasil", "Jornal do Carro");
+
+    private static final List<String> NOMES = List.of("Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe",
+            "Gabriela", "Henrique", "Isabela", "João", "Karina", "Lucas", "Mariana", "Nicolas", "Olívia", "Pedro",
+            "Rafaela", "Samuel", "Tatiana", "Vinícius");
+
+    private static final List<String> SOBRENOMES = List.of("Silva", "Santos", "Oliveira", "Souza", "Rodrigues",
+            "Ferreira", "Alves", "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Rocha");
+
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final int MAX_CONTEUDO = 30_000;
+
+    private final double[] acumuladoTags;
+    private final double mu;
+    private final double sigma;
+    private final LocalDate hoje;
+    private final int diasDeHistorico;
+
+    /**
+     * @param expoenteZipf Concentração das tags (1 ≈ Zipf clássico; quanto maior, mais concentrado).
+     * @param medianaConteudo Tamanho mediano do conteúdo, em caracteres.
+     * @param anos Quantos anos para trás as datas das notícias alcançam.
+     * @param hoje Data de referência (fixa, para que a geração seja reproduzível).
+     */
+    TextoSintetico(double expoenteZipf, int medianaConteudo, int anos, LocalDate hoje) {
+        this.acumuladoTags = new double[TAGS.size()];
+        double soma = 0;
+        for (int i = 0; i < TAGS.size(); i++) {
+            soma += 1 / Math.pow(i + 1, expoenteZipf);
+            acumuladoTags[i] = soma;
+        }
+        for (int i = 0; i < acumuladoTags.length; i++) {
+            acumuladoTags[i] /= soma;
+        }
+        this.mu = Math.log(medianaConteudo);
+        this.sigma = 0.9;
+        this.hoje = hoje;
+        this.diasDeHistorico = anos * 365;
+    }
+
+    String tag(SplittableRandom random) {
+        double sorteio = random.nextDouble();
+        for (int i = 0; i < acumuladoTags.length; i++) {
+            if (sorteio <= acumuladoTags[i]) {
+                return TAGS.get(i);
+            }
+        }
+        return TAGS.get(TAGS.size() - 1);
+    }
+
+    String titulo(SplittableRandom random) {
+        return escolher(random, MARCAS) + " " + escolher(random, MODELOS) + " " + escolher(random, CHAMADAS);
+    }
+
+    String resumo(SplittableRandom random) {
+        return frase(random, 18 + random.nextInt(14));
+    }
+
+    String conteudo(SplittableRandom random) {
+        long alvo = Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+        int tamanho = (int) Math.max(200, Math.min(MAX_CONTEUDO, alvo));
+        StringBuilder texto = new StringBuilder(tamanho + 200);
+        while (texto.length() < tamanho) {
+            int frases = 3 + random.nextInt(5);
+            for (int i = 0; i < frases && texto.length() < tamanho; i++) {
+                texto.append(frase(random, 8 + random.nextInt(20))).append(' ');
+            }
+            texto.setCharAt(texto.length() - 1, '\n');
+            texto.append('\n');
+        }
+        return texto.substring(0, Math.min(texto.length(), MAX_CONTEUDO)).trim();
+    }
+
+    LocalDate data(SplittableRandom random) {
+        return hoje.minusDays(random.nextInt(diasDeHistorico));
+    }
+
+    static String formatar(LocalDate data) {
+        return data.format(FORMATO_DATA);
+    }
+
+    String fonte(SplittableRandom random) {
+        return escolher(random, FONTES);
+    }
+
+    String nome(SplittableRandom random) {
+        return escolher(random, NOMES) + " " + escolher(random, SOBRENOMES);
+    }
+
+    private String frase(SplittableRandom random, int palavras) {
+        StringBuilder frase = new StringBuilder(palavras * 8);
+        for (int i = 0; i < palavras; i++) {
+            if (i > 0) {
+                frase.append(' ');
+            }
+            frase.append(escolher(random, PALAVRAS));
+        }
+        frase.setCharAt(0, Character.toUpperCase(frase.charAt(0)));
+        return frase.append('.').toString();
+    }
+
+    private static String escolher(SplittableRandom random, List<String> opcoes) {
+        return opcoes.get(random.nextInt(opcoes.size()));
+    }
+}
@@ -0,0 +1,24 @@
+package com.carro.SobreRodas.dto;
+
+import java.time.Instant;
+
+/**
+ * Resumo barato do estado de um conjunto de notícias: quantas existem e quando a mais recente foi gravada.
+ * Qualquer inclusão ou edição muda a última modificação e qualquer exclusão muda o total, então o
+ * carimbo inteiro serve de validador (ETag) para as páginas que exibem essas notícias. A última modificação
+ * sozinha não serve (uma exclusão não a move), por isso as páginas não enviam Last-Modified.
+ */
+public class CarimboNoticias {
+    private final long total;
+    private final Instant ultimaModificacao;
+
+    public CarimboNoticias(Long total, Instant ultimaModificacao) {
+        this.total = total != null ? total : 0;
+        this.ultimaModificacao = ultimaModificacao;
+    }
+
+    // Getters
+    public long getTotal() { return total; }
+
+    public Instant getUltimaModificacao() { return ultimaModificacao; }
+}
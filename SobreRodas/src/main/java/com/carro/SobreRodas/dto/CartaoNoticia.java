@@ -0,0 +1,48 @@
+package com.carro.SobreRodas.dto;
+
+/**
+ * Campos de uma notícia exibidos nos cartões das listagens (eventos, comparativo, pesquisa).
+ * Não carrega o conteúdo, que pode ter dezenas de KB, nem passa pelo contexto de persistência do JPA,
+ * então uma listagem lida em páginas ocupa memória constante.
+ * Os nomes das propriedades são os mesmos de {@link com.carro.SobreRodas.model.Noticia}, para que os templates
+ * aceitem qualquer um dos dois.
+ */
+public class CartaoNoticia {
+    private final Long id;
+    private final String titulo;
+    private final String resumo;
+    private final String tag;
+    private final String imagem;
+    private final Integer imagemLargura;
+    private final Integer imagemAltura;
+    private final String imagemPlaceholder;
+
+    public CartaoNoticia(Long id, String titulo, String resumo, String tag, String imagem,
+                         Integer imagemLargura, Integer imagemAltura, String imagemPlaceholder) {
+        this.id = id;
+        this.titulo = titulo;
+        this.resumo = resumo;
+        this.tag = tag;
+        this.imagem = imagem;
+        this.imagemLargura = imagemLargura;
+        this.imagemAltura = imagemAltura;
+        this.imagemPlaceholder = imagemPlaceholder;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public String getTitulo() { return titulo; }
+
+    public String getResumo() { return resumo; }
+
+    public String getTag() { return tag; }
+
+    public String getImagem() { return imagem; }
+
+    public Integer getImagemLargura() { return imagemLargura; }
+
+    public Integer getImagemAltura() { return imagemAltura; }
+
+    public String getImagemPlaceholder() { return imagemPlaceholder; }
+}
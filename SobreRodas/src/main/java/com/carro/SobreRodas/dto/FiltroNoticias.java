@@ -0,0 +1,41 @@
+package com.carro.SobreRodas.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros da grade de notícias do admin, preenchidos a partir dos parâmetros da URL.
+ * Campos vazios não filtram.
+ */
+public class FiltroNoticias {
+    private String tag;
+    private String autor;
+    // Início do título (a comparação usa o índice da coluna).
+    private String titulo;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate de;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate ate;
+
+    // Getters e Setters
+    public String getTag() { return tag; }
+
+    public void setTag(String tag) { this.tag = tag; }
+
+    public String getAutor() { return autor; }
+
+    public void setAutor(String autor) { this.autor = autor; }
+
+    public String getTitulo() { return titulo; }
+
+    public void setTitulo(String titulo) { this.titulo = titulo; }
+
+    public LocalDate getDe() { return de; }
+
+    public void setDe(LocalDate de) { this.de = de; }
+
+    public LocalDate getAte() { return ate; }
+
+    public void setAte(LocalDate ate) { this.ate = ate; }
+}
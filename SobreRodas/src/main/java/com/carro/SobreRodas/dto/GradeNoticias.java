@@ -0,0 +1,50 @@
+package com.carro.SobreRodas.dto;
+
+import java.util.List;
+
+/**
+ * Uma página da grade de notícias do admin.
+ * O total é contado só até um limite: acima dele a grade mostra "mais de N" em vez de pagar
+ * a contagem exata de um resultado enorme.
+ */
+public class GradeNoticias {
+    private final List<LinhaNoticiaAdmin> linhas;
+    private final int pagina;
+    private final int tamanho;
+    private final long total;
+    private final boolean totalExato;
+
+    public GradeNoticias(List<LinhaNoticiaAdmin> linhas, int pagina, int tamanho, long total, boolean totalExato) {
+        this.linhas = linhas;
+        this.pagina = pagina;
+        this.tamanho = tamanho;
+        this.total = total;
+        this.totalExato = totalExato;
+    }
+
+    // Getters
+    public List<LinhaNoticiaAdmin> getLinhas() { return linhas; }
+
+    /**
+     * @return O número da página, começando em 0.
+     */
+    public int getPagina() { return pagina; }
+
+    public int getTamanho() { return tamanho; }
+
+    /**
+     * @return O total de notícias do filtro, ou o limite da contagem se {@link #isTotalExato()} for false.
+     */
+    public long getTotal() { return total; }
+
+    public boolean isTotalExato() { return totalExato; }
+
+    /**
+     * @return O número de páginas conhecidas (com total aproximado, até o limite da contagem).
+     */
+    public long getTotalPaginas() { return Math.max(1, (total + tamanho - 1) / tamanho); }
+
+    public boolean isTemAnterior() { return pagina > 0; }
+
+    public boolean isTemProxima() { return (long) (pagina + 1) * tamanho < total || (!totalExato && linhas.size() == tamanho); }
+}
@@ -0,0 +1,29 @@
+package com.carro.SobreRodas.dto;
+
+/**
+ * DTO com o resultado do armazenamento de uma imagem enviada pelo admin.
+ * Além do nome do arquivo gerado, carrega as dimensões intrínsecas e um placeholder
+ * minúsculo (data URI) calculados uma única vez no momento do upload.
+ */
+public class ImagemArmazenada {
+    private final String fileName;
+    private final Integer largura;
+    private final Integer altura;
+    private final String placeholder;
+
+    public ImagemArmazenada(String fileName, Integer largura, Integer altura, String placeholder) {
+        this.fileName = fileName;
+        this.largura = largura;
+        this.altura = altura;
+        this.placeholder = placeholder;
+    }
+
+    // Getters
+    public String getFileName() { return fileName; }
+
+    public Integer getLargura() { return largura; }
+
+    public Integer getAltura() { return altura; }
+
+    public String getPlaceholder() { return placeholder; }
+}
@@ -0,0 +1,38 @@
+package com.carro.SobreRodas.dto;
+
+import java.time.Instant;
+
+/**
+ * Uma linha da grade de notícias do admin. Instanciada pelo Hibernate direto da consulta
+ * (SELECT new ...), sem carregar o conteúdo nem gerenciar entidades.
+ */
+public class LinhaNoticiaAdmin {
+    private final Long id;
+    private final String titulo;
+    private final String autor;
+    private final String tag;
+    private final String data;
+    private final Instant modificadoEm;
+
+    public LinhaNoticiaAdmin(Long id, String titulo, String autor, String tag, String data, Instant modificadoEm) {
+        this.id = id;
+        this.titulo = titulo;
+        this.autor = autor;
+        this.tag = tag;
+        this.data = data;
+        this.modificadoEm = modificadoEm;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public String getTitulo() { return titulo; }
+
+    public String getAutor() { return autor; }
+
+    public String getTag() { return tag; }
+
+    public String getData() { return data; }
+
+    public Instant getModificadoEm() { return modificadoEm; }
+}
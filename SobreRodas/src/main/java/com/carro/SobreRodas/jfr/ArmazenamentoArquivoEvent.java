@@ -0,0 +1,25 @@
+package com.carro.SobreRodas.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR emitido em cada gravação de arquivo enviado pelo FileStorageService.
+ */
+@Name("com.carro.SobreRodas.ArmazenamentoArquivo")
+@Label("Armazenamento de arquivo")
+@Description("Cópia de um upload para a pasta uploads")
+@Category({"SobreRodas", "Arquivos"})
+public class ArmazenamentoArquivoEvent extends Event {
+
+    @Label("Arquivo")
+    public String arquivo;
+
+    @Label("Tamanho")
+    @DataAmount
+    public long bytes;
+}
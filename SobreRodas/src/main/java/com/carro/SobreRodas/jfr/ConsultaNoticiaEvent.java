@@ -0,0 +1,24 @@
+package com.carro.SobreRodas.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR emitido em cada consulta do NoticiaService, para que as consultas lentas apareçam
+ * nas gravações ao lado das amostras de CPU, GC e I/O.
+ */
+@Name("com.carro.SobreRodas.ConsultaNoticia")
+@Label("Consulta de notícias")
+@Description("Consulta feita pelo NoticiaService")
+@Category({"SobreRodas", "Banco de dados"})
+public class ConsultaNoticiaEvent extends Event {
+
+    @Label("Operação")
+    public String operacao;
+
+    @Label("Resultados")
+    public int resultados;
+}
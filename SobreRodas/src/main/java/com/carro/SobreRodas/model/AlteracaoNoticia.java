@@ -0,0 +1,52 @@
+package com.carro.SobreRodas.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Entidade JPA que registra uma gravação de notícias (log de alterações), gravada na mesma transação que a
+ * alteração. Cada nó lê as novas entradas pelo id (número de sequência) e descarta do seu cache local as
+ * páginas que dependem delas; ver {@link com.carro.SobreRodas.service.RegistroDeAlteracoes}.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_alteracao_noticia_criada_em", columnList = "criadaEm"))
+public class AlteracaoNoticia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Instância que fez a alteração (e já descartou o próprio cache).
+    @Column(length = 36, nullable = false)
+    private String origem;
+
+    // Dependências afetadas (ex.: "noticia:42", "tag:Avaliação"), uma por linha.
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String dependencias;
+
+    @Column(nullable = false)
+    private Instant criadaEm;
+
+    // Construtores
+    public AlteracaoNoticia() {
+    }
+
+    public AlteracaoNoticia(String origem, Collection<String> dependencias) {
+        this.origem = origem;
+        this.dependencias = String.join("\n", dependencias);
+        this.criadaEm = Instant.now();
+    }
+
+    // Getters
+
+    public Long getId() { return id; }
+
+    public String getOrigem() { return origem; }
+
+    public List<String> getDependencias() { return Arrays.asList(dependencias.split("\n")); }
+
+    public Instant getCriadaEm() { return criadaEm; }
+}
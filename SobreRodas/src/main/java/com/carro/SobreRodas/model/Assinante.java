@@ -0,0 +1,52 @@
+package com.carro.SobreRodas.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidade JPA que representa um assinante da newsletter.
+ */
+@Entity
+public class Assinante {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private String email;
+
+    // Os envios percorrem apenas os assinantes ativos, em ordem de id.
+    private boolean ativo = true;
+
+    // Token aleatório usado no link de cancelamento da assinatura.
+    @Column(unique = true, nullable = false, length = 36)
+    private String tokenCancelamento;
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm;
+
+    // Construtores
+    public Assinante() {
+    }
+
+    public Assinante(String email) {
+        this.email = email;
+        this.tokenCancelamento = UUID.randomUUID().toString();
+        this.criadoEm = LocalDateTime.now();
+    }
+
+    // Getters e Setters
+    public Long getId() { return id; }
+
+    public String getEmail() { return email; }
+
+    public boolean isAtivo() { return ativo; }
+
+    public void setAtivo(boolean ativo) { this.ativo = ativo; }
+
+    public String getTokenCancelamento() { return tokenCancelamento; }
+
+    public LocalDateTime getCriadoEm() { return criadoEm; }
+}
@@ -0,0 +1,122 @@
+package com.carro.SobreRodas.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entidade JPA que representa um e-mail na fila de saída (outbox).
+ * O e-mail é gravado dentro da requisição que o originou e enviado depois pelo
+ * {@link com.carro.SobreRodas.service.EmailDispatcher}, com retentativas e backoff exponencial.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_email_outbox_status_proxima", columnList = "status, proximaTentativa"))
+public class EmailOutbox {
+
+    /**
+     * Situação do e-mail na fila.
+     * PENDENTE: aguardando envio; ENVIANDO: reservado por um dispatcher; ENVIADO: entregue ao servidor SMTP;
+     * FALHOU: falha permanente ou tentativas esgotadas (dead letter, não será mais tentado).
+     */
+    public enum Status { PENDENTE, ENVIANDO, ENVIADO, FALHOU }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String destinatario;
+
+    @Column(nullable = false)
+    private String assunto;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String corpo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private Status status = Status.PENDENTE;
+
+    private int tentativas;
+
+    // Quando o e-mail pode ser (re)tentado; enquanto ENVIANDO, é o fim da reserva do dispatcher.
+    @Column(nullable = false)
+    private LocalDateTime proximaTentativa;
+
+    // Identifica o lote do dispatcher que reservou o e-mail.
+    @Column(length = 36)
+    private String lote;
+
+    @Column(length = 1000)
+    private String ultimoErro;
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm;
+
+    private LocalDateTime enviadoEm;
+
+    // Construtores
+    public EmailOutbox() {
+    }
+
+    public EmailOutbox(String destinatario, String assunto, String corpo) {
+        this.destinatario = destinatario;
+        this.assunto = assunto;
+        this.corpo = corpo;
+        this.criadoEm = LocalDateTime.now();
+        this.proximaTentativa = this.criadoEm;
+    }
+
+    /**
+     * Marca o e-mail como entregue ao servidor SMTP.
+     */
+    public void marcarEnviado() {
+        this.status = Status.ENVIADO;
+        this.enviadoEm = LocalDateTime.now();
+        this.lote = null;
+        this.ultimoErro = null;
+    }
+
+    /**
+     * Registra uma falha. Falhas permanentes, ou que esgotam as tentativas, vão para FALHOU (dead letter);
+     * as demais voltam para PENDENTE com a próxima tentativa adiada.
+     * @param erro A mensagem do erro.
+     * @param permanente Se a falha não tem chance de sucesso numa nova tentativa.
+     * @param maxTentativas O número máximo de tentativas.
+     * @param proximaTentativa Quando tentar novamente (se ainda houver tentativas).
+     */
+    public void registrarFalha(String erro, boolean permanente, int maxTentativas, LocalDateTime proximaTentativa) {
+        this.tentativas++;
+        this.ultimoErro = erro != null && erro.length() > 1000 ? erro.substring(0, 1000) : erro;
+        this.lote = null;
+        if (permanente || this.tentativas >= maxTentativas) {
+            this.status = Status.FALHOU;
+        } else {
+            this.status = Status.PENDENTE;
+            this.proximaTentativa = proximaTentativa;
+        }
+    }
+
+    // Getters
+
+    public Long getId() { return id; }
+
+    public String getDestinatario() { return destinatario; }
+
+    public String getAssunto() { return assunto; }
+
+    public String getCorpo() { return corpo; }
+
+    public Status getStatus() { return status; }
+
+    public int getTentativas() { return tentativas; }
+
+    public LocalDateTime getProximaTentativa() { return proximaTentativa; }
+
+    public String getLote() { return lote; }
+
+    public String getUltimoErro() { return ultimoErro; }
+
+    public LocalDateTime getCriadoEm() { return criadoEm; }
+
+    public LocalDateTime getEnviadoEm() { return enviadoEm; }
+}
@@ -0,0 +1,125 @@
+package com.carro.SobreRodas.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade JPA que representa um envio da newsletter (por exemplo, o resumo de uma semana).
+ * Guarda o conteúdo renderizado uma única vez e o ponto de controle (checkpoint) do envio:
+ * o id do último assinante já processado. Se a aplicação cair no meio do envio, ele é retomado
+ * a partir desse ponto.
+ * Com vários nós, só o dono do lease (dono, até leaseAte) envia; o lease é renovado a cada checkpoint e,
+ * se o dono cair, outro nó o assume depois que ele vence.
+ */
+@Entity
+public class NewsletterEnvio {
+
+    public enum Status { EM_ANDAMENTO, CONCLUIDO }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Identificador lógico do envio (ex.: "2026-W42"); impede que a mesma edição seja enviada duas vezes.
+    @Column(unique = true, nullable = false, length = 32)
+    private String chave;
+
+    @Column(nullable = false)
+    private String assunto;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String conteudo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private Status status = Status.EM_ANDAMENTO;
+
+    // Checkpoint: id do último assinante cujo lote foi processado.
+    private long ultimoAssinanteId;
+
+    private long enviados;
+
+    private long falhas;
+
+    @Column(nullable = false)
+    private LocalDateTime iniciadoEm;
+
+    private LocalDateTime concluidoEm;
+
+    // Nó que está enviando e até quando o lease dele vale.
+    @Column(length = 36)
+    private String dono;
+
+    private LocalDateTime leaseAte;
+
+    // Assumir o lease incrementa a versão: o checkpoint de um nó que perdeu o lease é recusado.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
+    // Construtores
+    public NewsletterEnvio() {
+    }
+
+    public NewsletterEnvio(String chave, String assunto, String conteudo) {
+        this.chave = chave;
+        this.assunto = assunto;
+        this.conteudo = conteudo;
+        this.iniciadoEm = LocalDateTime.now();
+    }
+
+    /**
+     * Avança o checkpoint após um lote de assinantes ter sido processado.
+     * @param ultimoAssinanteId O id do último assinante do lote.
+     * @param enviados Quantos e-mails do lote foram aceitos pelo servidor SMTP.
+     * @param falhas Quantos e-mails do lote falharam.
+     */
+    public void avancar(long ultimoAssinanteId, long enviados, long falhas) {
+        this.ultimoAssinanteId = ultimoAssinanteId;
+        this.enviados += enviados;
+        this.falhas += falhas;
+    }
+
+    /**
+     * Renova o lease do nó que está enviando; gravado junto com o checkpoint.
+     * @param dono O identificador do nó.
+     * @param ate Até quando o lease vale.
+     */
+    public void renovarLease(String dono, LocalDateTime ate) {
+        this.dono = dono;
+        this.leaseAte = ate;
+    }
+
+    public void concluir() {
+        this.status = Status.CONCLUIDO;
+        this.concluidoEm = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public String getChave() { return chave; }
+
+    public String getAssunto() { return assunto; }
+
+    public String getConteudo() { return conteudo; }
+
+    public Status getStatus() { return status; }
+
+    public long getUltimoAssinanteId() { return ultimoAssinanteId; }
+
+    public long getEnviados() { return enviados; }
+
+    public long getFalhas() { return falhas; }
+
+    public LocalDateTime getIniciadoEm() { return iniciadoEm; }
+
+    public LocalDateTime getConcluidoEm() { return concluidoEm; }
+
+    public String getDono() { return dono; }
+
+    public LocalDateTime getLeaseAte() { return leaseAte; }
+}
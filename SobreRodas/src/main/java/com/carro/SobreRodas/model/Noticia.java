@@ -5,10 +5,34 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 @Entity
+@Table(indexes = {
+        // Sustentam o carimbo (COUNT/MAX) usado nas respostas condicionais (ETag) das páginas.
+        @Index(name = "idx_noticia_modificado_em", columnList = "modificado_em"),
+        @Index(name = "idx_noticia_tag", columnList = "tag, modificado_em"),
+        // Páginas das listagens por tag, em ordem de id.
+        @Index(name = "idx_noticia_tag_id", columnList = "tag, id"),
+        // Filtros e ordenações da grade do admin.
+        @Index(name = "idx_noticia_data_publicacao", columnList = "data_publicacao"),
+        @Index(name = "idx_noticia_titulo", columnList = "titulo"),
+        @Index(name = "idx_noticia_autor", columnList = "autor")
+})
 public class Noticia {
 
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -30,6 +54,36 @@ public class Noticia {
     @Column(length = 500)
     private String resumo;
 
+    // Dimensões intrínsecas e placeholder (data URI) da imagem, calculados no upload.
+    private Integer imagemLargura;
+
+    private Integer imagemAltura;
+
+    @Column(length = 2048)
+    private String imagemPlaceholder;
+
+    // Bloqueio otimista: uma edição feita sobre uma versão desatualizada é rejeitada em vez de
+    // sobrescrever silenciosamente a alteração de outra pessoa.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
+    // Momento da última gravação; entra no ETag das páginas.
+    private Instant modificadoEm;
+
+    // A data do campo "data" (texto dd/MM/yyyy) como data de verdade, para filtrar e ordenar por período.
+    private LocalDate dataPublicacao;
+
+    // Derivados do conteúdo (Markdown) pelo RenderizadorDeConteudo a cada gravação: a página da notícia
+    // insere o HTML já sanitizado, sem processar texto a cada visita.
+    @Column(columnDefinition = "TEXT")
+    private String conteudoHtml;
+
+    private Integer palavras;
+
+    private Integer minutosDeLeitura;
+
     // Construtores
     public Noticia() {
     }
@@ -100,4 +154,58 @@ public class Noticia {
     public String getResumo() { return resumo; }
 
     public void setResumo(String resumo) { this.resumo = resumo; }
-}
\ No newline at end of file
+
+    public Integer getImagemLargura() { return imagemLargura; }
+
+    public void setImagemLargura(Integer imagemLargura) { this.imagemLargura = imagemLargura; }
+
+    public Integer getImagemAltura() { return imagemAltura; }
+
+    public void setImagemAltura(Integer imagemAltura) { this.imagemAltura = imagemAltura; }
+
+    public String getImagemPlaceholder() { return imagemPlaceholder; }
+
+    public void setImagemPlaceholder(String imagemPlaceholder) { this.imagemPlaceholder = imagemPlaceholder; }
+
+    public Long getVersao() { return versao; }
+
+    public void setVersao(Long versao) { this.versao = versao; }
+
+    public Instant getModificadoEm() { return modificadoEm; }
+
+    public LocalDate getDataPublicacao() { return dataPublicacao; }
+
+    public String getConteudoHtml() { return conteudoHtml; }
+
+    public void setConteudoHtml(String conteudoHtml) { this.conteudoHtml = conteudoHtml; }
+
+    public Integer getPalavras() { return palavras; }
+
+    public void setPalavras(Integer palavras) { this.palavras = palavras; }
+
+    public Integer getMinutosDeLeitura() { return minutosDeLeitura; }
+
+    public void setMinutosDeLeitura(Integer minutosDeLeitura) { this.minutosDeLeitura = minutosDeLeitura; }
+
+    @PrePersist
+    @PreUpdate
+    void registrarModificacao() {
+        this.modificadoEm = Instant.now();
+        this.dataPublicacao = converterData(data);
+    }
+
+    /**
+     * Converte o texto dd/MM/yyyy do campo "data" para LocalDate.
+     * @return A data, ou null se o texto estiver vazio ou em outro formato.
+     */
+    public static LocalDate converterData(String data) {
+        if (data == null || data.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(data.trim(), FORMATO_DATA);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
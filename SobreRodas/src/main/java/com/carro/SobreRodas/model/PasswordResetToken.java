@@ -5,9 +5,14 @@ import java.time.LocalDateTime;
 
 /**
  * Entidade JPA que representa um token de redefinição de senha.
- * Armazena o token, o usuário associado e uma data de expiração.
+ * Armazena o hash do token (nunca o token em texto claro), o usuário associado e uma data de expiração.
+ * Há no máximo um token por usuário, garantido pela restrição única em usuario_id.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "uk_password_reset_token_token", columnList = "token", unique = true),
+        @Index(name = "idx_password_reset_token_expiry", columnList = "expiryDate")
+})
 public class PasswordResetToken {
 
     // Define a duração da validade do token em minutos (24 horas).
@@ -17,12 +22,13 @@ public class PasswordResetToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    // O token único gerado para a redefinição de senha.
+    // Hash SHA-256 (hexadecimal) do token enviado ao usuário.
+    @Column(length = 64, nullable = false)
     private String token;
 
     // Relacionamento um-para-um com a entidade Usuario. Cada token pertence a um único usuário.
     @OneToOne(targetEntity = Usuario.class, fetch = FetchType.EAGER)
-    @JoinColumn(nullable = false, name = "usuario_id")
+    @JoinColumn(nullable = false, name = "usuario_id", unique = true)
     private Usuario usuario;
 
     // Data e hora em que o token irá expirar.
@@ -37,7 +43,7 @@ public class PasswordResetToken {
 
     /**
      * Construtor que associa um token e um usuário.
-     * @param token O token de redefinição.
+     * @param token O hash do token de redefinição.
      * @param usuario O usuário associado.
      */
     public PasswordResetToken(String token, Usuario usuario) {
@@ -46,6 +52,14 @@ public class PasswordResetToken {
         this.usuario = usuario;
     }
 
+    /**
+     * Calcula a data de expiração de um token criado agora.
+     * @return A data e hora de expiração.
+     */
+    public static LocalDateTime novaDataDeExpiracao() {
+        return LocalDateTime.now().plusMinutes(EXPIRATION);
+    }
+
     /**
      * Método privado para calcular a data de expiração com base no tempo atual.
      * @param expiryTimeInMinutes O tempo de validade em minutos.
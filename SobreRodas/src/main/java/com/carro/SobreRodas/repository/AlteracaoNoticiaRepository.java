@@ -0,0 +1,51 @@
+package com.carro.SobreRodas.repository;
+
+import com.carro.SobreRodas.model.AlteracaoNoticia;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface AlteracaoNoticiaRepository extends JpaRepository<AlteracaoNoticia, Long> {
+
+    /**
+     * @param limite O instante de corte.
+     * @return O id da última alteração registrada antes do limite, ou null se não houver nenhuma.
+     */
+    @Query("select max(a.id) from AlteracaoNoticia a where a.criadaEm < :limite")
+    Long findUltimoIdAntes(@Param("limite") Instant limite);
+
+    /**
+     * Lista as alterações com id maior que o informado, em ordem (percorre a chave primária).
+     * @param id O último id já lido.
+     * @param pageable O tamanho do lote.
+     * @return As próximas alterações.
+     */
+    List<AlteracaoNoticia> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    /**
+     * Lista os ids de um lote de alterações anteriores ao limite (usa o índice de criadaEm).
+     * @param limite O instante de corte.
+     * @param pageable O tamanho do lote.
+     * @return Os ids das alterações antigas.
+     */
+    @Query("select a.id from AlteracaoNoticia a where a.criadaEm < :limite")
+    List<Long> findIdsAnteriores(@Param("limite") Instant limite, Pageable pageable);
+
+    /**
+     * Exclui um lote de alterações pelos ids, na sua própria transação.
+     * @param ids Os ids a excluir.
+     * @return O número de linhas excluídas.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from AlteracaoNoticia a where a.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
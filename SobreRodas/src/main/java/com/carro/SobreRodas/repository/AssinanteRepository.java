@@ -0,0 +1,26 @@
+package com.carro.SobreRodas.repository;
+
+import com.carro.SobreRodas.model.Assinante;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AssinanteRepository extends JpaRepository<Assinante, Long> {
+
+    Optional<Assinante> findByEmail(String email);
+
+    Optional<Assinante> findByTokenCancelamento(String tokenCancelamento);
+
+    /**
+     * Próxima página de assinantes ativos após um id (paginação por chave, sem OFFSET),
+     * usada para percorrer centenas de milhares de assinantes em tempo constante por página.
+     */
+    @Query("select a from Assinante a where a.ativo = true and a.id > :ultimoId order by a.id")
+    List<Assinante> findAtivosAposId(@Param("ultimoId") long ultimoId, Pageable pageable);
+}
@@ -0,0 +1,42 @@
+package com.carro.SobreRodas.repository;
+
+import com.carro.SobreRodas.model.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório Spring Data JPA para a fila de saída de e-mails ({@link EmailOutbox}).
+ */
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Lista os ids dos e-mails prontos para envio: pendentes cuja próxima tentativa já chegou,
+     * ou reservados por um dispatcher cuja reserva expirou (por exemplo, um nó que caiu no meio do envio).
+     */
+    @Query("select e.id from EmailOutbox e where e.status in :status and e.proximaTentativa <= :agora order by e.id")
+    List<Long> findIdsProntos(@Param("status") List<EmailOutbox.Status> status, @Param("agora") LocalDateTime agora, Pageable pageable);
+
+    /**
+     * Reserva os e-mails para um lote. A condição é repetida no UPDATE para que, se dois nós
+     * tentarem reservar o mesmo e-mail, apenas um consiga.
+     * @return O número de e-mails reservados.
+     */
+    @Modifying
+    @Query("update EmailOutbox e set e.status = :reservado, e.lote = :lote, e.proximaTentativa = :fimReserva " +
+            "where e.id in :ids and e.status in :status and e.proximaTentativa <= :agora")
+    int reservar(@Param("ids") List<Long> ids, @Param("status") List<EmailOutbox.Status> status,
+                 @Param("reservado") EmailOutbox.Status reservado, @Param("lote") String lote,
+                 @Param("agora") LocalDateTime agora, @Param("fimReserva") LocalDateTime fimReserva);
+
+    List<EmailOutbox> findByLoteOrderById(String lote);
+
+    long countByStatus(EmailOutbox.Status status);
+}
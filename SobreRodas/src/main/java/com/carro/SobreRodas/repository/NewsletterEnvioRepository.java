@@ -0,0 +1,33 @@
+package com.carro.SobreRodas.repository;
+
+import com.carro.SobreRodas.model.NewsletterEnvio;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NewsletterEnvioRepository extends JpaRepository<NewsletterEnvio, Long> {
+
+    Optional<NewsletterEnvio> findByChave(String chave);
+
+    List<NewsletterEnvio> findByStatus(NewsletterEnvio.Status status);
+
+    /**
+     * Assume o lease de um envio em andamento, se ele estiver livre, vencido ou já for deste nó. A condição
+     * fica no UPDATE para que, se dois nós tentarem ao mesmo tempo, apenas um consiga; a versão é incrementada
+     * para que o checkpoint do dono anterior seja recusado.
+     * @return 1 se o lease foi assumido, 0 caso contrário.
+     */
+    @Modifying
+    @Query("update NewsletterEnvio e set e.dono = :dono, e.leaseAte = :ate, e.versao = e.versao + 1 " +
+            "where e.chave = :chave and e.status = :status " +
+            "and (e.dono is null or e.dono = :dono or e.leaseAte < :agora)")
+    int assumirLease(@Param("chave") String chave, @Param("status") NewsletterEnvio.Status status,
+                     @Param("dono") String dono, @Param("agora") LocalDateTime agora, @Param("ate") LocalDateTime ate);
+}
@@ -0,0 +1,19 @@
+package com.carro.SobreRodas.repository;
+
+import com.carro.SobreRodas.dto.CartaoNoticia;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Listagens lidas aos poucos, para as páginas que renderizam os resultados em partes.
+ * Implementado em {@link NoticiaCartoesRepositoryImpl} e incorporado ao {@link NoticiaRepository}.
+ * Os streams seguem a ordem dos ids e leem uma página do banco de cada vez; só usam uma conexão durante a
+ * leitura de cada página.
+ */
+public interface NoticiaCartoesRepository {
+
+    Stream<CartaoNoticia> streamCartoesPorTags(List<String> tags);
+
+    Stream<CartaoNoticia> streamCartoesPorTermo(String termo);
+}
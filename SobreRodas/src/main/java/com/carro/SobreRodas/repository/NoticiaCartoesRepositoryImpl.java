@@ -0,0 +1,99 @@
+package com.carro.SobreRodas.repository;
+
+import com.carro.SobreRodas.dto.CartaoNoticia;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Consultas das listagens em JDBC puro: só as colunas dos cartões, sem entidades gerenciadas pelo Hibernate.
+ * As linhas são lidas em páginas por id (id maior que o último da página anterior), cada uma numa consulta
+ * curta: entre uma página e outra (enquanto a anterior é renderizada e enviada a um navegador que pode ser
+ * lento) nenhuma conexão do pool fica presa.
+ */
+public class NoticiaCartoesRepositoryImpl implements NoticiaCartoesRepository {
+
+    private static final String COLUNAS =
+            "SELECT id, titulo, resumo, tag, imagem, imagem_largura, imagem_altura, imagem_placeholder FROM noticia";
+
+    private static final RowMapper<CartaoNoticia> CARTAO = (rs, linha) -> new CartaoNoticia(
+            rs.getLong("id"), rs.getString("titulo"), rs.getString("resumo"), rs.getString("tag"),
+            rs.getString("imagem"), rs.getObject("imagem_largura", Integer.class),
+            rs.getObject("imagem_altura", Integer.class), rs.getString("imagem_placeholder"));
+
+    private static final String PAGINA = " AND id > :aposId ORDER BY id LIMIT :limite";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int tamanhoPagina;
+
+    public NoticiaCartoesRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                        @Value("${listagem.em-partes.tamanho-pagina:500}") int tamanhoPagina) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.tamanhoPagina = tamanhoPagina;
+    }
+
+    @Override
+    public Stream<CartaoNoticia> streamCartoesPorTags(List<String> tags) {
+        return emPaginas(COLUNAS + " WHERE tag IN (:tags)" + PAGINA, new MapSqlParameterSource("tags", tags));
+    }
+
+    @Override
+    public Stream<CartaoNoticia> streamCartoesPorTermo(String termo) {
+        // Mesmo critério de findByTituloContainingIgnoreCaseOrResumoContainingIgnoreCase.
+        String padrao = "%" + termo.toLowerCase(Locale.ROOT)
+                .replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+        return emPaginas(COLUNAS
+                        + " WHERE (LOWER(titulo) LIKE :padrao ESCAPE '!' OR LOWER(resumo) LIKE :padrao ESCAPE '!')" + PAGINA,
+                new MapSqlParameterSource("padrao", padrao));
+    }
+
+    /**
+     * Percorre a consulta em páginas de tamanhoPagina: a próxima só é lida quando a anterior foi consumida.
+     */
+    private Stream<CartaoNoticia> emPaginas(String sql, MapSqlParameterSource parametros) {
+        Iterator<CartaoNoticia> paginas = new Iterator<>() {
+            private List<CartaoNoticia> pagina = List.of();
+            private int posicao;
+            private long ultimoId;
+            private boolean fim;
+
+            @Override
+            public boolean hasNext() {
+                if (posicao < pagina.size()) {
+                    return true;
+                }
+                if (fim) {
+                    return false;
+                }
+                pagina = jdbcTemplate.query(sql,
+                        parametros.addValue("aposId", ultimoId).addValue("limite", tamanhoPagina), CARTAO);
+                posicao = 0;
+                fim = pagina.size() < tamanhoPagina;
+                if (!pagina.isEmpty()) {
+                    ultimoId = pagina.get(pagina.size() - 1).getId();
+                }
+                return !pagina.isEmpty();
+            }
+
+            @Override
+            public CartaoNoticia next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return pagina.get(posicao++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(paginas, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+}
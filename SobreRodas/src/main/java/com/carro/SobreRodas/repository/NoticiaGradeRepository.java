@@ -0,0 +1,36 @@
+package com.carro.SobreRodas.repository;
+
+import com.carro.SobreRodas.dto.FiltroNoticias;
+import com.carro.SobreRodas.dto.LinhaNoticiaAdmin;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Consultas da grade de notícias do admin, com filtros opcionais montados dinamicamente.
+ * Implementado em {@link NoticiaGradeRepositoryImpl} e incorporado ao {@link NoticiaRepository}.
+ */
+public interface NoticiaGradeRepository {
+
+    /**
+     * Uma página de linhas (projeção sem o conteúdo), na ordem do Pageable e, em seguida, por id.
+     */
+    List<LinhaNoticiaAdmin> buscarGrade(FiltroNoticias filtro, Pageable pageable);
+
+    /**
+     * Conta as notícias do filtro, parando em {@code limite + 1}: um resultado maior que o limite
+     * significa apenas "mais que o limite".
+     */
+    long contarGradeAte(FiltroNoticias filtro, long limite);
+
+    /**
+     * Conta exatamente as notícias do filtro (para o progresso de uma operação em massa).
+     */
+    long contarGrade(FiltroNoticias filtro);
+
+    /**
+     * Ids das notícias do filtro maiores que {@code aposId}, em ordem crescente: percorre o resultado
+     * em lotes pela chave primária, sem OFFSET.
+     */
+    List<Long> idsDaGrade(FiltroNoticias filtro, long aposId, int limite);
+}
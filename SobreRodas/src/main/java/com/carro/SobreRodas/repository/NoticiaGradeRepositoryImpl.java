@@ -0,0 +1,121 @@
+package com.carro.SobreRodas.repository;
+
+import com.carro.SobreRodas.dto.FiltroNoticias;
+import com.carro.SobreRodas.dto.LinhaNoticiaAdmin;
+import com.carro.SobreRodas.model.Noticia;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaDerivedRoot;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Monta as consultas da grade com a Criteria API. Todos os filtros e ordenações usam colunas indexadas
+ * (ver {@link Noticia}); o título é filtrado por prefixo para que o índice continue valendo.
+ */
+public class NoticiaGradeRepositoryImpl implements NoticiaGradeRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<LinhaNoticiaAdmin> buscarGrade(FiltroNoticias filtro, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LinhaNoticiaAdmin> consulta = cb.createQuery(LinhaNoticiaAdmin.class);
+        Root<Noticia> noticia = consulta.from(Noticia.class);
+        consulta.select(cb.construct(LinhaNoticiaAdmin.class, noticia.get("id"), noticia.get("titulo"),
+                noticia.get("autor"), noticia.get("tag"), noticia.get("data"), noticia.get("modificadoEm")));
+        consulta.where(filtros(filtro, cb, noticia));
+
+        // Desempate pelo id, para que as páginas não repitam nem pulem linhas com valores iguais. Na mesma
+        // direção da coluna ordenada: o índice secundário já inclui a chave primária e atende o ORDER BY inteiro.
+        List<Order> ordem = new ArrayList<>(QueryUtils.toOrders(pageable.getSort(), noticia, cb));
+        if (pageable.getSort().getOrderFor("id") == null) {
+            boolean crescente = pageable.getSort().stream().findFirst().map(Sort.Order::isAscending).orElse(false);
+            ordem.add(crescente ? cb.asc(noticia.get("id")) : cb.desc(noticia.get("id")));
+        }
+        consulta.orderBy(ordem);
+
+        return entityManager.createQuery(consulta)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public long contarGradeAte(FiltroNoticias filtro, long limite) {
+        // SELECT COUNT(*) FROM (SELECT id ... LIMIT limite + 1): o banco para de ler (pelo índice) ao chegar
+        // no limite, em vez de um COUNT(*) sobre um resultado enorme, e só um número volta para a aplicação.
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        JpaCriteriaQuery<Long> consulta = cb.createQuery(Long.class);
+        JpaSubQuery<Tuple> ids = consulta.subquery(Tuple.class);
+        Root<Noticia> noticia = ids.from(Noticia.class);
+        ids.multiselect(noticia.get("id").alias("id"));
+        ids.where(filtros(filtro, cb, noticia));
+        ids.fetch(Math.min(Integer.MAX_VALUE, limite + 1));
+        JpaDerivedRoot<Tuple> amostra = consulta.from(ids);
+        consulta.select(cb.count(amostra.get("id")));
+        return entityManager.createQuery(consulta).getSingleResult();
+    }
+
+    @Override
+    public long contarGrade(FiltroNoticias filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> consulta = cb.createQuery(Long.class);
+        Root<Noticia> noticia = consulta.from(Noticia.class);
+        consulta.select(cb.count(noticia)).where(filtros(filtro, cb, noticia));
+        return entityManager.createQuery(consulta).getSingleResult();
+    }
+
+    @Override
+    public List<Long> idsDaGrade(FiltroNoticias filtro, long aposId, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> consulta = cb.createQuery(Long.class);
+        Root<Noticia> noticia = consulta.from(Noticia.class);
+        List<Predicate> condicoes = new ArrayList<>(List.of(filtros(filtro, cb, noticia)));
+        condicoes.add(cb.greaterThan(noticia.get("id"), aposId));
+        consulta.select(noticia.get("id"))
+                .where(condicoes.toArray(new Predicate[0]))
+                .orderBy(cb.asc(noticia.get("id")));
+        return entityManager.createQuery(consulta).setMaxResults(limite).getResultList();
+    }
+
+    private static Predicate[] filtros(FiltroNoticias filtro, CriteriaBuilder cb, Root<Noticia> noticia) {
+        List<Predicate> filtros = new ArrayList<>();
+        if (preenchido(filtro.getTag())) {
+            filtros.add(cb.equal(noticia.get("tag"), filtro.getTag().trim()));
+        }
+        if (preenchido(filtro.getAutor())) {
+            filtros.add(cb.equal(noticia.get("autor"), filtro.getAutor().trim()));
+        }
+        if (preenchido(filtro.getTitulo())) {
+            String prefixo = filtro.getTitulo().trim().replace("!", "!!").replace("%", "!%").replace("_", "!_");
+            filtros.add(cb.like(noticia.get("titulo"), prefixo + "%", '!'));
+        }
+        if (filtro.getDe() != null) {
+            filtros.add(cb.greaterThanOrEqualTo(noticia.get("dataPublicacao"), filtro.getDe()));
+        }
+        if (filtro.getAte() != null) {
+            filtros.add(cb.lessThanOrEqualTo(noticia.get("dataPublicacao"), filtro.getAte()));
+        }
+        return filtros.toArray(new Predicate[0]);
+    }
+
+    private static boolean preenchido(String valor) {
+        return valor != null && !valor.isBlank();
+    }
+}
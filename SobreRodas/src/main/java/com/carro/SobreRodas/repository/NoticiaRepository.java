@@ -1,14 +1,22 @@
 package com.carro.SobreRodas.repository;
 
+import com.carro.SobreRodas.dto.CarimboNoticias;
 import com.carro.SobreRodas.model.Noticia;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface NoticiaRepository extends JpaRepository<Noticia, Long> {
+public interface NoticiaRepository extends JpaRepository<Noticia, Long>, NoticiaCartoesRepository, NoticiaGradeRepository {
 
     // Métodos para a página inicial
     Optional<Noticia> findFirstByOrderByIdDesc();
@@ -20,12 +28,50 @@ public interface NoticiaRepository extends JpaRepository<Noticia, Long> {
     // Método para a página de notícia
     List<Noticia> findTop3ByOrderByIdDesc();
 
+    // Método para o resumo da newsletter
+    List<Noticia> findByOrderByIdDesc(Pageable pageable);
+
     // Método para busca
     List<Noticia> findByTituloContainingIgnoreCaseOrResumoContainingIgnoreCase(String titulo, String resumo);
 
     // Método para páginas de categoria
     List<Noticia> findByTagIn(List<String> tags);
 
+    // Métodos para as respostas condicionais (ETag): uma única consulta agregada, coberta por índice
+    @Query("SELECT new com.carro.SobreRodas.dto.CarimboNoticias(COUNT(n), MAX(n.modificadoEm)) FROM Noticia n")
+    CarimboNoticias carimbo();
+
+    @Query("SELECT new com.carro.SobreRodas.dto.CarimboNoticias(COUNT(n), MAX(n.modificadoEm)) FROM Noticia n WHERE n.tag IN :tags")
+    CarimboNoticias carimboPorTags(@Param("tags") List<String> tags);
+
+    // Opções do filtro de tag da grade do admin (percorre o índice idx_noticia_tag)
+    @Query("SELECT DISTINCT n.tag FROM Noticia n WHERE n.tag IS NOT NULL ORDER BY n.tag")
+    List<String> findTags();
+
+    // Operações em massa do admin: um único comando por lote de ids, cada lote na sua própria transação.
+    // Versão e modificadoEm são atualizados como numa gravação normal (bloqueio otimista e ETag).
+    @Transactional
+    @Modifying
+    @Query("UPDATE Noticia n SET n.tag = :tag, n.versao = n.versao + 1, n.modificadoEm = :agora WHERE n.id IN :ids")
+    int atualizarTag(@Param("ids") List<Long> ids, @Param("tag") String tag, @Param("agora") Instant agora);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Noticia n SET n.autor = :autor, n.versao = n.versao + 1, n.modificadoEm = :agora WHERE n.id IN :ids")
+    int atualizarAutor(@Param("ids") List<Long> ids, @Param("autor") String autor, @Param("agora") Instant agora);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Noticia n SET n.data = :data, n.dataPublicacao = :dataPublicacao, n.versao = n.versao + 1, "
+            + "n.modificadoEm = :agora WHERE n.id IN :ids")
+    int republicar(@Param("ids") List<Long> ids, @Param("data") String data,
+                   @Param("dataPublicacao") LocalDate dataPublicacao, @Param("agora") Instant agora);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Noticia n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
     // Método para o NewsApiService verificar duplicatas
     boolean existsByTitulo(String titulo);
 }
\ No newline at end of file
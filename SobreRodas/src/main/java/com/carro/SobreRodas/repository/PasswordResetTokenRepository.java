@@ -2,18 +2,27 @@ package com.carro.SobreRodas.repository;
 
 import com.carro.SobreRodas.model.PasswordResetToken;
 import com.carro.SobreRodas.model.Usuario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Repositório Spring Data JPA para a entidade {@link PasswordResetToken}.
  * Fornece métodos para interagir com a tabela de tokens de redefinição de senha no banco de dados.
+ * Todas as buscas por token recebem o hash do token, que é indexado de forma única.
  */
 @Repository
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
     /**
-     * Encontra um {@link PasswordResetToken} pelo seu valor de token.
-     * @param token O token a ser procurado.
+     * Encontra um {@link PasswordResetToken} pelo hash do token (busca pelo índice único).
+     * @param token O hash do token a ser procurado.
      * @return O PasswordResetToken correspondente, ou null se não for encontrado.
      */
     PasswordResetToken findByToken(String token);
@@ -24,4 +33,44 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
      * @return O PasswordResetToken correspondente, ou null se não for encontrado.
      */
     PasswordResetToken findByUsuario(Usuario usuario);
-}
\ No newline at end of file
+
+    /**
+     * Substitui o token de um usuário em um único UPDATE, sem carregar a entidade.
+     * @param usuario O usuário dono do token.
+     * @param token O hash do novo token.
+     * @param expiryDate A nova data de expiração.
+     * @return O número de linhas atualizadas (0 se o usuário ainda não tem token).
+     */
+    @Modifying
+    @Query("update PasswordResetToken t set t.token = :token, t.expiryDate = :expiryDate where t.usuario = :usuario")
+    int atualizarTokenDoUsuario(@Param("usuario") Usuario usuario, @Param("token") String token,
+                                @Param("expiryDate") LocalDateTime expiryDate);
+
+    /**
+     * Exclui um token pelo hash, sem carregá-lo antes.
+     * @param token O hash do token.
+     * @return O número de linhas excluídas.
+     */
+    @Modifying
+    @Query("delete from PasswordResetToken t where t.token = :token")
+    int deleteByTokenHash(@Param("token") String token);
+
+    /**
+     * Lista os ids de um lote de tokens expirados (usa o índice de expiryDate).
+     * @param agora O instante de referência.
+     * @param pageable O tamanho do lote.
+     * @return Os ids dos tokens expirados.
+     */
+    @Query("select t.id from PasswordResetToken t where t.expiryDate < :agora")
+    List<Long> findIdsExpirados(@Param("agora") LocalDateTime agora, Pageable pageable);
+
+    /**
+     * Exclui um lote de tokens pelos ids, na sua própria transação.
+     * @param ids Os ids a excluir.
+     * @return O número de linhas excluídas.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from PasswordResetToken t where t.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,50 @@
+package com.carro.SobreRodas.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Mede o tempo do BCrypt no hardware atual e escolhe o fator de custo (strength)
+ * cuja latência de um hash fica mais próxima, sem ultrapassar, da latência alvo.
+ * Como cada incremento do custo dobra o tempo, basta medir o custo mínimo e extrapolar.
+ */
+public final class BCryptCalibrador {
+
+    private static final Logger logger = LoggerFactory.getLogger(BCryptCalibrador.class);
+
+    // Número de medições no custo mínimo; usa-se a menor, descartando ruído de JIT/GC.
+    private static final int MEDICOES = 3;
+
+    private BCryptCalibrador() {
+    }
+
+    /**
+     * Calibra o fator de custo do BCrypt.
+     * @param latenciaAlvoMs Tempo desejado para calcular um hash, em milissegundos.
+     * @param custoMinimo Menor custo aceito (nunca calibra abaixo disso).
+     * @param custoMaximo Maior custo aceito.
+     * @return O fator de custo escolhido.
+     */
+    public static int calibrar(long latenciaAlvoMs, int custoMinimo, int custoMaximo) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(custoMinimo);
+        long melhorNanos = Long.MAX_VALUE;
+        for (int i = 0; i < MEDICOES; i++) {
+            long inicio = System.nanoTime();
+            encoder.encode("calibracao-bcrypt");
+            melhorNanos = Math.min(melhorNanos, System.nanoTime() - inicio);
+        }
+
+        double msNoMinimo = melhorNanos / 1_000_000d;
+        int custo = custoMinimo;
+        if (msNoMinimo > 0) {
+            custo += (int) Math.floor(Math.log(latenciaAlvoMs / msNoMinimo) / Math.log(2));
+        }
+        custo = Math.max(custoMinimo, Math.min(custoMaximo, custo));
+
+        logger.info("BCrypt calibrado: custo {} leva {} ms; custo escolhido {} (~{} ms, alvo {} ms)",
+                custoMinimo, Math.round(msNoMinimo), custo,
+                Math.round(msNoMinimo * (1L << (custo - custoMinimo))), latenciaAlvoMs);
+        return custo;
+    }
+}
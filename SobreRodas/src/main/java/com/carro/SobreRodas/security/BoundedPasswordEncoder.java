@@ -0,0 +1,71 @@
+package com.carro.SobreRodas.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PasswordEncoder que limita quantas verificações de senha (BCrypt) podem rodar ao mesmo tempo.
+ * O limite é uma fração dos processadores disponíveis, de modo que uma rajada de logins
+ * nunca ocupe toda a CPU e a renderização das páginas continue respondendo.
+ * Quando não há vaga dentro do tempo de espera, a tentativa é rejeitada com {@link LoginSaturadoException}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Semaphore vagas;
+    private final int maxConcorrentes;
+    private final long esperaMaximaMs;
+    private final Counter saturados;
+
+    /**
+     * @param delegate O encoder que realmente calcula os hashes.
+     * @param fracaoCpu Fração dos processadores que a verificação de senhas pode ocupar (0 a 1).
+     * @param esperaMaximaMs Tempo máximo de espera por uma vaga antes de rejeitar a tentativa.
+     * @param meterRegistry Registro de métricas.
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, double fracaoCpu, long esperaMaximaMs, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxConcorrentes = Math.max(1, (int) Math.floor(Runtime.getRuntime().availableProcessors() * fracaoCpu));
+        this.vagas = new Semaphore(maxConcorrentes);
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.saturados = Counter.builder("login.saturados")
+                .description("Verificações de senha rejeitadas por falta de vaga no pool").register(meterRegistry);
+        Gauge.builder("login.verificacoes.ativas", this, e -> e.maxConcorrentes - e.vagas.availablePermits())
+                .description("Verificações de senha em andamento").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        boolean adquirido;
+        try {
+            adquirido = vagas.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquirido = false;
+        }
+        if (!adquirido) {
+            saturados.increment();
+            throw new LoginSaturadoException("Servidor ocupado verificando outras senhas. Tente novamente em instantes.");
+        }
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            vagas.release();
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,14 @@
+package com.carro.SobreRodas.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Lançada quando o pool de verificação de senhas está saturado e a tentativa de login
+ * é rejeitada sem calcular o hash.
+ */
+public class LoginSaturadoException extends AuthenticationServiceException {
+
+    public LoginSaturadoException(String msg) {
+        super(msg);
+    }
+}
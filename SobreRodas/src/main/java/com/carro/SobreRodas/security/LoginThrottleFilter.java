@@ -0,0 +1,74 @@
+package com.carro.SobreRodas.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Filtro que aplica o limite de tentativas antes que o Spring Security verifique a senha.
+ * Tentativas acima do limite são rejeitadas imediatamente, sem nenhum trabalho de BCrypt.
+ * Protege o POST do formulário de login ou, no construtor sem URL, as requisições com credenciais HTTP Basic.
+ */
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private static final String BASIC = "Basic ";
+
+    private final LoginThrottleService loginThrottleService;
+    private final String loginProcessingUrl;
+
+    public LoginThrottleFilter(LoginThrottleService loginThrottleService, String loginProcessingUrl) {
+        this.loginThrottleService = loginThrottleService;
+        this.loginProcessingUrl = loginProcessingUrl;
+    }
+
+    /**
+     * Filtro para as requisições autenticadas por HTTP Basic; as rejeitadas recebem 429.
+     */
+    public LoginThrottleFilter(LoginThrottleService loginThrottleService) {
+        this(loginThrottleService, null);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (loginProcessingUrl == null) {
+            String autorizacao = request.getHeader(HttpHeaders.AUTHORIZATION);
+            return autorizacao == null || !autorizacao.regionMatches(true, 0, BASIC, 0, BASIC.length());
+        }
+        return !("POST".equals(request.getMethod())
+                && loginProcessingUrl.equals(request.getServletPath()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String email = loginProcessingUrl != null ? request.getParameter("username") : usuarioBasic(request);
+        if (!loginThrottleService.tentarAdquirir(request.getRemoteAddr(), email)) {
+            if (loginProcessingUrl == null) {
+                response.sendError(429);
+            } else {
+                response.sendRedirect(request.getContextPath() + loginProcessingUrl + "?bloqueado=true");
+            }
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // O usuário do cabeçalho "Authorization: Basic base64(usuario:senha)"; null se estiver malformado.
+    private static String usuarioBasic(HttpServletRequest request) {
+        try {
+            String credenciais = new String(Base64.getDecoder().decode(
+                    request.getHeader(HttpHeaders.AUTHORIZATION).substring(BASIC.length()).trim()), StandardCharsets.UTF_8);
+            int separador = credenciais.indexOf(':');
+            return separador >= 0 ? credenciais.substring(0, separador) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
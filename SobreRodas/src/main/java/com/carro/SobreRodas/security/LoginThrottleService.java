@@ -0,0 +1,97 @@
+package com.carro.SobreRodas.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Controla a taxa de tentativas de login com baldes de fichas em memória,
+ * um por endereço IP e outro por e-mail. Também contabiliza as falhas de login
+ * e as tentativas bloqueadas como métricas.
+ * <p>
+ * Cada mapa guarda no máximo login.throttle.max-chaves chaves; acima disso, descarta a usada há mais tempo,
+ * para que uma rajada de chaves novas não zere os baldes de quem está sendo limitado agora.
+ */
+@Component
+public class LoginThrottleService {
+
+    private final Map<String, TokenBucket> baldesPorIp;
+    private final Map<String, TokenBucket> baldesPorEmail;
+
+    private final int capacidadeIp;
+    private final int reposicaoIp;
+    private final int capacidadeEmail;
+    private final int reposicaoEmail;
+
+    private final Counter bloqueiosPorIp;
+    private final Counter bloqueiosPorEmail;
+    private final Counter falhas;
+
+    public LoginThrottleService(MeterRegistry meterRegistry,
+                                @Value("${login.throttle.ip.capacidade:20}") int capacidadeIp,
+                                @Value("${login.throttle.ip.reposicao-por-minuto:10}") int reposicaoIp,
+                                @Value("${login.throttle.email.capacidade:5}") int capacidadeEmail,
+                                @Value("${login.throttle.email.reposicao-por-minuto:2}") int reposicaoEmail,
+                                @Value("${login.throttle.max-chaves:100000}") int maxChaves) {
+        this.capacidadeIp = capacidadeIp;
+        this.reposicaoIp = reposicaoIp;
+        this.capacidadeEmail = capacidadeEmail;
+        this.reposicaoEmail = reposicaoEmail;
+        this.baldesPorIp = novoMapaLimitado(maxChaves);
+        this.baldesPorEmail = novoMapaLimitado(maxChaves);
+
+        this.bloqueiosPorIp = Counter.builder("login.bloqueados").tag("chave", "ip")
+                .description("Tentativas de login rejeitadas pelo limite de taxa").register(meterRegistry);
+        this.bloqueiosPorEmail = Counter.builder("login.bloqueados").tag("chave", "email")
+                .description("Tentativas de login rejeitadas pelo limite de taxa").register(meterRegistry);
+        this.falhas = Counter.builder("login.falhas")
+                .description("Tentativas de login com credenciais inválidas").register(meterRegistry);
+    }
+
+    /**
+     * Consome uma ficha do IP e uma do e-mail informados.
+     * @param ip O IP do cliente (atrás de um proxy, o de X-Forwarded-For; ver server.forward-headers-strategy).
+     * @param email O e-mail digitado no formulário (pode ser nulo).
+     * @return true se a tentativa pode prosseguir, false se deve ser rejeitada.
+     */
+    public boolean tentarAdquirir(String ip, String email) {
+        if (!baldesPorIp.computeIfAbsent(ip, k -> new TokenBucket(capacidadeIp, reposicaoIp)).tryConsume()) {
+            bloqueiosPorIp.increment();
+            return false;
+        }
+        if (email != null && !email.isBlank()) {
+            String chave = email.trim().toLowerCase(Locale.ROOT);
+            if (!baldesPorEmail.computeIfAbsent(chave, k -> new TokenBucket(capacidadeEmail, reposicaoEmail)).tryConsume()) {
+                bloqueiosPorEmail.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Contabiliza as falhas de autenticação publicadas pelo Spring Security.
+     */
+    @EventListener
+    public void onFalhaDeLogin(AbstractAuthenticationFailureEvent event) {
+        falhas.increment();
+    }
+
+    // Mapa em ordem de acesso que descarta a entrada usada há mais tempo quando passa do máximo.
+    private static Map<String, TokenBucket> novoMapaLimitado(int maxChaves) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> maisAntiga) {
+                return size() > maxChaves;
+            }
+        });
+    }
+}
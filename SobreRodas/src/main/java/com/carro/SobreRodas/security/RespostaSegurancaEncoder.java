@@ -0,0 +1,40 @@
+package com.carro.SobreRodas.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Codificador usado apenas para a resposta de segurança do usuário.
+ * Tem seu próprio fator de custo, independente do usado para as senhas.
+ * Não implementa PasswordEncoder de propósito: o Spring Security só configura
+ * automaticamente o login quando existe um único bean desse tipo.
+ */
+@Component
+public class RespostaSegurancaEncoder {
+
+    private final BCryptPasswordEncoder encoder;
+
+    public RespostaSegurancaEncoder(@Value("${senha.resposta.bcrypt.custo:10}") int custo) {
+        this.encoder = new BCryptPasswordEncoder(custo);
+    }
+
+    /**
+     * Criptografa a resposta de segurança.
+     * @param resposta A resposta em texto plano.
+     * @return O hash da resposta.
+     */
+    public String encode(CharSequence resposta) {
+        return encoder.encode(resposta);
+    }
+
+    /**
+     * Verifica uma resposta contra o hash armazenado (qualquer custo BCrypt é aceito).
+     * @param resposta A resposta em texto plano.
+     * @param hash O hash armazenado.
+     * @return true se a resposta corresponder ao hash.
+     */
+    public boolean matches(CharSequence resposta, String hash) {
+        return encoder.matches(resposta, hash);
+    }
+}
@@ -0,0 +1,45 @@
+package com.carro.SobreRodas.security;
+
+/**
+ * Balde de fichas (token bucket) simples, em memória.
+ * Cada tentativa consome uma ficha; as fichas são repostas continuamente a uma taxa fixa
+ * até o limite da capacidade.
+ */
+public class TokenBucket {
+
+    private final double capacidade;
+    private final double fichasPorNano;
+
+    private double fichas;
+    private long ultimaReposicao;
+
+    /**
+     * @param capacidade Número máximo de fichas (rajada permitida).
+     * @param reposicaoPorMinuto Quantidade de fichas repostas por minuto.
+     */
+    public TokenBucket(int capacidade, int reposicaoPorMinuto) {
+        this.capacidade = capacidade;
+        this.fichasPorNano = reposicaoPorMinuto / 60_000_000_000d;
+        this.fichas = capacidade;
+        this.ultimaReposicao = System.nanoTime();
+    }
+
+    /**
+     * Tenta consumir uma ficha.
+     * @return true se havia ficha disponível, false se o balde está vazio.
+     */
+    public synchronized boolean tryConsume() {
+        repor();
+        if (fichas >= 1) {
+            fichas -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    private void repor() {
+        long agora = System.nanoTime();
+        fichas = Math.min(capacidade, fichas + (agora - ultimaReposicao) * fichasPorNano);
+        ultimaReposicao = agora;
+    }
+}
@@ -0,0 +1,116 @@
+package com.carro.SobreRodas.security;
+
+import com.carro.SobreRodas.model.Usuario;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Principal compacto do usuário autenticado, guardado na sessão HTTP no lugar da entidade {@link Usuario}.
+ * Contém apenas o necessário para as páginas (id, nome, e-mail e role). O hash da senha só existe
+ * durante a autenticação e é apagado pelo Spring Security logo em seguida ({@link #eraseCredentials()}).
+ * A resposta de segurança nunca é carregada.
+ */
+public final class UsuarioPrincipal implements UserDetails, CredentialsContainer, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String nome;
+    private final String email;
+    private final String role;
+    private String senha;
+
+    public UsuarioPrincipal(Long id, String nome, String email, String role, String senha) {
+        this.id = id;
+        this.nome = nome;
+        this.email = email;
+        // Garante que novos usuários tenham a role "USER" por padrão se nenhuma for definida
+        this.role = role != null ? role : "ROLE_USER";
+        this.senha = senha;
+    }
+
+    /**
+     * Cria o principal a partir da entidade carregada do banco.
+     * @param usuario A entidade do usuário.
+     * @return O principal correspondente.
+     */
+    public static UsuarioPrincipal of(Usuario usuario) {
+        return new UsuarioPrincipal(usuario.getId(), usuario.getNome(), usuario.getEmail(), usuario.getRole(), usuario.getSenha());
+    }
+
+    /**
+     * Cria uma cópia deste principal com outro hash de senha.
+     * Cada autenticação recebe sua própria cópia, pois a original (em cache) não pode ter a senha apagada.
+     * @param senha O hash de senha.
+     * @return Uma nova instância com os mesmos dados.
+     */
+    public UsuarioPrincipal comSenha(String senha) {
+        return new UsuarioPrincipal(id, nome, email, role, senha);
+    }
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    // Métodos da interface UserDetails
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.singletonList(new SimpleGrantedAuthority(role));
+    }
+
+    @Override
+    public String getPassword() {
+        return senha;
+    }
+
+    @Override
+    public String getUsername() {
+        return email; // Usamos o email como nome de usuário
+    }
+
+    @Override
+    public boolean isAccountNonExpired() { return true; }
+    @Override
+    public boolean isAccountNonLocked() { return true; }
+    @Override
+    public boolean isCredentialsNonExpired() { return true; }
+    @Override
+    public boolean isEnabled() { return true; }
+
+    @Override
+    public void eraseCredentials() {
+        this.senha = null;
+    }
+
+    // O principal é comparado pelo e-mail (usado, por exemplo, no controle de sessões do Spring Security).
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof UsuarioPrincipal outro && email.equals(outro.email);
+    }
+
+    @Override
+    public int hashCode() {
+        return email.hashCode();
+    }
+}
@@ -0,0 +1,378 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.dto.CartaoNoticia;
+import com.carro.SobreRodas.model.Noticia;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache do HTML já renderizado das páginas públicas, servido aos visitantes anônimos
+ * (ver {@code CacheDePaginasFilter}). As páginas ficam comprimidas em gzip.
+ * <ul>
+ *   <li>Cada página guarda as dependências registradas pelo {@link NoticiaService} durante a renderização
+ *       (notícias exibidas, tags listadas, "mais recentes", pesquisa) e é descartada quando uma gravação
+ *       afeta alguma delas ({@link #invalidar(Noticia, boolean)}).</li>
+ *   <li>Falhas simultâneas para a mesma página são agrupadas: só a primeira requisição renderiza e as demais
+ *       esperam o resultado, o que evita uma avalanche de renderizações após uma invalidação ou quando
+ *       uma notícia viraliza.</li>
+ * </ul>
+ */
+@Service
+public class CacheDePaginas {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheDePaginas.class);
+
+    // Dependências registradas pelas consultas do NoticiaService.
+    static final String RECENTES = "recentes";
+    static final String PESQUISA = "pesquisa";
+    static final String PREFIXO_NOTICIA = "noticia:";
+    static final String PREFIXO_TAG = "tag:";
+    // Descarta todas as páginas (ex.: após a carga inicial ou um preenchimento em massa).
+    static final String TUDO = "*";
+
+    private static final ThreadLocal<Set<String>> COLETA = new ThreadLocal<>();
+
+    private final boolean habilitado;
+    private final long ttlNanos;
+    private final long esperaMaximaMs;
+
+    // Cache LRU (ordem de acesso) de páginas por chave (caminho + consulta).
+    private final Map<String, Pagina> paginas;
+    // Renderizações em andamento: quem chega depois espera o mesmo resultado.
+    private final ConcurrentHashMap<String, CompletableFuture<Pagina>> emAndamento = new ConcurrentHashMap<>();
+    // Incrementada a cada invalidação: uma página renderizada antes dela não é guardada.
+    private final AtomicLong geracao = new AtomicLong();
+
+    private final Counter acertos;
+    private final Counter falhas;
+    private final Counter agrupadas;
+    private final Counter invalidadas;
+
+    public CacheDePaginas(MeterRegistry meterRegistry,
+                          @Value("${cache.paginas.habilitado:true}") boolean habilitado,
+                          @Value("${cache.paginas.max-entradas:2000}") int maxEntradas,
+                          @Value("${cache.paginas.ttl-segundos:600}") long ttlSegundos,
+                          @Value("${cache.paginas.espera-maxima-ms:5000}") long esperaMaximaMs) {
+        this.habilitado = habilitado;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSegundos);
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.paginas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Pagina> eldest) {
+                return size() > maxEntradas;
+            }
+        };
+
+        this.acertos = Counter.builder("cache.paginas").tag("resultado", "acerto").register(meterRegistry);
+        this.falhas = Counter.builder("cache.paginas").tag("resultado", "falha").register(meterRegistry);
+        this.agrupadas = Counter.builder("cache.paginas").tag("resultado", "agrupada")
+                .description("Falhas que esperaram a renderização de outra requisição").register(meterRegistry);
+        this.invalidadas = Counter.builder("cache.paginas.invalidadas").register(meterRegistry);
+        Gauge.builder("cache.paginas.tamanho", this, CacheDePaginas::tamanho).register(meterRegistry);
+        Gauge.builder("cache.paginas.bytes", this, CacheDePaginas::bytes).baseUnit("bytes").register(meterRegistry);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Devolve a página em cache ou a renderiza. Se outra requisição já está renderizando a mesma chave,
+     * espera por ela (até cache.paginas.espera-maxima-ms) em vez de renderizar de novo.
+     * @param chave Caminho + consulta da página.
+     * @param renderizacao Renderiza a página e devolve o resultado, ou null se ela não pode ir para o cache
+     *                     (redirecionamento, erro, cookie de sessão...). Só é chamada na primeira falha.
+     * @return O resultado; se {@link Resultado#getPagina()} for null e a página não foi renderizada aqui,
+     *         a requisição deve ser atendida normalmente.
+     */
+    public Resultado obter(String chave, Renderizacao renderizacao) throws IOException, ServletException {
+        Pagina pagina = consultar(chave);
+        if (pagina != null) {
+            acertos.increment();
+            return new Resultado(pagina, false);
+        }
+
+        CompletableFuture<Pagina> minha = new CompletableFuture<>();
+        CompletableFuture<Pagina> outra = emAndamento.putIfAbsent(chave, minha);
+        if (outra != null) {
+            agrupadas.increment();
+            return new Resultado(aguardar(chave, outra), false);
+        }
+
+        falhas.increment();
+        long geracaoInicial = geracao.get();
+        Pagina renderizada = null;
+        try {
+            renderizada = renderizacao.renderizar();
+            if (renderizada != null) {
+                synchronized (paginas) {
+                    // Conferida junto com o put: uma invalidação muda a geração antes de pegar o lock,
+                    // então ou ela é vista aqui, ou remove a página logo depois.
+                    if (geracao.get() == geracaoInicial) {
+                        paginas.put(chave, renderizada);
+                    }
+                }
+            }
+            return new Resultado(renderizada, true);
+        } finally {
+            // Também em caso de exceção, para que quem espera renderize por conta própria.
+            minha.complete(renderizada);
+            emAndamento.remove(chave, minha);
+        }
+    }
+
+    private Pagina consultar(String chave) {
+        synchronized (paginas) {
+            Pagina pagina = paginas.get(chave);
+            if (pagina != null && System.nanoTime() - pagina.criadaEm >= ttlNanos) {
+                paginas.remove(chave);
+                return null;
+            }
+            return pagina;
+        }
+    }
+
+    private Pagina aguardar(String chave, CompletableFuture<Pagina> renderizacao) {
+        try {
+            return renderizacao.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Renderização de {} passou de {} ms; a requisição será atendida sem o cache.", chave, esperaMaximaMs);
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Descarta as páginas afetadas pela gravação de uma notícia: as que a exibem, as listas da sua tag
+     * e as pesquisas; se ela é nova, também as que mostram as mais recentes (home e "relacionadas").
+     * @param noticia A notícia criada, alterada ou excluída.
+     * @param nova Se a notícia acabou de ser criada.
+     */
+    public void invalidar(Noticia noticia, boolean nova) {
+        invalidar(dependenciasDe(noticia, nova));
+    }
+
+    /**
+     * As dependências afetadas pela gravação de uma notícia: ela mesma, a lista da sua tag, a pesquisa
+     * e, se for nova, as listas das mais recentes.
+     */
+    static Set<String> dependenciasDe(Noticia noticia, boolean nova) {
+        Set<String> afetadas = new HashSet<>();
+        afetadas.add(PESQUISA);
+        if (noticia.getId() != null) {
+            afetadas.add(PREFIXO_NOTICIA + noticia.getId());
+        }
+        if (noticia.getTag() != null) {
+            afetadas.add(PREFIXO_TAG + noticia.getTag());
+        }
+        if (nova) {
+            afetadas.add(RECENTES);
+        }
+        return afetadas;
+    }
+
+    /**
+     * Descarta as páginas que dependem de alguma das dependências informadas.
+     * @param dependencias Ex.: "noticia:42", "tag:Avaliação", "recentes", "pesquisa"; "*" descarta todas.
+     */
+    public void invalidar(Collection<String> dependencias) {
+        if (dependencias.contains(TUDO)) {
+            limpar();
+            return;
+        }
+        geracao.incrementAndGet();
+        // Uma operação em massa invalida centenas de notícias de uma vez: cada página confere as suas
+        // (poucas) dependências no conjunto, em vez de o conjunto inteiro ser conferido em cada página.
+        Set<String> alvos = dependencias instanceof Set<String> conjunto ? conjunto : new HashSet<>(dependencias);
+        int removidas = 0;
+        synchronized (paginas) {
+            var iterador = paginas.values().iterator();
+            while (iterador.hasNext()) {
+                Pagina pagina = iterador.next();
+                if (pagina.dependencias.stream().anyMatch(alvos::contains)) {
+                    iterador.remove();
+                    removidas++;
+                }
+            }
+        }
+        invalidadas.increment(removidas);
+    }
+
+    /**
+     * Descarta todas as páginas.
+     */
+    public void limpar() {
+        geracao.incrementAndGet();
+        synchronized (paginas) {
+            invalidadas.increment(paginas.size());
+            paginas.clear();
+        }
+    }
+
+    private int tamanho() {
+        synchronized (paginas) {
+            return paginas.size();
+        }
+    }
+
+    private long bytes() {
+        synchronized (paginas) {
+            return paginas.values().stream().mapToLong(pagina -> pagina.gzip.length).sum();
+        }
+    }
+
+    /**
+     * Começa a coletar, na thread atual, as dependências registradas durante a renderização de uma página.
+     * @return O conjunto que vai recebendo as dependências; feche a coleta com {@link #encerrarColeta()}.
+     */
+    public static Set<String> iniciarColeta() {
+        Set<String> dependencias = new HashSet<>();
+        COLETA.set(dependencias);
+        return dependencias;
+    }
+
+    public static void encerrarColeta() {
+        COLETA.remove();
+    }
+
+    /**
+     * Registra que a página sendo renderizada na thread atual depende de algo. Sem coleta aberta não faz nada.
+     */
+    static void depende(String dependencia) {
+        Set<String> dependencias = COLETA.get();
+        if (dependencias != null) {
+            dependencias.add(dependencia);
+        }
+    }
+
+    static void dependeDasTags(List<String> tags) {
+        tags.forEach(tag -> depende(PREFIXO_TAG + tag));
+    }
+
+    /**
+     * Registra as notícias devolvidas por uma consulta (uma notícia ou cartão, uma lista ou um Optional).
+     */
+    static void dependeDoResultado(Object resultado) {
+        if (COLETA.get() == null) {
+            return;
+        }
+        if (resultado instanceof Noticia noticia) {
+            depende(PREFIXO_NOTICIA + noticia.getId());
+        } else if (resultado instanceof CartaoNoticia cartao) {
+            depende(PREFIXO_NOTICIA + cartao.getId());
+        } else if (resultado instanceof Collection<?> lista) {
+            lista.forEach(CacheDePaginas::dependeDoResultado);
+        } else if (resultado instanceof Optional<?> opcional) {
+            opcional.ifPresent(CacheDePaginas::dependeDoResultado);
+        }
+    }
+
+    /**
+     * Renderiza uma página para o cache.
+     */
+    @FunctionalInterface
+    public interface Renderizacao {
+        Pagina renderizar() throws IOException, ServletException;
+    }
+
+    /**
+     * Resultado de {@link #obter}: a página (ou null) e se ela foi renderizada pela própria requisição.
+     */
+    public static final class Resultado {
+        private final Pagina pagina;
+        private final boolean renderizada;
+
+        private Resultado(Pagina pagina, boolean renderizada) {
+            this.pagina = pagina;
+            this.renderizada = renderizada;
+        }
+
+        public Pagina getPagina() { return pagina; }
+
+        /**
+         * @return true se a requisição atual renderizou a página (e já escreveu a resposta).
+         */
+        public boolean renderizada() { return renderizada; }
+    }
+
+    /**
+     * Uma página renderizada: status 200, cabeçalhos (exceto cookies) e corpo em gzip.
+     */
+    public static final class Pagina {
+        private final Map<String, List<String>> cabecalhos;
+        private final byte[] gzip;
+        private final Set<String> dependencias;
+        private final long criadaEm;
+
+        public Pagina(Map<String, List<String>> cabecalhos, byte[] corpo, Set<String> dependencias) {
+            this.cabecalhos = Map.copyOf(cabecalhos);
+            this.gzip = comprimir(corpo);
+            this.dependencias = Set.copyOf(dependencias);
+            this.criadaEm = System.nanoTime();
+        }
+
+        public Map<String, List<String>> getCabecalhos() { return cabecalhos; }
+
+        public String getCabecalho(String nome) {
+            for (Map.Entry<String, List<String>> cabecalho : cabecalhos.entrySet()) {
+                if (cabecalho.getKey().equalsIgnoreCase(nome) && !cabecalho.getValue().isEmpty()) {
+                    return cabecalho.getValue().get(0);
+                }
+            }
+            return null;
+        }
+
+        public byte[] getGzip() { return gzip; }
+
+        /**
+         * @return O corpo descomprimido, para clientes que não aceitam gzip.
+         */
+        public byte[] getCorpo() {
+            try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+                return entrada.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static byte[] comprimir(byte[] corpo) {
+            ByteArrayOutputStream saida = new ByteArrayOutputStream(Math.max(64, corpo.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+                gzip.write(corpo);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return saida.toByteArray();
+        }
+    }
+}
@@ -1,46 +1,154 @@
 package com.carro.SobreRodas.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.carro.SobreRodas.model.Usuario;
 import com.carro.SobreRodas.repository.UsuarioRepository;
+import com.carro.SobreRodas.security.UsuarioPrincipal;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Implementação customizada de UserDetailsService.
  * É usada pelo Spring Security para carregar os detalhes de um usuário a partir do banco de dados
  * durante o processo de autenticação.
+ * Os usuários carregados ficam num cache LRU limitado (com tempo de vida). Quando a senha muda, o usuário é
+ * descartado do cache de todos os nós depois do commit, pelo {@link RegistroDeAlteracoes}.
+ * Também implementa UserDetailsPasswordService, para que o Spring Security regrave o hash da senha
+ * após um login bem-sucedido quando o fator de custo do BCrypt foi aumentado.
  */
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     // Repositório para buscar dados do usuário.
     private final UsuarioRepository usuarioRepository;
 
+    // Cache LRU (ordem de acesso) de principais por e-mail; a entrada mais antiga é descartada ao passar do limite.
+    private final Map<String, EntradaCache> cache;
+    private final long ttlNanos;
+    // Incrementada a cada descarte: um usuário lido do banco antes dele não é guardado depois.
+    private final AtomicLong geracao = new AtomicLong();
+
+    private static final String PREFIXO = "usuario:";
+    private final RegistroDeAlteracoes registroDeAlteracoes;
+
+    private final Counter acertos;
+    private final Counter falhas;
+
     /**
      * Construtor para injeção de dependência do UsuarioRepository.
      * @param usuarioRepository O repositório de usuários.
+     * @param meterRegistry Registro de métricas (acertos e falhas do cache).
+     * @param registroDeAlteracoes Log de alterações, que leva a troca de senha aos outros nós.
+     * @param maxEntradas Número máximo de usuários mantidos no cache.
+     * @param ttlSegundos Tempo de vida de cada entrada do cache.
      */
     @Autowired
-    public CustomUserDetailsService(UsuarioRepository usuarioRepository) {
+    public CustomUserDetailsService(UsuarioRepository usuarioRepository, MeterRegistry meterRegistry,
+                                    RegistroDeAlteracoes registroDeAlteracoes,
+                                    @Value("${usuario.cache.max-entradas:10000}") int maxEntradas,
+                                    @Value("${usuario.cache.ttl-segundos:300}") long ttlSegundos) {
         this.usuarioRepository = usuarioRepository;
+        this.registroDeAlteracoes = registroDeAlteracoes;
+        this.ttlNanos = ttlSegundos * 1_000_000_000L;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EntradaCache> eldest) {
+                return size() > maxEntradas;
+            }
+        });
+
+        this.acertos = Counter.builder("cache.usuarios").tag("resultado", "acerto").register(meterRegistry);
+        this.falhas = Counter.builder("cache.usuarios").tag("resultado", "falha").register(meterRegistry);
+        Gauge.builder("cache.usuarios.tamanho", cache, Map::size).register(meterRegistry);
+        registroDeAlteracoes.ouvir(PREFIXO, id -> descartar(Long.parseLong(id)));
     }
 
     /**
      * Carrega os detalhes de um usuário pelo seu e-mail (usado como nome de usuário).
      * @param email O e-mail do usuário a ser autenticado.
-     * @return Um objeto UserDetails contendo as informações do usuário.
+     * @return Um {@link UsuarioPrincipal} com as informações do usuário.
      * @throws UsernameNotFoundException se o usuário não for encontrado.
      */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        EntradaCache entrada = cache.get(email);
+        if (entrada != null && System.nanoTime() - entrada.carregadoEm < ttlNanos) {
+            acertos.increment();
+            // Devolve uma cópia: o Spring Security apaga a senha do principal após a autenticação.
+            return entrada.principal.comSenha(entrada.principal.getPassword());
+        }
+
+        falhas.increment();
+        long geracaoLida = geracao.get();
         Usuario usuario = usuarioRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com o email: " + email));
-        
-        // Retorna o próprio objeto Usuario, pois ele já implementa a interface UserDetails.
-        return usuario;
+
+        UsuarioPrincipal principal = UsuarioPrincipal.of(usuario);
+        synchronized (cache) {
+            if (geracao.get() == geracaoLida) {
+                cache.put(email, new EntradaCache(principal));
+            }
+        }
+        return principal.comSenha(principal.getPassword());
+    }
+
+    /**
+     * Grava o novo hash de senha calculado pelo Spring Security após um login bem-sucedido
+     * cujo hash armazenado estava desatualizado.
+     * @param user O usuário autenticado.
+     * @param newPassword O novo hash (já codificado).
+     * @return O usuário com a senha atualizada.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Usuario usuario = usuarioRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com o email: " + user.getUsername()));
+        usuario.setSenha(newPassword);
+        usuarioRepository.save(usuario);
+        invalidar(usuario.getId());
+        return UsuarioPrincipal.of(usuario);
+    }
+
+    /**
+     * Descarta um usuário do cache de todos os nós (por exemplo, após a troca de senha). Deve ser chamado na
+     * transação da gravação: o descarte só acontece depois do commit, para que o hash antigo não seja relido
+     * e guardado de novo antes dele.
+     * @param usuarioId O id do usuário.
+     */
+    public void invalidar(Long usuarioId) {
+        registroDeAlteracoes.registrar(List.of(PREFIXO + usuarioId));
+    }
+
+    private void descartar(long usuarioId) {
+        synchronized (cache) {
+            geracao.incrementAndGet();
+            cache.values().removeIf(entrada -> entrada.principal.getId() == usuarioId);
+        }
+    }
+
+    private static final class EntradaCache {
+        private final UsuarioPrincipal principal;
+        private final long carregadoEm;
+
+        private EntradaCache(UsuarioPrincipal principal) {
+            this.principal = principal;
+            this.carregadoEm = System.nanoTime();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,222 @@
+package com.carro.SobreRodas.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Gravações do Java Flight Recorder sob demanda para diagnosticar lentidão em produção.
+ * <ul>
+ *   <li>Uma gravação contínua de baixo custo (perfil "default") mantém os últimos minutos em disco
+ *       e pode ser exportada depois de um incidente.</li>
+ *   <li>Uma gravação pontual, com duração limitada e perfil escolhido ("profile" coleta mais amostras),
+ *       para reproduzir um problema que está acontecendo agora. Ela roda em segundo plano (o próprio JFR a
+ *       encerra ao fim da duração) e é baixada depois, pelo id devolvido ao iniciá-la.</li>
+ * </ul>
+ */
+@Service
+public class DiagnosticoJfrService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiagnosticoJfrService.class);
+
+    // Perfis que acompanham a JDK: "default" (~1% de overhead) e "profile" (~2%, mais amostras e alocações).
+    private static final Set<String> PERFIS = Set.of("default", "profile");
+
+    private final boolean continuoHabilitado;
+    private final Duration continuoMaxIdade;
+    private final long continuoMaxBytes;
+    private final Duration duracaoMaxima;
+
+    private volatile Recording continua;
+    // A gravação pontual atual (em andamento ou esperando ser baixada); só uma por vez.
+    private GravacaoPontual pontual;
+
+    public DiagnosticoJfrService(@Value("${jfr.continuo.habilitado:true}") boolean continuoHabilitado,
+                                 @Value("${jfr.continuo.max-idade-minutos:15}") long maxIdadeMinutos,
+                                 @Value("${jfr.continuo.max-tamanho-mb:100}") long maxTamanhoMb,
+                                 @Value("${jfr.gravacao.max-segundos:300}") long maxSegundos) {
+        this.continuoHabilitado = continuoHabilitado;
+        this.continuoMaxIdade = Duration.ofMinutes(maxIdadeMinutos);
+        this.continuoMaxBytes = maxTamanhoMb * 1024 * 1024;
+        this.duracaoMaxima = Duration.ofSeconds(maxSegundos);
+    }
+
+    @PostConstruct
+    public void iniciarGravacaoContinua() {
+        if (!continuoHabilitado) {
+            return;
+        }
+        // Iniciar o JFR leva centenas de milissegundos; isso não precisa atrasar a inicialização da aplicação.
+        Thread thread = new Thread(this::abrirGravacaoContinua, "jfr-continuo");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void abrirGravacaoContinua() {
+        try {
+            Recording continua = new Recording(Configuration.getConfiguration("default"));
+            continua.setName("sobrerodas-continuo");
+            continua.setToDisk(true);
+            continua.setMaxAge(continuoMaxIdade);
+            continua.setMaxSize(continuoMaxBytes);
+            continua.start();
+            this.continua = continua;
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            // O JFR pode estar indisponível (ex.: JVM sem suporte); a aplicação segue sem a gravação contínua.
+            logger.warn("Não foi possível iniciar a gravação JFR contínua: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Exporta o conteúdo atual da gravação contínua (os últimos minutos).
+     * @return Um stream do arquivo .jfr, apagado ao ser fechado.
+     * @throws IllegalStateException se a gravação contínua estiver desligada.
+     */
+    public InputStream exportarContinua() throws IOException {
+        if (continua == null) {
+            throw new IllegalStateException("A gravação contínua está desabilitada (jfr.continuo.habilitado).");
+        }
+        return exportar(continua, "sobrerodas-continuo-");
+    }
+
+    /**
+     * Inicia uma gravação pontual e retorna sem esperar por ela; o JFR a encerra ao fim da duração. Só uma
+     * gravação pontual roda por vez; uma anterior já terminada e não baixada é descartada.
+     * @param perfil "default" ou "profile".
+     * @param duracao Duração da gravação (limitada a jfr.gravacao.max-segundos).
+     * @return A gravação iniciada; o id dela é usado para baixá-la.
+     * @throws IllegalArgumentException se o perfil ou a duração forem inválidos.
+     * @throws IllegalStateException se outra gravação pontual estiver em andamento.
+     */
+    public synchronized GravacaoPontual iniciar(String perfil, Duration duracao) {
+        if (!PERFIS.contains(perfil)) {
+            throw new IllegalArgumentException("Perfil JFR inválido: " + perfil + " (use default ou profile)");
+        }
+        if (duracao.isNegative() || duracao.isZero() || duracao.compareTo(duracaoMaxima) > 0) {
+            throw new IllegalArgumentException("A duração deve ser de 1 a " + duracaoMaxima.toSeconds() + " segundos.");
+        }
+        if (pontual != null && !pontual.isConcluida()) {
+            throw new IllegalStateException("Já existe uma gravação JFR em andamento.");
+        }
+        if (pontual != null) {
+            pontual.gravacao.close();
+        }
+
+        Recording gravacao;
+        try {
+            gravacao = new Recording(Configuration.getConfiguration(perfil));
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Perfil JFR inválido: " + perfil, e);
+        }
+        gravacao.setName("sobrerodas-" + perfil);
+        gravacao.setDuration(duracao);
+        try {
+            gravacao.start();
+        } catch (RuntimeException e) {
+            gravacao.close();
+            throw e;
+        }
+        logger.info("Gravação JFR iniciada (perfil {}, {} s)", perfil, duracao.toSeconds());
+        pontual = new GravacaoPontual(UUID.randomUUID().toString(), perfil, LocalDateTime.now().plus(duracao), gravacao);
+        return pontual;
+    }
+
+    /**
+     * @return A gravação pontual em andamento ou terminada e ainda não baixada, se houver.
+     */
+    public synchronized Optional<GravacaoPontual> getGravacaoPontual() {
+        return Optional.ofNullable(pontual);
+    }
+
+    /**
+     * Exporta uma gravação pontual terminada e a descarta.
+     * @param id O id devolvido por {@link #iniciar}.
+     * @return Um stream do arquivo .jfr, apagado ao ser fechado.
+     * @throws IllegalArgumentException se a gravação não existir (ou já tiver sido baixada).
+     * @throws IllegalStateException se a gravação ainda não terminou.
+     */
+    public synchronized InputStream baixar(String id) throws IOException {
+        if (pontual == null || !pontual.id.equals(id)) {
+            throw new IllegalArgumentException("Gravação JFR não encontrada; ela pode já ter sido baixada.");
+        }
+        if (!pontual.isConcluida()) {
+            throw new IllegalStateException("A gravação JFR ainda não terminou.");
+        }
+        try {
+            return exportar(pontual.gravacao, "sobrerodas-" + pontual.perfil + "-");
+        } finally {
+            pontual.gravacao.close();
+            pontual = null;
+        }
+    }
+
+    /**
+     * Copia a gravação para um arquivo temporário, apagado quando o stream for fechado (ou já aqui, se a
+     * cópia falhar).
+     */
+    private static InputStream exportar(Recording gravacao, String prefixo) throws IOException {
+        Path arquivo = Files.createTempFile(prefixo, ".jfr");
+        try {
+            gravacao.dump(arquivo);
+            return Files.newInputStream(arquivo, StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(arquivo);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void encerrar() {
+        if (continua != null) {
+            continua.close();
+        }
+        if (pontual != null) {
+            pontual.gravacao.close();
+        }
+    }
+
+    /**
+     * Uma gravação pontual; o id é o que permite baixá-la.
+     */
+    public static final class GravacaoPontual {
+        private final String id;
+        private final String perfil;
+        private final LocalDateTime terminaEm;
+        private final Recording gravacao;
+
+        private GravacaoPontual(String id, String perfil, LocalDateTime terminaEm, Recording gravacao) {
+            this.id = id;
+            this.perfil = perfil;
+            this.terminaEm = terminaEm;
+            this.gravacao = gravacao;
+        }
+
+        public String getId() { return id; }
+
+        public String getPerfil() { return perfil; }
+
+        public LocalDateTime getTerminaEm() { return terminaEm; }
+
+        public boolean isConcluida() {
+            return gravacao.getState() == RecordingState.STOPPED || gravacao.getState() == RecordingState.CLOSED;
+        }
+    }
+}
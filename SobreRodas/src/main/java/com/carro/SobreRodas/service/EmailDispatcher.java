@@ -0,0 +1,203 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.model.EmailOutbox;
+import com.carro.SobreRodas.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Esvazia a fila de saída de e-mails em segundo plano.
+ * A cada execução reserva um lote de e-mails prontos, envia todos por uma única conexão SMTP
+ * e registra o resultado de cada um: enviados, reagendados com backoff exponencial ou,
+ * em falhas permanentes / tentativas esgotadas, movidos para FALHOU (dead letter).
+ */
+@Component
+@ConditionalOnProperty(name = "spring.mail.host")
+public class EmailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    // Pendentes, ou reservados cuja reserva expirou.
+    private static final List<EmailOutbox.Status> PRONTOS = List.of(EmailOutbox.Status.PENDENTE, EmailOutbox.Status.ENVIANDO);
+
+    private final EmailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${spring.mail.username:}")
+    private String fromEmail;
+
+    private final int tamanhoLote;
+    private final int maxTentativas;
+    private final long backoffInicialSegundos;
+    private final long backoffMaximoSegundos;
+    private final long reservaSegundos;
+
+    private final Counter enviados;
+    private final Counter falhasTemporarias;
+    private final Counter falhasPermanentes;
+
+    public EmailDispatcher(EmailOutboxRepository outboxRepository, JavaMailSender mailSender,
+                           TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                           @Value("${email.outbox.tamanho-lote:50}") int tamanhoLote,
+                           @Value("${email.outbox.max-tentativas:8}") int maxTentativas,
+                           @Value("${email.outbox.backoff-inicial-segundos:30}") long backoffInicialSegundos,
+                           @Value("${email.outbox.backoff-maximo-segundos:3600}") long backoffMaximoSegundos,
+                           @Value("${email.outbox.reserva-segundos:300}") long reservaSegundos) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoLote = tamanhoLote;
+        this.maxTentativas = maxTentativas;
+        this.backoffInicialSegundos = backoffInicialSegundos;
+        this.backoffMaximoSegundos = backoffMaximoSegundos;
+        this.reservaSegundos = reservaSegundos;
+
+        this.enviados = Counter.builder("email.outbox.enviados").register(meterRegistry);
+        this.falhasTemporarias = Counter.builder("email.outbox.falhas").tag("tipo", "temporaria").register(meterRegistry);
+        this.falhasPermanentes = Counter.builder("email.outbox.falhas").tag("tipo", "permanente").register(meterRegistry);
+        Gauge.builder("email.outbox.pendentes", outboxRepository, r -> r.countByStatus(EmailOutbox.Status.PENDENTE))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Processa lotes até a fila de e-mails prontos ficar vazia.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.intervalo-ms:5000}")
+    public void despachar() {
+        while (despacharLote() == tamanhoLote) {
+            // Lote cheio: provavelmente há mais e-mails prontos.
+        }
+    }
+
+    /**
+     * Reserva, envia e registra o resultado de um lote.
+     * @return O número de e-mails processados no lote.
+     */
+    int despacharLote() {
+        List<EmailOutbox> lote = reservarLote();
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        SimpleMailMessage[] mensagens = lote.stream().map(this::criarMensagem).toArray(SimpleMailMessage[]::new);
+        Map<Object, Exception> falhas = Collections.emptyMap();
+        try {
+            // O JavaMailSenderImpl envia todas as mensagens de uma chamada pela mesma conexão SMTP.
+            mailSender.send(mensagens);
+        } catch (MailSendException e) {
+            falhas = e.getFailedMessages();
+            if (falhas.isEmpty()) {
+                // Falha de conexão: nenhuma mensagem foi enviada.
+                falhas = todasComErro(mensagens, e);
+            }
+        } catch (MailException e) {
+            falhas = todasComErro(mensagens, e);
+        }
+
+        Map<Object, Exception> falhasFinais = falhas;
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < lote.size(); i++) {
+                EmailOutbox email = lote.get(i);
+                Exception erro = falhasFinais.get(mensagens[i]);
+                if (erro == null) {
+                    email.marcarEnviado();
+                    enviados.increment();
+                } else {
+                    boolean permanente = isFalhaPermanente(erro);
+                    email.registrarFalha(erro.getMessage(), permanente, maxTentativas, proximaTentativa(email.getTentativas() + 1));
+                    (permanente ? falhasPermanentes : falhasTemporarias).increment();
+                    if (email.getStatus() == EmailOutbox.Status.FALHOU) {
+                        logger.error("E-mail {} para {} movido para FALHOU após {} tentativa(s): {}",
+                                email.getId(), email.getDestinatario(), email.getTentativas(), erro.getMessage());
+                    }
+                }
+            }
+            outboxRepository.saveAll(lote);
+        });
+        return lote.size();
+    }
+
+    private List<EmailOutbox> reservarLote() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime agora = LocalDateTime.now();
+            List<Long> ids = outboxRepository.findIdsProntos(PRONTOS, agora, PageRequest.of(0, tamanhoLote));
+            if (ids.isEmpty()) {
+                return Collections.<EmailOutbox>emptyList();
+            }
+            String lote = UUID.randomUUID().toString();
+            outboxRepository.reservar(ids, PRONTOS, EmailOutbox.Status.ENVIANDO, lote, agora, agora.plusSeconds(reservaSegundos));
+            return outboxRepository.findByLoteOrderById(lote);
+        });
+    }
+
+    private SimpleMailMessage criarMensagem(EmailOutbox email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        // Um remetente vazio não é um endereço válido; sem ele o JavaMail usa o remetente padrão da sessão.
+        if (fromEmail != null && !fromEmail.isBlank()) {
+            message.setFrom(fromEmail);
+        }
+        message.setTo(email.getDestinatario());
+        message.setSubject(email.getAssunto());
+        message.setText(email.getCorpo());
+        return message;
+    }
+
+    /**
+     * Backoff exponencial: backoffInicial * 2^(tentativa-1), limitado ao backoff máximo.
+     */
+    private LocalDateTime proximaTentativa(int tentativa) {
+        long atraso = backoffInicialSegundos << Math.min(tentativa - 1, 30);
+        return LocalDateTime.now().plusSeconds(Math.min(atraso, backoffMaximoSegundos));
+    }
+
+    /**
+     * Endereços inválidos ou mensagens malformadas nunca serão aceitos; as demais falhas
+     * (conexão, servidor indisponível, autenticação temporária) merecem nova tentativa.
+     */
+    private boolean isFalhaPermanente(Exception erro) {
+        if (erro instanceof MailParseException || erro instanceof AddressException) {
+            return true;
+        }
+        // Destinatário recusado pelo servidor (ex.: 550 mailbox inexistente).
+        if (erro instanceof SendFailedException sfe && sfe.getInvalidAddresses() != null && sfe.getInvalidAddresses().length > 0) {
+            return true;
+        }
+        if (erro instanceof MailAuthenticationException) {
+            return false;
+        }
+        return erro.getCause() instanceof AddressException;
+    }
+
+    private static Map<Object, Exception> todasComErro(SimpleMailMessage[] mensagens, Exception erro) {
+        Map<Object, Exception> falhas = new IdentityHashMap<>();
+        for (SimpleMailMessage mensagem : mensagens) {
+            falhas.put(mensagem, erro);
+        }
+        return falhas;
+    }
+}
@@ -0,0 +1,33 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.model.EmailOutbox;
+import com.carro.SobreRodas.repository.EmailOutboxRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Serviço que grava e-mails na fila de saída (outbox).
+ * A gravação participa da transação de quem chama, então o e-mail só existe se a operação
+ * que o originou for confirmada. O envio é feito depois pelo {@link EmailDispatcher}.
+ */
+@Service
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository outboxRepository;
+
+    public EmailOutboxService(EmailOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    /**
+     * Enfileira um e-mail de texto simples para envio.
+     * @param destinatario O e-mail do destinatário.
+     * @param assunto O assunto.
+     * @param corpo O corpo da mensagem.
+     * @return O registro gravado na fila.
+     */
+    @Transactional
+    public EmailOutbox enfileirar(String destinatario, String assunto, String corpo) {
+        return outboxRepository.save(new EmailOutbox(destinatario, assunto, corpo));
+    }
+}
@@ -1,22 +1,45 @@
 package com.carro.SobreRodas.service;
 
+import com.carro.SobreRodas.dto.ImagemArmazenada;
+import com.carro.SobreRodas.jfr.ArmazenamentoArquivoEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Base64;
 import java.util.UUID;
 
 @Service
+@Lazy
 public class FileStorageService {
 
+    // Lado maior (em pixels) do placeholder gerado para o carregamento progressivo das imagens.
+    private static final int PLACEHOLDER_LADO = 16;
+    // Tamanho da coluna Noticia.imagemPlaceholder; um placeholder maior é descartado.
+    private static final int PLACEHOLDER_MAX_CARACTERES = 2048;
+
     private final Path fileStorageLocation;
+    private final DistributionSummary tamanhoUploads;
+
+    public FileStorageService(MeterRegistry meterRegistry) {
+        this.tamanhoUploads = DistributionSummary.builder("uploads.tamanho")
+                .description("Tamanho dos arquivos enviados")
+                .baseUnit("bytes")
+                .register(meterRegistry);
 
-    public FileStorageService() {
         // Define o caminho da pasta onde as imagens serão salvas
         this.fileStorageLocation = Paths.get("uploads").toAbsolutePath().normalize();
 
@@ -49,11 +72,89 @@ public class FileStorageService {
 
             // Copia o arquivo para a pasta de destino
             Path targetLocation = this.fileStorageLocation.resolve(newFileName);
+            ArmazenamentoArquivoEvent evento = new ArmazenamentoArquivoEvent();
+            evento.begin();
             Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.arquivo = newFileName;
+                evento.bytes = file.getSize();
+                evento.commit();
+            }
+            tamanhoUploads.record(file.getSize());
 
             return newFileName;
         } catch (IOException ex) {
             throw new RuntimeException("Não foi possível armazenar o arquivo " + originalFileName + ". Por favor, tente novamente!", ex);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Salva a imagem enviada e extrai, uma única vez, as dimensões intrínsecas e um placeholder
+     * minúsculo em data URI. As páginas usam esses dados para reservar o espaço da imagem
+     * (evitando layout shift) e exibir uma prévia sem requisições extras.
+     * Formatos que o ImageIO não sabe ler (ex.: WebP) são salvos normalmente, mas sem metadados.
+     * @param file O arquivo de imagem enviado no formulário.
+     * @return O nome do arquivo gerado e os metadados da imagem.
+     */
+    public ImagemArmazenada storeImage(MultipartFile file) {
+        String fileName = storeFile(file);
+        Path arquivo = this.fileStorageLocation.resolve(fileName);
+
+        try {
+            BufferedImage imagem = ImageIO.read(arquivo.toFile());
+            if (imagem == null) {
+                return new ImagemArmazenada(fileName, null, null, null);
+            }
+            return new ImagemArmazenada(fileName, imagem.getWidth(), imagem.getHeight(), gerarPlaceholder(imagem));
+        } catch (IOException ex) {
+            // A imagem já foi salva; apenas os metadados ficam indisponíveis.
+            return new ImagemArmazenada(fileName, null, null, null);
+        }
+    }
+
+    /**
+     * Salva como JPEG uma imagem já decodificada (ex.: as geradas pelo GeradorDeCorpus), com os mesmos
+     * metadados de um upload. Um arquivo existente com o mesmo nome é substituído.
+     * @param imagem A imagem (RGB).
+     * @param fileName Nome do arquivo a criar na pasta de uploads.
+     * @return O nome do arquivo e os metadados da imagem.
+     */
+    public ImagemArmazenada storeImage(BufferedImage imagem, String fileName) {
+        Path destino = this.fileStorageLocation.resolve(fileName).normalize();
+        if (!destino.getParent().equals(this.fileStorageLocation)) {
+            throw new IllegalArgumentException("Nome de arquivo inválido: " + fileName);
+        }
+        try {
+            ImageIO.write(imagem, "jpg", destino.toFile());
+            tamanhoUploads.record(Files.size(destino));
+            return new ImagemArmazenada(fileName, imagem.getWidth(), imagem.getHeight(), gerarPlaceholder(imagem));
+        } catch (IOException ex) {
+            throw new RuntimeException("Não foi possível armazenar a imagem " + fileName, ex);
+        }
+    }
+
+    /**
+     * Reduz a imagem para poucos pixels (o lado maior com até {@value #PLACEHOLDER_LADO}) e a codifica como PNG
+     * em data URI (algumas centenas de bytes). Retorna null se ainda assim não couber na coluna.
+     */
+    private String gerarPlaceholder(BufferedImage imagem) throws IOException {
+        float escala = Math.min(1f, (float) PLACEHOLDER_LADO / Math.max(imagem.getWidth(), imagem.getHeight()));
+        int largura = Math.max(1, Math.round(imagem.getWidth() * escala));
+        int altura = Math.max(1, Math.round(imagem.getHeight() * escala));
+
+        BufferedImage miniatura = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = miniatura.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(imagem, 0, 0, largura, altura, null);
+        } finally {
+            g.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(miniatura, "png", out);
+        String placeholder = "data:image/png;base64," + Base64.getEncoder().encodeToString(out.toByteArray());
+        return placeholder.length() <= PLACEHOLDER_MAX_CARACTERES ? placeholder : null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.carro.SobreRodas.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limitador de taxa bloqueante, compartilhado entre várias threads de envio.
+ * Distribui as permissões em intervalos regulares (1 / taxa segundos), de modo que o total
+ * de mensagens por segundo nunca passe da taxa configurada, independentemente do número de threads.
+ */
+public class LimitadorDeTaxa {
+
+    private final long intervaloNanos;
+    private long proximaPermissao;
+
+    /**
+     * @param porSegundo O número máximo de permissões por segundo.
+     */
+    public LimitadorDeTaxa(double porSegundo) {
+        this.intervaloNanos = (long) (1_000_000_000L / porSegundo);
+        this.proximaPermissao = System.nanoTime();
+    }
+
+    /**
+     * Aguarda até que uma permissão esteja disponível.
+     * @throws InterruptedException se a thread for interrompida durante a espera.
+     */
+    public void adquirir() throws InterruptedException {
+        long espera;
+        synchronized (this) {
+            long agora = System.nanoTime();
+            // Permissões não usadas não se acumulam: após um período ocioso a taxa recomeça do zero.
+            if (proximaPermissao < agora) {
+                proximaPermissao = agora;
+            }
+            espera = proximaPermissao - agora;
+            proximaPermissao += intervaloNanos;
+        }
+        if (espera > 0) {
+            TimeUnit.NANOSECONDS.sleep(espera);
+        }
+    }
+}
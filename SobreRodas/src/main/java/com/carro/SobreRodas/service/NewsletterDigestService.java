@@ -0,0 +1,298 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.model.Assinante;
+import com.carro.SobreRodas.model.NewsletterEnvio;
+import com.carro.SobreRodas.repository.AssinanteRepository;
+import com.carro.SobreRodas.repository.NewsletterEnvioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gera e distribui o resumo semanal da newsletter.
+ * O conteúdo (as principais notícias) é renderizado uma única vez por edição e gravado em
+ * {@link NewsletterEnvio}. Os assinantes são percorridos em páginas por id; cada página é dividida
+ * em lotes enviados em paralelo (cada lote por uma única conexão SMTP), com a taxa total limitada
+ * a newsletter.envio.mensagens-por-segundo. Ao fim de cada página o checkpoint é gravado, de modo que
+ * uma queda no meio do envio reenvia no máximo uma página ao ser retomada.
+ * O agendamento roda em todos os nós: antes de enviar, cada um tenta assumir o lease do envio no banco
+ * (ver {@link NewsletterEnvioRepository#assumirLease}) e só o que conseguir envia. Se ele cair, o lease vence
+ * (newsletter.envio.lease-minutos) e outro nó retoma o envio do último checkpoint.
+ */
+@Service
+@ConditionalOnProperty(name = "spring.mail.host")
+public class NewsletterDigestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NewsletterDigestService.class);
+
+    // Marcador no conteúdo renderizado, trocado pelo link de cancelamento de cada assinante.
+    private static final String MARCADOR_CANCELAMENTO = "__LINK_CANCELAMENTO__";
+
+    private final AssinanteRepository assinanteRepository;
+    private final NewsletterEnvioRepository envioRepository;
+    private final NoticiaService noticiaService;
+    private final ITemplateEngine templateEngine;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService remetentes;
+    private final ExecutorService coordenador = Executors.newSingleThreadExecutor(r -> new Thread(r, "newsletter-coordenador"));
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+    // Identifica este nó como dono do lease dos envios.
+    private final String instancia = UUID.randomUUID().toString();
+    private final LimitadorDeTaxa limitador;
+
+    @Value("${spring.mail.username:}")
+    private String fromEmail;
+
+    private final String urlBase;
+    private final int tamanhoPagina;
+    private final int tamanhoLote;
+    private final int quantidadeNoticias;
+    private final Duration duracaoLease;
+
+    private final Counter enviados;
+    private final Counter falhas;
+
+    public NewsletterDigestService(AssinanteRepository assinanteRepository, NewsletterEnvioRepository envioRepository,
+                                   NoticiaService noticiaService, ITemplateEngine templateEngine, JavaMailSender mailSender,
+                                   TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                                   @Value("${newsletter.url-base:http://localhost:8080}") String urlBase,
+                                   @Value("${newsletter.envio.mensagens-por-segundo:50}") double mensagensPorSegundo,
+                                   @Value("${newsletter.envio.threads:4}") int threads,
+                                   @Value("${newsletter.envio.tamanho-pagina:1000}") int tamanhoPagina,
+                                   @Value("${newsletter.envio.tamanho-lote:25}") int tamanhoLote,
+                                   @Value("${newsletter.digest.quantidade-noticias:8}") int quantidadeNoticias,
+                                   @Value("${newsletter.envio.lease-minutos:5}") long leaseMinutos) {
+        this.assinanteRepository = assinanteRepository;
+        this.envioRepository = envioRepository;
+        this.noticiaService = noticiaService;
+        this.templateEngine = templateEngine;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.urlBase = urlBase;
+        this.tamanhoPagina = tamanhoPagina;
+        this.tamanhoLote = tamanhoLote;
+        this.quantidadeNoticias = quantidadeNoticias;
+        this.duracaoLease = Duration.ofMinutes(leaseMinutos);
+        this.limitador = new LimitadorDeTaxa(mensagensPorSegundo);
+        this.remetentes = Executors.newFixedThreadPool(threads, r -> new Thread(r, "newsletter-remetente"));
+
+        this.enviados = Counter.builder("newsletter.enviados").register(meterRegistry);
+        this.falhas = Counter.builder("newsletter.falhas").register(meterRegistry);
+    }
+
+    /**
+     * Dispara o resumo da semana corrente (a execução ocorre em segundo plano).
+     */
+    @Scheduled(cron = "${newsletter.digest.cron:0 0 8 * * MON}")
+    public void agendarDigestSemanal() {
+        LocalDate hoje = LocalDate.now();
+        String chave = hoje.get(IsoFields.WEEK_BASED_YEAR) + "-W" + hoje.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+        coordenador.submit(() -> executarComSeguranca(chave));
+    }
+
+    /**
+     * Na inicialização e depois periodicamente, retoma a partir do último checkpoint os envios interrompidos
+     * por uma queda (os que estão sem dono ou com o lease vencido).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${newsletter.envio.lease-minutos:5}",
+            fixedDelayString = "${newsletter.envio.lease-minutos:5}", timeUnit = TimeUnit.MINUTES)
+    public void retomarEnviosInterrompidos() {
+        LocalDateTime agora = LocalDateTime.now();
+        for (NewsletterEnvio envio : envioRepository.findByStatus(NewsletterEnvio.Status.EM_ANDAMENTO)) {
+            if (envio.getLeaseAte() != null && envio.getLeaseAte().isAfter(agora)) {
+                continue;
+            }
+            logger.info("Retomando envio da newsletter {} a partir do assinante {}", envio.getChave(), envio.getUltimoAssinanteId());
+            coordenador.submit(() -> executarComSeguranca(envio.getChave()));
+        }
+    }
+
+    private void executarComSeguranca(String chave) {
+        try {
+            executar(chave);
+        } catch (RuntimeException e) {
+            logger.error("Falha no envio da newsletter {}: {}", chave, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Executa (ou retoma) o envio de uma edição e só retorna quando ele termina.
+     * @param chave O identificador da edição.
+     * @return O estado final do envio.
+     */
+    public NewsletterEnvio executar(String chave) {
+        if (!emExecucao.compareAndSet(false, true)) {
+            throw new IllegalStateException("Já existe um envio da newsletter em andamento");
+        }
+        try {
+            NewsletterEnvio envio = envioRepository.findByChave(chave).orElseGet(() -> criarEnvio(chave));
+            if (envio.getStatus() == NewsletterEnvio.Status.EM_ANDAMENTO) {
+                if (!assumirLease(chave)) {
+                    logger.info("Newsletter {} já está sendo enviada por outro nó", chave);
+                    return envio;
+                }
+                envio = envioRepository.findByChave(chave).orElseThrow();
+            }
+            while (envio.getStatus() == NewsletterEnvio.Status.EM_ANDAMENTO) {
+                List<Assinante> pagina = assinanteRepository.findAtivosAposId(envio.getUltimoAssinanteId(), PageRequest.of(0, tamanhoPagina));
+                if (pagina.isEmpty()) {
+                    envio.concluir();
+                } else {
+                    long[] resultado = enviarPagina(envio, pagina);
+                    envio.avancar(pagina.get(pagina.size() - 1).getId(), resultado[0], resultado[1]);
+                }
+                envio.renovarLease(instancia, LocalDateTime.now().plus(duracaoLease));
+                NewsletterEnvio checkpoint = envio;
+                try {
+                    envio = transactionTemplate.execute(status -> envioRepository.save(checkpoint));
+                } catch (OptimisticLockingFailureException e) {
+                    // O lease venceu (ex.: uma pausa longa) e outro nó o assumiu: ele continua o envio.
+                    logger.warn("Lease da newsletter {} assumido por outro nó; envio interrompido neste nó", chave);
+                    return envio;
+                }
+            }
+            logger.info("Newsletter {} concluída: {} enviados, {} falhas", chave, envio.getEnviados(), envio.getFalhas());
+            return envio;
+        } finally {
+            emExecucao.set(false);
+        }
+    }
+
+    private boolean assumirLease(String chave) {
+        LocalDateTime agora = LocalDateTime.now();
+        Integer assumidos = transactionTemplate.execute(status -> envioRepository.assumirLease(chave,
+                NewsletterEnvio.Status.EM_ANDAMENTO, instancia, agora, agora.plus(duracaoLease)));
+        return assumidos != null && assumidos == 1;
+    }
+
+    /**
+     * Renderiza o conteúdo da edição uma única vez e grava o envio, já com o lease deste nó. Se outro nó
+     * criar a mesma edição ao mesmo tempo, a chave única recusa esta e o envio dele é usado.
+     */
+    private NewsletterEnvio criarEnvio(String chave) {
+        Context context = new Context();
+        context.setVariable("noticias", noticiaService.findUltimas(quantidadeNoticias));
+        context.setVariable("urlBase", urlBase);
+        context.setVariable("linkCancelamento", MARCADOR_CANCELAMENTO);
+        String conteudo = templateEngine.process("email/digest", context);
+
+        NewsletterEnvio envio = new NewsletterEnvio(chave, "Resumo da semana - SobreRodas", conteudo);
+        envio.renovarLease(instancia, LocalDateTime.now().plus(duracaoLease));
+        try {
+            return transactionTemplate.execute(status -> envioRepository.save(envio));
+        } catch (DataIntegrityViolationException e) {
+            return envioRepository.findByChave(chave).orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Divide a página em lotes e os envia em paralelo.
+     * @return {enviados, falhas}
+     */
+    private long[] enviarPagina(NewsletterEnvio envio, List<Assinante> pagina) {
+        List<Future<long[]>> futuros = new ArrayList<>();
+        for (int i = 0; i < pagina.size(); i += tamanhoLote) {
+            List<Assinante> lote = pagina.subList(i, Math.min(i + tamanhoLote, pagina.size()));
+            futuros.add(remetentes.submit(() -> enviarLote(envio, lote)));
+        }
+
+        long[] total = new long[2];
+        for (Future<long[]> futuro : futuros) {
+            try {
+                long[] parcial = futuro.get();
+                total[0] += parcial[0];
+                total[1] += parcial[1];
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Envio da newsletter interrompido", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Falha no envio de um lote da newsletter", e.getCause());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Envia um lote por uma única conexão SMTP, respeitando o limite de taxa global.
+     * @return {enviados, falhas}
+     */
+    private long[] enviarLote(NewsletterEnvio envio, List<Assinante> lote) throws InterruptedException, MessagingException {
+        MimeMessage[] mensagens = new MimeMessage[lote.size()];
+        for (int i = 0; i < lote.size(); i++) {
+            limitador.adquirir();
+            mensagens[i] = criarMensagem(envio, lote.get(i));
+        }
+
+        int comFalha = 0;
+        try {
+            mailSender.send(mensagens);
+        } catch (MailSendException e) {
+            comFalha = e.getFailedMessages().isEmpty() ? lote.size() : e.getFailedMessages().size();
+            logger.warn("{} e-mail(s) da newsletter {} falharam: {}", comFalha, envio.getChave(), e.getMessage());
+        } catch (MailException e) {
+            comFalha = lote.size();
+            logger.warn("Lote da newsletter {} falhou: {}", envio.getChave(), e.getMessage());
+        }
+
+        enviados.increment(lote.size() - comFalha);
+        falhas.increment(comFalha);
+        return new long[] {lote.size() - comFalha, comFalha};
+    }
+
+    private MimeMessage criarMensagem(NewsletterEnvio envio, Assinante assinante) throws MessagingException {
+        MimeMessage mensagem = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mensagem, false, StandardCharsets.UTF_8.name());
+        if (fromEmail != null && !fromEmail.isBlank()) {
+            helper.setFrom(fromEmail);
+        }
+        helper.setTo(assinante.getEmail());
+        helper.setSubject(envio.getAssunto());
+        String linkCancelamento = urlBase + "/newsletter/cancelar?token=" + assinante.getTokenCancelamento();
+        helper.setText(envio.getConteudo().replace(MARCADOR_CANCELAMENTO, linkCancelamento), true);
+        return mensagem;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        coordenador.shutdownNow();
+        remetentes.shutdownNow();
+    }
+}
@@ -0,0 +1,56 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.model.Assinante;
+import com.carro.SobreRodas.repository.AssinanteRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+
+/**
+ * Serviço que gerencia as assinaturas da newsletter.
+ */
+@Service
+public class NewsletterService {
+
+    private final AssinanteRepository assinanteRepository;
+
+    public NewsletterService(AssinanteRepository assinanteRepository) {
+        this.assinanteRepository = assinanteRepository;
+    }
+
+    /**
+     * Inscreve um e-mail na newsletter. Inscrever um e-mail já inscrito não tem efeito;
+     * um assinante que havia cancelado volta a ficar ativo.
+     * @param email O e-mail a ser inscrito.
+     * @return O assinante.
+     * @throws IllegalArgumentException se o e-mail estiver vazio ou for inválido.
+     */
+    @Transactional
+    public Assinante assinar(String email) {
+        if (email == null || !email.trim().matches("[^@\\s]+@[^@\\s]+\\.[^@\\s]+")) {
+            throw new IllegalArgumentException("E-mail inválido");
+        }
+        String normalizado = email.trim().toLowerCase(Locale.ROOT);
+
+        Assinante assinante = assinanteRepository.findByEmail(normalizado)
+                .orElseGet(() -> new Assinante(normalizado));
+        assinante.setAtivo(true);
+        return assinanteRepository.save(assinante);
+    }
+
+    /**
+     * Cancela a assinatura correspondente ao token do link de cancelamento.
+     * @param token O token de cancelamento.
+     * @return true se a assinatura foi encontrada e cancelada.
+     */
+    @Transactional
+    public boolean cancelar(String token) {
+        return assinanteRepository.findByTokenCancelamento(token)
+                .map(assinante -> {
+                    assinante.setAtivo(false);
+                    return true;
+                })
+                .orElse(false);
+    }
+}
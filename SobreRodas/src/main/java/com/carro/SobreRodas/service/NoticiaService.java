@@ -1,32 +1,69 @@
 package com.carro.SobreRodas.service;
 
+import com.carro.SobreRodas.dto.CarimboNoticias;
+import com.carro.SobreRodas.dto.CartaoNoticia;
+import com.carro.SobreRodas.dto.FiltroNoticias;
+import com.carro.SobreRodas.dto.GradeNoticias;
+import com.carro.SobreRodas.dto.LinhaNoticiaAdmin;
+import com.carro.SobreRodas.jfr.ConsultaNoticiaEvent;
 import com.carro.SobreRodas.model.Noticia;
 import com.carro.SobreRodas.repository.NoticiaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Serviço que encapsula a lógica de negócio para operações relacionadas a notícias.
  * Interage com o NoticiaRepository para buscar dados do banco.
+ * As consultas registram do que a página sendo renderizada depende e as gravações descartam
+ * as páginas afetadas do {@link CacheDePaginas}.
  */
 @Service
 public class NoticiaService {
 
+    // Colunas pelas quais a grade do admin pode ser ordenada (todas indexadas), pelo nome usado na URL.
+    private static final Map<String, String> ORDENACOES_DA_GRADE = Map.of(
+            "id", "id",
+            "titulo", "titulo",
+            "autor", "autor",
+            "tag", "tag",
+            "data", "dataPublicacao",
+            "modificada", "modificadoEm");
+    private static final int MAX_TAMANHO_DA_GRADE = 100;
+
     // Repositório para acesso aos dados das notícias.
     private final NoticiaRepository noticiaRepository;
+    private final RegistroDeAlteracoes registroDeAlteracoes;
+    private final RenderizadorDeConteudo renderizadorDeConteudo;
+    private final long limiteContagemDaGrade;
 
     /**
      * Construtor para injeção de dependência do NoticiaRepository.
      * @param noticiaRepository O repositório de notícias.
+     * @param registroDeAlteracoes Registra cada gravação, para invalidar o cache de páginas de todos os nós.
+     * @param renderizadorDeConteudo Converte o conteúdo em HTML na gravação.
+     * @param limiteContagemDaGrade Até quantas notícias a grade do admin conta antes de exibir "mais de".
      */
     @Autowired
-    public NoticiaService(NoticiaRepository noticiaRepository) {
+    public NoticiaService(NoticiaRepository noticiaRepository, RegistroDeAlteracoes registroDeAlteracoes,
+                          RenderizadorDeConteudo renderizadorDeConteudo,
+                          @Value("${admin.grade.limite-contagem:10000}") long limiteContagemDaGrade) {
         this.noticiaRepository = noticiaRepository;
+        this.registroDeAlteracoes = registroDeAlteracoes;
+        this.renderizadorDeConteudo = renderizadorDeConteudo;
+        this.limiteContagemDaGrade = limiteContagemDaGrade;
     }
 
     /**
@@ -34,7 +71,7 @@ public class NoticiaService {
      * @return Uma lista de todas as notícias.
      */
     public List<Noticia> findAll() {
-        return noticiaRepository.findAll();
+        return consultar("findAll", noticiaRepository::findAll);
     }
 
     /**
@@ -43,7 +80,7 @@ public class NoticiaService {
      * @return Um Optional contendo a notícia se encontrada, ou vazio caso contrário.
      */
     public Optional<Noticia> findById(Long id) {
-        return noticiaRepository.findById(id);
+        return consultar("findById", () -> noticiaRepository.findById(id));
     }
 
     /**
@@ -51,7 +88,18 @@ public class NoticiaService {
      * @return Uma lista com as 3 notícias mais recentes.
      */
     public List<Noticia> findLatest3() {
-        return noticiaRepository.findTop3ByOrderByIdDesc();
+        CacheDePaginas.depende(CacheDePaginas.RECENTES);
+        return consultar("findLatest3", noticiaRepository::findTop3ByOrderByIdDesc);
+    }
+
+    /**
+     * Busca as notícias mais recentes.
+     * @param quantidade O número máximo de notícias.
+     * @return Uma lista com as notícias mais recentes primeiro.
+     */
+    public List<Noticia> findUltimas(int quantidade) {
+        CacheDePaginas.depende(CacheDePaginas.RECENTES);
+        return consultar("findUltimas", () -> noticiaRepository.findByOrderByIdDesc(PageRequest.of(0, quantidade)));
     }
 
     /**
@@ -60,7 +108,8 @@ public class NoticiaService {
      */
     public Optional<Noticia> findDestaque() {
         // A notícia de destaque é simplesmente a mais recente do banco de dados.
-        return noticiaRepository.findFirstByOrderByIdDesc();
+        CacheDePaginas.depende(CacheDePaginas.RECENTES);
+        return consultar("findDestaque", noticiaRepository::findFirstByOrderByIdDesc);
     }
 
     /**
@@ -69,7 +118,8 @@ public class NoticiaService {
      */
     public List<Noticia> findUltimasNoticias() {
         // Busca as 4 mais recentes e remove a primeira (que é o destaque)
-        List<Noticia> recentes = noticiaRepository.findTop4ByOrderByIdDesc();
+        CacheDePaginas.depende(CacheDePaginas.RECENTES);
+        List<Noticia> recentes = consultar("findUltimasNoticias", noticiaRepository::findTop4ByOrderByIdDesc);
         if (recentes.size() > 1) {
             // Retorna uma sublista a partir do segundo elemento até o fim.
             return recentes.subList(1, recentes.size());
@@ -85,7 +135,9 @@ public class NoticiaService {
     public List<Noticia> findMaisLidas() {
         // Em um sistema real, isso seria baseado em um contador de views.
         // Como simulação, buscamos as 3 mais recentes com a tag principal "Automotivo".
-        return noticiaRepository.findTop3ByTagInOrderByIdDesc(Arrays.asList("Automotivo"));
+        List<String> tags = Arrays.asList("Automotivo");
+        CacheDePaginas.dependeDasTags(tags);
+        return consultar("findMaisLidas", () -> noticiaRepository.findTop3ByTagInOrderByIdDesc(tags));
     }
 
     /**
@@ -94,7 +146,9 @@ public class NoticiaService {
      */
     public List<Noticia> findTestesEAvaliacoes() {
         // Busca as 2 notícias mais recentes com a tag "Avaliação".
-        return noticiaRepository.findTop2ByTagInOrderByIdDesc(Arrays.asList("Avaliação"));
+        List<String> tags = Arrays.asList("Avaliação");
+        CacheDePaginas.dependeDasTags(tags);
+        return consultar("findTestesEAvaliacoes", () -> noticiaRepository.findTop2ByTagInOrderByIdDesc(tags));
     }
 
     /**
@@ -103,7 +157,9 @@ public class NoticiaService {
      */
     public List<Noticia> findComparativosHome() {
         // Busca os 2 comparativos mais recentes com a tag "Comparativos".
-        return noticiaRepository.findTop2ByTagInOrderByIdDesc(Arrays.asList("Comparativos"));
+        List<String> tags = Arrays.asList("Comparativos");
+        CacheDePaginas.dependeDasTags(tags);
+        return consultar("findComparativosHome", () -> noticiaRepository.findTop2ByTagInOrderByIdDesc(tags));
     }
 
     /**
@@ -112,7 +168,8 @@ public class NoticiaService {
      * @return Uma lista de notícias que correspondem a qualquer uma das tags.
      */
     public List<Noticia> findByTags(List<String> tags) {
-        return noticiaRepository.findByTagIn(tags);
+        CacheDePaginas.dependeDasTags(tags);
+        return consultar("findByTags", () -> noticiaRepository.findByTagIn(tags));
     }
 
     /**
@@ -121,23 +178,130 @@ public class NoticiaService {
      * @return Uma lista de notícias que correspondem ao termo.
      */
     public List<Noticia> search(String termo) {
-        return noticiaRepository.findByTituloContainingIgnoreCaseOrResumoContainingIgnoreCase(termo, termo);
+        // Qualquer gravação pode mudar o resultado de uma pesquisa.
+        CacheDePaginas.depende(CacheDePaginas.PESQUISA);
+        return consultar("search", () -> noticiaRepository.findByTituloContainingIgnoreCaseOrResumoContainingIgnoreCase(termo, termo));
+    }
+
+    /**
+     * Cartões das notícias com alguma das tags, lidos em páginas à medida que o stream é consumido.
+     * @param tags A lista de tags a serem pesquisadas.
+     * @return Um stream que lê uma página do banco de cada vez.
+     */
+    public Stream<CartaoNoticia> streamCartoesPorTags(List<String> tags) {
+        CacheDePaginas.dependeDasTags(tags);
+        return noticiaRepository.streamCartoesPorTags(tags).peek(CacheDePaginas::dependeDoResultado);
+    }
+
+    /**
+     * Cartões das notícias cujo título ou resumo contenham o termo, lidos em páginas (mesmo critério de {@link #search}).
+     * @param termo O texto a ser pesquisado.
+     * @return Um stream que lê uma página do banco de cada vez.
+     */
+    public Stream<CartaoNoticia> streamCartoesPorTermo(String termo) {
+        CacheDePaginas.depende(CacheDePaginas.PESQUISA);
+        return noticiaRepository.streamCartoesPorTermo(termo).peek(CacheDePaginas::dependeDoResultado);
+    }
+
+    /**
+     * Carimbo (total e última modificação) de todas as notícias, para validar o cache das páginas
+     * que dependem do conjunto inteiro (home, notícia com "relacionadas", pesquisa).
+     * @return O carimbo atual.
+     */
+    public CarimboNoticias carimbo() {
+        return consultar("carimbo", noticiaRepository::carimbo);
+    }
+
+    /**
+     * Carimbo (total e última modificação) das notícias com alguma das tags.
+     * @param tags As tags da página.
+     * @return O carimbo atual.
+     */
+    public CarimboNoticias carimboPorTags(List<String> tags) {
+        return consultar("carimboPorTags", () -> noticiaRepository.carimboPorTags(tags));
+    }
+
+    /**
+     * Uma página da grade do admin: só as colunas da listagem (nunca o conteúdo), filtradas e ordenadas no banco.
+     * @param filtro Os filtros preenchidos (os vazios são ignorados).
+     * @param pagina O número da página, começando em 0.
+     * @param tamanho Linhas por página (limitado a 100).
+     * @param ordenar A coluna: id, titulo, autor, tag, data ou modificada; outro valor ordena por id.
+     * @param crescente true para ordem crescente.
+     * @return A página, com o total contado até admin.grade.limite-contagem.
+     */
+    public GradeNoticias grade(FiltroNoticias filtro, int pagina, int tamanho, String ordenar, boolean crescente) {
+        int tamanhoValido = Math.max(1, Math.min(tamanho, MAX_TAMANHO_DA_GRADE));
+        int paginaValida = Math.max(0, pagina);
+        String propriedade = ORDENACOES_DA_GRADE.getOrDefault(ordenar, "id");
+        Sort ordem = Sort.by(crescente ? Sort.Direction.ASC : Sort.Direction.DESC, propriedade);
+
+        List<LinhaNoticiaAdmin> linhas = consultar("grade",
+                () -> noticiaRepository.buscarGrade(filtro, PageRequest.of(paginaValida, tamanhoValido, ordem)));
+        long contadas = consultar("contarGrade", () -> noticiaRepository.contarGradeAte(filtro, limiteContagemDaGrade));
+        boolean exato = contadas <= limiteContagemDaGrade;
+        return new GradeNoticias(linhas, paginaValida, tamanhoValido,
+                exato ? contadas : limiteContagemDaGrade, exato);
+    }
+
+    /**
+     * Tags existentes, para o filtro da grade do admin.
+     * @return As tags em ordem alfabética.
+     */
+    public List<String> findTags() {
+        return consultar("findTags", noticiaRepository::findTags);
     }
 
     /**
      * Salva (cria ou atualiza) uma notícia no banco de dados.
+     * O conteúdo (Markdown) é convertido em HTML sanitizado aqui, junto com as palavras, o tempo de leitura e,
+     * se estiver vazio, o resumo; a página da notícia só exibe o resultado gravado.
+     * A alteração é registrada na mesma transação, para os outros nós descartarem as páginas afetadas.
      * @param noticia A notícia a ser salva.
      * @return A notícia salva.
+     * @throws org.springframework.dao.OptimisticLockingFailureException se a notícia foi alterada por outra
+     *         pessoa depois que a versão informada foi lida.
      */
+    @Transactional
     public Noticia save(Noticia noticia) {
-        return noticiaRepository.save(noticia);
+        boolean nova = noticia.getId() == null;
+        renderizadorDeConteudo.aplicar(noticia);
+        Noticia salva = noticiaRepository.save(noticia);
+        registroDeAlteracoes.registrar(CacheDePaginas.dependenciasDe(salva, nova));
+        return salva;
     }
 
     /**
      * Deleta uma notícia pelo seu ID.
      * @param id O ID da notícia a ser deletada.
      */
+    @Transactional
     public void deleteById(Long id) {
         noticiaRepository.deleteById(id);
+        // As listas que a exibiam dependem dela; as demais não mudam.
+        registroDeAlteracoes.registrar(List.of(CacheDePaginas.PREFIXO_NOTICIA + id, CacheDePaginas.PESQUISA));
+    }
+
+    /**
+     * Executa uma consulta emitindo um evento JFR (ConsultaNoticia) com a operação e o número de resultados.
+     * Com o JFR desligado o evento não é registrado e o custo é desprezível.
+     * As notícias devolvidas entram nas dependências da página sendo renderizada, se houver uma.
+     */
+    private <T> T consultar(String operacao, Supplier<T> consulta) {
+        ConsultaNoticiaEvent evento = new ConsultaNoticiaEvent();
+        evento.begin();
+        T resultado = consulta.get();
+        evento.end();
+        CacheDePaginas.dependeDoResultado(resultado);
+        if (evento.shouldCommit()) {
+            evento.operacao = operacao;
+            if (resultado instanceof Collection<?> lista) {
+                evento.resultados = lista.size();
+            } else if (resultado instanceof Optional<?> opcional) {
+                evento.resultados = opcional.isPresent() ? 1 : 0;
+            }
+            evento.commit();
+        }
+        return resultado;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,323 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.dto.FiltroNoticias;
+import com.carro.SobreRodas.repository.NoticiaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Operações do admin sobre muitas notícias de uma vez (trocar tag, trocar autor, republicar, excluir),
+ * aplicadas às notícias marcadas na grade ou a todas as de um filtro.
+ * <p>
+ * Cada operação roda em segundo plano, um lote de ids por vez (admin.massa.tamanho-lote): um único UPDATE ou
+ * DELETE por lote, na sua própria transação curta, seguido de uma única invalidação do {@link CacheDePaginas}
+ * com as páginas do lote. Um erro no meio preserva os lotes já concluídos. As operações são executadas uma
+ * por vez, na ordem em que foram pedidas; o progresso das últimas fica disponível em {@link #progresso(String)}.
+ * É criado só no primeiro acesso, junto com o AdminController.
+ */
+@Service
+@Lazy
+public class OperacoesEmMassaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperacoesEmMassaService.class);
+
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    // Quantas operações têm o progresso guardado (as mais antigas são esquecidas).
+    private static final int OPERACOES_GUARDADAS = 20;
+    // Tamanho das colunas tag e autor.
+    private static final int MAX_TAMANHO_VALOR = 255;
+
+    public enum Tipo {
+        TROCAR_TAG("Trocar tag", true),
+        TROCAR_AUTOR("Trocar autor", true),
+        REPUBLICAR("Republicar com a data de hoje", false),
+        EXCLUIR("Excluir", false);
+
+        private final String descricao;
+        private final boolean exigeValor;
+
+        Tipo(String descricao, boolean exigeValor) {
+            this.descricao = descricao;
+            this.exigeValor = exigeValor;
+        }
+
+        public String getDescricao() { return descricao; }
+
+        public boolean isExigeValor() { return exigeValor; }
+    }
+
+    public enum Status { AGUARDANDO, EM_ANDAMENTO, CONCLUIDA, FALHOU }
+
+    /**
+     * Progresso de uma operação, atualizado pela thread que a executa e lido pela página de acompanhamento.
+     */
+    public static class Progresso {
+        private final String id;
+        private final Tipo tipo;
+        private final String valor;
+        private final Instant criadaEm = Instant.now();
+        private volatile Status status = Status.AGUARDANDO;
+        private volatile long total = -1;
+        private volatile long processadas;
+        private volatile long alteradas;
+        private volatile String erro;
+        private volatile Instant concluidaEm;
+
+        Progresso(Tipo tipo, String valor) {
+            this.id = UUID.randomUUID().toString();
+            this.tipo = tipo;
+            this.valor = valor;
+        }
+
+        // Getters
+        public String getId() { return id; }
+
+        public Tipo getTipo() { return tipo; }
+
+        public String getValor() { return valor; }
+
+        public Instant getCriadaEm() { return criadaEm; }
+
+        public Status getStatus() { return status; }
+
+        /**
+         * @return O número de notícias a processar, ou -1 enquanto ainda não foram contadas.
+         */
+        public long getTotal() { return total; }
+
+        /**
+         * @return Quantas notícias dos lotes concluídos foram percorridas.
+         */
+        public long getProcessadas() { return processadas; }
+
+        /**
+         * @return Quantas linhas foram de fato alteradas ou excluídas (notícias excluídas por outra pessoa no meio
+         *         do caminho não contam).
+         */
+        public long getAlteradas() { return alteradas; }
+
+        public String getErro() { return erro; }
+
+        public Instant getConcluidaEm() { return concluidaEm; }
+
+        public boolean isEmAndamento() { return status == Status.AGUARDANDO || status == Status.EM_ANDAMENTO; }
+
+        public int getPercentual() {
+            long totalConhecido = total;
+            if (status == Status.CONCLUIDA) {
+                return 100;
+            }
+            return totalConhecido <= 0 ? 0 : (int) Math.min(100, processadas * 100 / totalConhecido);
+        }
+    }
+
+    private final NoticiaRepository noticiaRepository;
+    private final RegistroDeAlteracoes registroDeAlteracoes;
+    private final TransactionTemplate transacao;
+    private final MeterRegistry meterRegistry;
+    private final int tamanhoLote;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "operacoes-em-massa"));
+    private final Map<String, Progresso> operacoes = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Progresso> maisAntiga) {
+            return size() > OPERACOES_GUARDADAS;
+        }
+    };
+
+    public OperacoesEmMassaService(NoticiaRepository noticiaRepository, RegistroDeAlteracoes registroDeAlteracoes,
+                                   PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                   @Value("${admin.massa.tamanho-lote:500}") int tamanhoLote) {
+        this.noticiaRepository = noticiaRepository;
+        this.registroDeAlteracoes = registroDeAlteracoes;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Agenda a operação sobre as notícias informadas.
+     * @param tipo A operação.
+     * @param valor A nova tag ou o novo autor (ignorado nas demais operações).
+     * @param ids As notícias marcadas.
+     * @return O progresso, para acompanhamento.
+     * @throws IllegalArgumentException se nenhuma notícia foi marcada ou o valor é inválido.
+     */
+    public Progresso agendar(Tipo tipo, String valor, Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Marque ao menos uma notícia.");
+        }
+        long[] ordenados = ids.stream().mapToLong(Long::longValue).distinct().sorted().toArray();
+        return agendar(tipo, valor, () -> (long) ordenados.length, aposId -> proximoLote(ordenados, aposId));
+    }
+
+    /**
+     * Valida a operação e conta as notícias do filtro, para o admin confirmar quantas serão alteradas antes de
+     * {@link #agendar(Tipo, String, FiltroNoticias, long)}.
+     * @return O número de notícias do filtro.
+     * @throws IllegalArgumentException se a operação ou o valor é inválido.
+     */
+    public long contar(Tipo tipo, String valor, FiltroNoticias filtro) {
+        validar(tipo, valor);
+        return noticiaRepository.contarGrade(filtro);
+    }
+
+    /**
+     * Agenda a operação sobre todas as notícias do filtro, percorridas em lotes pela chave primária.
+     * Notícias que passarem a atender o filtro durante a execução podem ou não ser incluídas.
+     * @param tipo A operação.
+     * @param valor A nova tag ou o novo autor (ignorado nas demais operações).
+     * @param filtro O filtro da grade.
+     * @param confirmadas O número de notícias exibido na confirmação (ver {@link #contar}).
+     * @return O progresso, para acompanhamento.
+     * @throws IllegalArgumentException se o valor é inválido ou o filtro não seleciona mais o número confirmado.
+     */
+    public Progresso agendar(Tipo tipo, String valor, FiltroNoticias filtro, long confirmadas) {
+        long selecionadas = contar(tipo, valor, filtro);
+        if (selecionadas != confirmadas) {
+            throw new IllegalArgumentException("O filtro agora seleciona " + selecionadas + " notícia(s), e não "
+                    + confirmadas + ". Confira a grade e confirme de novo.");
+        }
+        return agendar(tipo, valor, () -> selecionadas,
+                aposId -> noticiaRepository.idsDaGrade(filtro, aposId, tamanhoLote));
+    }
+
+    /**
+     * @return O progresso de uma das últimas operações agendadas.
+     */
+    public Optional<Progresso> progresso(String id) {
+        synchronized (operacoes) {
+            return Optional.ofNullable(operacoes.get(id));
+        }
+    }
+
+    private Progresso agendar(Tipo tipo, String valor, LongSupplier contar, LongFunction<List<Long>> lotes) {
+        Progresso progresso = new Progresso(tipo, validar(tipo, valor));
+        synchronized (operacoes) {
+            operacoes.put(progresso.id, progresso);
+        }
+        executor.submit(() -> executar(progresso, contar, lotes));
+        return progresso;
+    }
+
+    /**
+     * @return O valor sem espaços nas pontas, ou null se a operação não usa valor.
+     */
+    private static String validar(Tipo tipo, String valor) {
+        if (tipo == null) {
+            throw new IllegalArgumentException("Escolha a operação.");
+        }
+        String valorValido = null;
+        if (tipo.isExigeValor()) {
+            if (valor == null || valor.isBlank()) {
+                throw new IllegalArgumentException("Informe o novo valor para \"" + tipo.getDescricao() + "\".");
+            }
+            valorValido = valor.trim();
+            if (valorValido.length() > MAX_TAMANHO_VALOR) {
+                throw new IllegalArgumentException("O valor pode ter no máximo " + MAX_TAMANHO_VALOR + " caracteres.");
+            }
+        }
+        return valorValido;
+    }
+
+    private void executar(Progresso progresso, LongSupplier contar, LongFunction<List<Long>> lotes) {
+        progresso.status = Status.EM_ANDAMENTO;
+        try {
+            progresso.total = contar.getAsLong();
+            long ultimoId = 0;
+            List<Long> lote;
+            do {
+                lote = lotes.apply(ultimoId);
+                if (!lote.isEmpty()) {
+                    progresso.alteradas += aplicar(progresso.tipo, progresso.valor, lote);
+                    progresso.processadas += lote.size();
+                    ultimoId = lote.get(lote.size() - 1);
+                }
+            } while (lote.size() == tamanhoLote);
+            progresso.status = Status.CONCLUIDA;
+            logger.info("Operação em massa {} ({}) concluída: {} notícias alteradas", progresso.id, progresso.tipo,
+                    progresso.alteradas);
+        } catch (RuntimeException e) {
+            progresso.erro = e.getMessage();
+            progresso.status = Status.FALHOU;
+            logger.error("Falha na operação em massa {} ({}) após {} notícias: {}", progresso.id, progresso.tipo,
+                    progresso.processadas, e.getMessage(), e);
+        } finally {
+            progresso.concluidaEm = Instant.now();
+        }
+    }
+
+    /**
+     * Aplica a operação a um lote (um comando, uma transação) e registra a alteração na mesma transação:
+     * as páginas afetadas são descartadas de uma só vez, em todos os nós.
+     * @return O número de linhas alteradas.
+     */
+    private int aplicar(Tipo tipo, String valor, List<Long> lote) {
+        Integer alteradas = transacao.execute(status -> aplicarNaTransacao(tipo, valor, lote));
+        meterRegistry.counter("admin.operacoes-em-massa.noticias", "tipo", tipo.name()).increment(alteradas);
+        return alteradas;
+    }
+
+    private int aplicarNaTransacao(Tipo tipo, String valor, List<Long> lote) {
+        Instant agora = Instant.now();
+        Set<String> afetadas = new HashSet<>();
+        int alteradas = switch (tipo) {
+            case TROCAR_TAG -> {
+                // As listas da tag antiga dependem das próprias notícias; as da nova passam a incluí-las.
+                afetadas.add(CacheDePaginas.PREFIXO_TAG + valor);
+                yield noticiaRepository.atualizarTag(lote, valor, agora);
+            }
+            case TROCAR_AUTOR -> noticiaRepository.atualizarAutor(lote, valor, agora);
+            case REPUBLICAR -> {
+                LocalDate hoje = LocalDate.now();
+                yield noticiaRepository.republicar(lote, hoje.format(FORMATO_DATA), hoje, agora);
+            }
+            case EXCLUIR -> {
+                afetadas.add(CacheDePaginas.PESQUISA);
+                yield noticiaRepository.deleteByIdIn(lote);
+            }
+        };
+        lote.forEach(id -> afetadas.add(CacheDePaginas.PREFIXO_NOTICIA + id));
+        registroDeAlteracoes.registrar(afetadas);
+        return alteradas;
+    }
+
+    /**
+     * O próximo lote de uma seleção já ordenada: os ids maiores que {@code aposId}.
+     */
+    private List<Long> proximoLote(long[] ordenados, long aposId) {
+        int inicio = Arrays.binarySearch(ordenados, aposId);
+        inicio = inicio >= 0 ? inicio + 1 : -inicio - 1;
+        int fim = Math.min(inicio + tamanhoLote, ordenados.length);
+        return Arrays.stream(ordenados, inicio, fim).boxed().toList();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+}
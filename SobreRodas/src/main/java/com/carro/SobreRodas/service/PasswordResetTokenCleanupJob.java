@@ -0,0 +1,51 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.repository.PasswordResetTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Remove periodicamente os tokens de redefinição de senha expirados, em lotes de tamanho limitado
+ * (cada lote em sua própria transação curta), para que a tabela não cresça indefinidamente.
+ */
+@Component
+public class PasswordResetTokenCleanupJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordResetTokenCleanupJob.class);
+
+    private final PasswordResetTokenRepository tokenRepository;
+    private final int tamanhoLote;
+
+    public PasswordResetTokenCleanupJob(PasswordResetTokenRepository tokenRepository,
+                                        @Value("${token.limpeza.tamanho-lote:500}") int tamanhoLote) {
+        this.tokenRepository = tokenRepository;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Apaga os tokens expirados, um lote por vez, até não restar nenhum.
+     */
+    @Scheduled(cron = "${token.limpeza.cron:0 15 * * * *}")
+    public void purgarTokensExpirados() {
+        LocalDateTime agora = LocalDateTime.now();
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = tokenRepository.findIdsExpirados(agora, PageRequest.of(0, tamanhoLote));
+            if (!ids.isEmpty()) {
+                total += tokenRepository.deleteByIdIn(ids);
+            }
+        } while (ids.size() == tamanhoLote);
+
+        if (total > 0) {
+            logger.info("{} tokens de redefinição de senha expirados removidos", total);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.model.AlteracaoNoticia;
+import com.carro.SobreRodas.repository.AlteracaoNoticiaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Log de alterações das notícias: mantém coerente o cache local (o {@link CacheDePaginas}) de todos os nós que
+ * usam o mesmo banco, sem um broker de mensagens.
+ * <ul>
+ *   <li>{@link #registrar(Collection)} grava uma {@link AlteracaoNoticia} na transação da gravação e, depois do
+ *       commit, descarta as páginas afetadas neste nó.</li>
+ *   <li>Cada nó lê periodicamente (cache.cluster.intervalo-ms) as alterações com id maior que a última lida e
+ *       descarta as páginas afetadas pelas feitas nos outros nós. A leitura roda numa thread própria, para não
+ *       esperar pelas outras tarefas agendadas (ex.: o envio de e-mails).</li>
+ *   <li>Com auto-incremento, um id menor pode ser confirmado depois de um maior: uma lacuna na sequência é
+ *       relida até cache.cluster.espera-lacuna-ms depois de lida a alteração seguinte a ela; passado esse
+ *       tempo, é dada como um rollback.</li>
+ *   <li>Ao iniciar, o nó relê só as alterações dos últimos instantes (o cache dele ainda está vazio). Se ficar
+ *       sem conseguir ler por mais tempo do que as alterações são guardadas (cache.cluster.retencao-horas),
+ *       descarta o cache inteiro em vez de arriscar ter perdido alguma.</li>
+ * </ul>
+ * Outros caches locais usam o mesmo log por um prefixo próprio nas dependências (ver {@link #ouvir}); ex.: o de
+ * usuários do {@link CustomUserDetailsService}, descartado em todos os nós quando a senha muda.
+ */
+@Service
+public class RegistroDeAlteracoes {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistroDeAlteracoes.class);
+
+    private final AlteracaoNoticiaRepository alteracaoRepository;
+    private final CacheDePaginas cacheDePaginas;
+    private final boolean habilitado;
+    private final long intervaloMs;
+    private final int tamanhoLote;
+    private final Duration esperaLacuna;
+    private final Duration retencao;
+
+    // Identifica este nó nas alterações que ele grava.
+    private final String instancia = UUID.randomUUID().toString();
+
+    // Caches descartados pelas dependências com o prefixo deles, em vez do cache de páginas.
+    private final Map<String, Consumer<String>> ouvintes = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService leitor;
+
+    // Estado da leitura, usado só pela thread do leitor.
+    // Todas as alterações até este id já foram lidas (ou dadas como rollback).
+    private long ultimoContiguo;
+    // Alterações acima de ultimoContiguo já lidas (depois de uma lacuna) e quando foram lidas (nanoTime).
+    private final TreeMap<Long, Long> lidasAposLacuna = new TreeMap<>();
+    private long ultimaLeitura;
+
+    private final Counter aplicadas;
+    private final Counter lacunasDescartadas;
+
+    public RegistroDeAlteracoes(AlteracaoNoticiaRepository alteracaoRepository, CacheDePaginas cacheDePaginas,
+                                MeterRegistry meterRegistry,
+                                @Value("${cache.cluster.habilitado:true}") boolean habilitado,
+                                @Value("${cache.cluster.intervalo-ms:1000}") long intervaloMs,
+                                @Value("${cache.cluster.tamanho-lote:500}") int tamanhoLote,
+                                @Value("${cache.cluster.espera-lacuna-ms:30000}") long esperaLacunaMs,
+                                @Value("${cache.cluster.retencao-horas:24}") long retencaoHoras) {
+        this.alteracaoRepository = alteracaoRepository;
+        this.cacheDePaginas = cacheDePaginas;
+        this.habilitado = habilitado;
+        this.intervaloMs = intervaloMs;
+        this.tamanhoLote = tamanhoLote;
+        this.esperaLacuna = Duration.ofMillis(esperaLacunaMs);
+        this.retencao = Duration.ofHours(retencaoHoras);
+
+        this.aplicadas = Counter.builder("cache.cluster.alteracoes.aplicadas")
+                .description("Alterações feitas em outros nós aplicadas ao cache local").register(meterRegistry);
+        this.lacunasDescartadas = Counter.builder("cache.cluster.lacunas.descartadas")
+                .description("Lacunas na sequência do log de alterações dadas como rollback").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        posicionar();
+        if (habilitado) {
+            leitor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "registro-de-alteracoes");
+                thread.setDaemon(true);
+                return thread;
+            });
+            leitor.scheduleWithFixedDelay(this::consumir, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (leitor != null) {
+            leitor.shutdownNow();
+        }
+    }
+
+    void posicionar() {
+        // Relê as alterações recentes: uma delas pode ter um id menor que a última já confirmada.
+        Long anterior = alteracaoRepository.findUltimoIdAntes(Instant.now().minus(esperaLacuna));
+        ultimoContiguo = anterior != null ? anterior : 0;
+        lidasAposLacuna.clear();
+        ultimaLeitura = System.nanoTime();
+    }
+
+    /**
+     * Inscreve um cache local nas alterações cujas dependências começam com o prefixo informado: elas são
+     * entregues a ele (sem o prefixo), neste nó depois do commit e nos outros na leitura do log.
+     * @param prefixo Ex.: "usuario:".
+     * @param ouvinte Recebe o restante da dependência (ex.: o id do usuário).
+     */
+    public void ouvir(String prefixo, Consumer<String> ouvinte) {
+        ouvintes.put(prefixo, ouvinte);
+    }
+
+    /**
+     * Registra uma alteração de notícias. Deve ser chamado na transação da gravação: a entrada só é gravada
+     * (e as páginas deste nó só são descartadas) se ela for confirmada. Fora de uma transação, grava e
+     * descarta na hora.
+     * @param dependencias As dependências afetadas (ver {@link CacheDePaginas#invalidar(Collection)} e
+     *                     {@link #ouvir}).
+     */
+    public void registrar(Collection<String> dependencias) {
+        Set<String> afetadas = Set.copyOf(dependencias);
+        alteracaoRepository.save(new AlteracaoNoticia(instancia, afetadas));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar(afetadas);
+                }
+            });
+        } else {
+            aplicar(afetadas);
+        }
+    }
+
+    /**
+     * Descarta todas as páginas, em todos os nós.
+     */
+    public void limparEmTodos() {
+        registrar(List.of(CacheDePaginas.TUDO));
+    }
+
+    /**
+     * Lê as alterações novas e descarta do cache local as páginas afetadas pelas feitas em outros nós.
+     * Roda a cada cache.cluster.intervalo-ms, na thread do leitor.
+     */
+    void consumir() {
+        long agora = System.nanoTime();
+        try {
+            if (agora - ultimaLeitura > retencao.toNanos()) {
+                logger.warn("Log de alterações não lido há mais de {} h: descartando o cache de páginas inteiro",
+                        retencao.toHours());
+                cacheDePaginas.limpar();
+                posicionar();
+            }
+
+            // Começa da primeira lacuna (que pode ter sido preenchida) e segue até o fim.
+            long aPartirDe = ultimoContiguo;
+            List<AlteracaoNoticia> lote;
+            do {
+                lote = alteracaoRepository.findByIdGreaterThanOrderByIdAsc(aPartirDe, PageRequest.of(0, tamanhoLote));
+                for (AlteracaoNoticia alteracao : lote) {
+                    if (lidasAposLacuna.putIfAbsent(alteracao.getId(), agora) == null
+                            && !instancia.equals(alteracao.getOrigem())) {
+                        aplicar(alteracao.getDependencias());
+                        aplicadas.increment();
+                    }
+                    aPartirDe = alteracao.getId();
+                }
+            } while (lote.size() == tamanhoLote);
+
+            avancar(agora);
+            ultimaLeitura = agora;
+        } catch (RuntimeException e) {
+            // Uma exceção cancelaria as leituras seguintes do ScheduledExecutorService.
+            logger.warn("Falha ao ler o log de alterações: {}", e.getMessage());
+        }
+    }
+
+    private void aplicar(Collection<String> dependencias) {
+        List<String> paginas = new ArrayList<>(dependencias.size());
+        for (String dependencia : dependencias) {
+            Map.Entry<String, Consumer<String>> ouvinte = ouvintes.entrySet().stream()
+                    .filter(entrada -> dependencia.startsWith(entrada.getKey())).findFirst().orElse(null);
+            if (ouvinte != null) {
+                ouvinte.getValue().accept(dependencia.substring(ouvinte.getKey().length()));
+            } else {
+                paginas.add(dependencia);
+            }
+        }
+        if (!paginas.isEmpty()) {
+            cacheDePaginas.invalidar(paginas);
+        }
+    }
+
+    /**
+     * Move ultimoContiguo enquanto a sequência não tiver lacunas. Uma lacuna abaixo de uma alteração lida há
+     * mais que cache.cluster.espera-lacuna-ms é de uma transação desfeita (ou de um id descartado pelo banco)
+     * e é pulada; todas as lacunas vencidas são puladas de uma vez.
+     */
+    private void avancar(long agora) {
+        while (!lidasAposLacuna.isEmpty()) {
+            Map.Entry<Long, Long> primeira = lidasAposLacuna.firstEntry();
+            boolean seguinte = primeira.getKey() == ultimoContiguo + 1;
+            if (!seguinte && agora - primeira.getValue() < esperaLacuna.toNanos()) {
+                return;
+            }
+            if (!seguinte) {
+                lacunasDescartadas.increment();
+            }
+            lidasAposLacuna.pollFirstEntry();
+            ultimoContiguo = primeira.getKey();
+        }
+    }
+
+    /**
+     * Apaga as alterações mais antigas que cache.cluster.retencao-horas, em lotes (cada um na sua transação).
+     */
+    @Scheduled(cron = "${cache.cluster.limpeza.cron:0 45 * * * *}")
+    public void purgar() {
+        Instant limite = Instant.now().minus(retencao);
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = alteracaoRepository.findIdsAnteriores(limite, PageRequest.of(0, tamanhoLote));
+            if (!ids.isEmpty()) {
+                total += alteracaoRepository.deleteByIdIn(ids);
+            }
+        } while (ids.size() == tamanhoLote);
+
+        if (total > 0) {
+            logger.info("{} alterações antigas removidas do log de alterações", total);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.model.Noticia;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.safety.Cleaner;
+import org.jsoup.safety.Safelist;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Converte o conteúdo das notícias (escrito em Markdown) em HTML sanitizado, uma única vez, na gravação.
+ * <ul>
+ *   <li>O HTML passa por uma lista de tags permitidas (texto, listas, tabelas, links e imagens): scripts,
+ *       estilos, eventos e links "javascript:" são removidos, inclusive os escritos como HTML no Markdown.</li>
+ *   <li>Links ganham rel="nofollow noopener noreferrer" e imagens, loading="lazy".</li>
+ *   <li>Calcula o número de palavras e o tempo de leitura e, se o resumo estiver vazio, gera um a partir do
+ *       início do texto.</li>
+ * </ul>
+ * Os objetos do commonmark e do jsoup usados aqui são imutáveis e podem ser compartilhados entre threads.
+ */
+@Service
+public class RenderizadorDeConteudo {
+
+    // Base fictícia só para validar links relativos (ex.: /uploads/...), que são mantidos relativos.
+    private static final String BASE_LINKS = "https://sobrerodas.invalid/";
+
+    private final Parser parser = Parser.builder().build();
+    private final HtmlRenderer renderer = HtmlRenderer.builder().build();
+    private final Cleaner cleaner = new Cleaner(Safelist.relaxed()
+            .addTags("hr")
+            .addEnforcedAttribute("a", "rel", "nofollow noopener noreferrer")
+            .addEnforcedAttribute("img", "loading", "lazy")
+            .preserveRelativeLinks(true));
+
+    private final int palavrasPorMinuto;
+    private final int maxCaracteresResumo;
+
+    public RenderizadorDeConteudo(@Value("${conteudo.palavras-por-minuto:200}") int palavrasPorMinuto,
+                                  @Value("${conteudo.resumo.max-caracteres:200}") int maxCaracteresResumo) {
+        this.palavrasPorMinuto = palavrasPorMinuto;
+        this.maxCaracteresResumo = maxCaracteresResumo;
+    }
+
+    /**
+     * O conteúdo renderizado e seus campos derivados.
+     */
+    public static final class ConteudoRenderizado {
+        private final String html;
+        private final String texto;
+        private final int palavras;
+        private final int minutosDeLeitura;
+
+        ConteudoRenderizado(String html, String texto, int palavras, int minutosDeLeitura) {
+            this.html = html;
+            this.texto = texto;
+            this.palavras = palavras;
+            this.minutosDeLeitura = minutosDeLeitura;
+        }
+
+        // Getters
+        public String getHtml() { return html; }
+
+        /**
+         * @return O texto sem marcação, com os espaços normalizados.
+         */
+        public String getTexto() { return texto; }
+
+        public int getPalavras() { return palavras; }
+
+        public int getMinutosDeLeitura() { return minutosDeLeitura; }
+    }
+
+    /**
+     * Converte um texto em Markdown em HTML sanitizado.
+     * @param markdown O conteúdo (null é tratado como vazio).
+     * @return O HTML, o texto puro, o número de palavras e o tempo de leitura (no mínimo 1 minuto).
+     */
+    public ConteudoRenderizado renderizar(String markdown) {
+        String html = renderer.render(parser.parse(markdown != null ? markdown : ""));
+        Document limpo = cleaner.clean(Jsoup.parseBodyFragment(html, BASE_LINKS));
+        limpo.outputSettings().prettyPrint(false);
+
+        String texto = limpo.body().text();
+        int palavras = texto.isBlank() ? 0 : texto.trim().split("\\s+").length;
+        int minutos = Math.max(1, (palavras + palavrasPorMinuto - 1) / palavrasPorMinuto);
+        return new ConteudoRenderizado(limpo.body().html(), texto, palavras, minutos);
+    }
+
+    /**
+     * Renderiza o conteúdo da notícia e preenche os campos derivados (e o resumo, se estiver vazio).
+     * @param noticia A notícia prestes a ser gravada.
+     */
+    public void aplicar(Noticia noticia) {
+        ConteudoRenderizado renderizado = renderizar(noticia.getConteudo());
+        noticia.setConteudoHtml(renderizado.getHtml());
+        noticia.setPalavras(renderizado.getPalavras());
+        noticia.setMinutosDeLeitura(renderizado.getMinutosDeLeitura());
+        if (noticia.getResumo() == null || noticia.getResumo().isBlank()) {
+            noticia.setResumo(resumir(renderizado.getTexto()));
+        }
+    }
+
+    /**
+     * O início do texto, cortado no último espaço antes do limite de conteudo.resumo.max-caracteres.
+     * @param texto O texto puro do conteúdo.
+     * @return O resumo, terminado em "…" quando o texto foi cortado.
+     */
+    public String resumir(String texto) {
+        String limpo = texto.strip();
+        if (limpo.length() <= maxCaracteresResumo) {
+            return limpo;
+        }
+        int corte = limpo.lastIndexOf(' ', maxCaracteresResumo);
+        return limpo.substring(0, corte > 0 ? corte : maxCaracteresResumo).stripTrailing() + "…";
+    }
+}
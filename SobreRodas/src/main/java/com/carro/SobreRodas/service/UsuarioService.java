@@ -10,8 +10,14 @@ import com.carro.SobreRodas.model.PasswordResetToken;
  
 import com.carro.SobreRodas.repository.UsuarioRepository;
 import com.carro.SobreRodas.repository.PasswordResetTokenRepository;
+import com.carro.SobreRodas.security.RespostaSegurancaEncoder;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Serviço que lida com a lógica de negócio para usuários.
@@ -24,20 +30,33 @@ public class UsuarioService {
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
     private final PasswordResetTokenRepository tokenRepository;
+    private final RespostaSegurancaEncoder respostaSegurancaEncoder;
+    private final CustomUserDetailsService userDetailsService;
+    private EmailService emailService;
     
     /**
      * Construtor para injeção de dependências.
      * @param usuarioRepository Repositório de usuários.
      * @param passwordEncoder Codificador de senhas.
      * @param tokenRepository Repositório de tokens de redefinição de senha.
+     * @param respostaSegurancaEncoder Codificador da resposta de segurança.
+     * @param userDetailsService Serviço de autenticação, cujo cache é invalidado na troca de senha.
      */
     @Autowired
-    public UsuarioService(UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder, PasswordResetTokenRepository tokenRepository) {
+    public UsuarioService(UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder, PasswordResetTokenRepository tokenRepository,
+                          RespostaSegurancaEncoder respostaSegurancaEncoder, CustomUserDetailsService userDetailsService) {
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
         this.tokenRepository = tokenRepository;
+        this.respostaSegurancaEncoder = respostaSegurancaEncoder;
+        this.userDetailsService = userDetailsService;
     }
     
+    @Autowired(required = false) // Injeta o EmailService apenas se ele existir
+    public void setEmailService(EmailService emailService) {
+        this.emailService = emailService;
+    }
+
     /**
      * Cadastra um novo usuário no sistema.
      * Verifica se o e-mail já existe e criptografa a senha antes de salvar.
@@ -60,7 +79,7 @@ public class UsuarioService {
 
         usuario.setSenha(passwordEncoder.encode(senhaPlana));
         usuario.setPerguntaSeguranca(perguntaPadrao);
-        usuario.setRespostaSeguranca(passwordEncoder.encode(respostaPlana));
+        usuario.setRespostaSeguranca(respostaSegurancaEncoder.encode(respostaPlana));
         
         return usuarioRepository.save(usuario);
     }
@@ -77,21 +96,42 @@ public class UsuarioService {
 
     /**
      * Cria ou atualiza um token de redefinição de senha para um usuário.
+     * Apenas o hash do token é gravado. No caso comum (usuário já tem token) é um único UPDATE;
+     * caso contrário o token é inserido. A restrição única em usuario_id impede que dois pedidos
+     * simultâneos criem dois tokens para o mesmo usuário.
      * @param usuario O usuário para o qual o token será criado.
      * @param token A string do token gerado.
      */
     @Transactional
     public void createPasswordResetTokenForUser(Usuario usuario, String token) {
-        // Procura se já existe um token para este usuário
-        PasswordResetToken existingToken = tokenRepository.findByUsuario(usuario);
-        if (existingToken != null) {
-            existingToken.setToken(token);
-            existingToken.resetExpiryDate(); // Reseta a data de expiração
-            tokenRepository.save(existingToken);
-        } else {
-            PasswordResetToken myToken = new PasswordResetToken(token, usuario);
-            tokenRepository.save(myToken);
+        String tokenHash = hashToken(token);
+        if (tokenRepository.atualizarTokenDoUsuario(usuario, tokenHash, PasswordResetToken.novaDataDeExpiracao()) == 0) {
+            tokenRepository.save(new PasswordResetToken(tokenHash, usuario));
+        }
+    }
+
+    /**
+     * Gera um novo token de redefinição de senha para o usuário e, se o envio de e-mails estiver configurado,
+     * enfileira o e-mail com o link. O token e a linha da fila de saída são gravados na mesma transação:
+     * se o e-mail não puder ser enfileirado, o token anterior continua valendo.
+     * @param usuario O usuário que pediu a redefinição.
+     * @return O token gerado (em texto puro; só o hash é gravado).
+     */
+    @Transactional
+    public String solicitarRedefinicao(Usuario usuario) {
+        String token = UUID.randomUUID().toString();
+        createPasswordResetTokenForUser(usuario, token);
+        if (emailService != null) {
+            emailService.sendPasswordResetEmail(usuario.getEmail(), token);
         }
+        return token;
+    }
+
+    /**
+     * @return true se os pedidos de redefinição de senha são enviados por e-mail.
+     */
+    public boolean isEnvioDeEmailHabilitado() {
+        return emailService != null;
     }
 
     /**
@@ -101,7 +141,7 @@ public class UsuarioService {
      */
     @Transactional(readOnly = true)
     public String validatePasswordResetToken(String token) {
-        final PasswordResetToken passToken = tokenRepository.findByToken(token);
+        final PasswordResetToken passToken = tokenRepository.findByToken(hashToken(token));
 
         if (passToken == null) {
             return "Token inválido";
@@ -121,7 +161,7 @@ public class UsuarioService {
      */
     @Transactional(readOnly = true)
     public Optional<Usuario> getUserByPasswordResetToken(final String token) {
-        return Optional.ofNullable(tokenRepository.findByToken(token))
+        return Optional.ofNullable(tokenRepository.findByToken(hashToken(token)))
                 .map(PasswordResetToken::getUsuario);
     }
 
@@ -132,7 +172,7 @@ public class UsuarioService {
      * @return true se a resposta for válida, false caso contrário.
      */
     public boolean validarRespostaSeguranca(Usuario usuario, String respostaFornecida) {
-        return passwordEncoder.matches(respostaFornecida, usuario.getRespostaSeguranca());
+        return respostaSegurancaEncoder.matches(respostaFornecida, usuario.getRespostaSeguranca());
     }
 
     /**
@@ -149,6 +189,8 @@ public class UsuarioService {
         
         userToUpdate.setSenha(passwordEncoder.encode(newPassword));
         usuarioRepository.save(userToUpdate);
+        // O hash antigo não pode continuar válido no cache de autenticação.
+        userDetailsService.invalidar(userToUpdate.getId());
     }
 
     /**
@@ -157,9 +199,22 @@ public class UsuarioService {
      */
     @Transactional
     public void deleteToken(String token) {
-        PasswordResetToken passToken = tokenRepository.findByToken(token);
-        if (passToken != null) {
-            tokenRepository.delete(passToken);
+        tokenRepository.deleteByTokenHash(hashToken(token));
+    }
+
+    /**
+     * Calcula o hash SHA-256 (hexadecimal) de um token de redefinição.
+     * O token é aleatório e de alta entropia, então um hash rápido e sem sal é suficiente
+     * e permite a busca direta pelo índice.
+     * @param token O token em texto claro.
+     * @return O hash do token.
+     */
+    static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
         }
     }
 }
\ No newline at end of file
@@ -41,12 +41,19 @@ function initializeNewsletterForm() {
             const email = emailInput.value.trim();
             
             if (email) {
-                // Simulação de envio para API
-                // Em uma implementação real, isso seria uma chamada AJAX para o backend
-                setTimeout(() => {
-                    alert(`Obrigado! O e-mail ${email} foi inscrito com sucesso.`);
-                    emailInput.value = '';
-                }, 500);
+                fetch(this.action, {
+                    method: 'POST',
+                    headers: { 'Content-Type': 'application/x-www-form-urlencoded' },
+                    body: new URLSearchParams({ email: email })
+                })
+                    .then(response => response.json().then(dados => ({ ok: response.ok, dados: dados })))
+                    .then(resultado => {
+                        alert(resultado.dados.mensagem);
+                        if (resultado.ok) {
+                            emailInput.value = '';
+                        }
+                    })
+                    .catch(() => alert('Não foi possível concluir a inscrição. Tente novamente.'));
             }
         });
     }
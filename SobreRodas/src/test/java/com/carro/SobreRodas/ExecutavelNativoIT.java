@@ -0,0 +1,150 @@
+package com.carro.SobreRodas;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Teste de fumaça do executável nativo (mvn -Pnative verify): sobe o binário contra um H2 em memória
+ * e percorre as páginas que dependem das dicas de {@code DicasDeExecucaoNativa} — templates, entidades,
+ * assets estáticos e o login (principal serializado na sessão JDBC).
+ *
+ * O caminho do executável vem da propriedade smoke.executavel; sem ela, o teste é ignorado.
+ * Se smoke.max-inicio-ms for definida, o tempo até a primeira página também é verificado.
+ */
+@EnabledIfSystemProperty(named = "smoke.executavel", matches = ".+")
+class ExecutavelNativoIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutavelNativoIT.class);
+
+    private static Process processo;
+    private static String base;
+    private static long inicioMs;
+
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .cookieHandler(new CookieManager())
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    @BeforeAll
+    static void iniciar() throws Exception {
+        int porta;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            porta = socket.getLocalPort();
+        }
+        base = "http://localhost:" + porta;
+
+        Path log = Path.of(System.getProperty("smoke.log", "target/smoke-nativo.log"));
+        Files.createDirectories(log.toAbsolutePath().getParent());
+        long inicio = System.nanoTime();
+        processo = new ProcessBuilder(List.of(
+                System.getProperty("smoke.executavel"),
+                "--server.port=" + porta,
+                "--spring.datasource.url=jdbc:h2:mem:smoke",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--senha.bcrypt.custo=4"))
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        HttpClient cliente = HttpClient.newHttpClient();
+        long limite = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while (System.nanoTime() < limite) {
+            if (!processo.isAlive()) {
+                fail("O executável terminou durante a inicialização (código " + processo.exitValue() + "), ver " + log);
+            }
+            try {
+                HttpResponse<Void> resposta = cliente.send(HttpRequest.newBuilder(URI.create(base + "/")).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (resposta.statusCode() == 200) {
+                    inicioMs = Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+                    logger.info("Executável pronto em {} ms (RSS {})", inicioMs, rss(processo.pid()));
+                    return;
+                }
+            } catch (IOException ainda) {
+                // servidor ainda não aceita conexões
+            }
+            Thread.sleep(50);
+        }
+        fail("O executável não respondeu em 60 s, ver " + log);
+    }
+
+    @AfterAll
+    static void encerrar() throws InterruptedException {
+        if (processo != null) {
+            processo.destroy();
+            processo.waitFor();
+        }
+    }
+
+    @Test
+    void iniciaDentroDoLimite() {
+        String limite = System.getProperty("smoke.max-inicio-ms", "");
+        if (!limite.isBlank()) {
+            assertTrue(inicioMs <= Long.parseLong(limite),
+                    "Primeira página em " + inicioMs + " ms (limite " + limite + " ms)");
+        }
+    }
+
+    @Test
+    void renderizaAsPaginasPublicas() throws Exception {
+        assertTrue(get("/").body().contains("Sobre"));
+        assertEquals(200, get("/noticia/1").statusCode());
+        assertEquals(200, get("/pesquisa?q=civic").statusCode());
+        assertEquals(200, get("/usuario/login").statusCode());
+        assertEquals(200, get("/css/projeto.css").statusCode());
+        assertTrue(get("/actuator/health").body().contains("UP"));
+    }
+
+    @Test
+    void autenticaOAdministrador() throws Exception {
+        HttpRequest login = HttpRequest.newBuilder(URI.create(base + "/usuario/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=juanadm%40gmail.com&password=1234"))
+                .build();
+        cliente.send(login, HttpResponse.BodyHandlers.discarding());
+
+        HttpResponse<String> admin = get("/admin/noticias");
+        assertEquals(200, admin.statusCode());
+        assertTrue(admin.body().contains("Salão do Automóvel"), "A lista do admin deve trazer as notícias iniciais");
+    }
+
+    private HttpResponse<String> get(String caminho) throws IOException, InterruptedException {
+        return cliente.send(HttpRequest.newBuilder(URI.create(base + caminho)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String rss(long pid) {
+        try {
+            return Files.readAllLines(new File("/proc/" + pid + "/status").toPath()).stream()
+                    .filter(linha -> linha.startsWith("VmRSS:"))
+                    .map(linha -> linha.substring("VmRSS:".length()).trim())
+                    .findFirst().orElse("?");
+        } catch (IOException | UnsupportedOperationException e) {
+            return "?";
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.carro.SobreRodas;
+
+import com.carro.SobreRodas.config.ContadorDeConsultas;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Executa uma requisição no MockMvc contando os comandos SQL e falha se o orçamento for ultrapassado.
+ * A contagem inclui tudo o que roda na thread da requisição: filtros (sessão, segurança), controller e view.
+ */
+public final class OrcamentoDeConsultas {
+
+    private OrcamentoDeConsultas() {
+    }
+
+    /**
+     * @param mockMvc O MockMvc da aplicação.
+     * @param requisicao A requisição a executar.
+     * @param maximo O número máximo de comandos SQL permitido.
+     * @return O resultado, para verificações adicionais.
+     * @throws AssertionError se a requisição executar mais comandos que o permitido (a mensagem lista o SQL).
+     */
+    public static ResultActions executar(MockMvc mockMvc, RequestBuilder requisicao, int maximo) throws Exception {
+        ResultActions resultado;
+        ContadorDeConsultas.Escopo escopo = ContadorDeConsultas.abrir(true);
+        try {
+            resultado = mockMvc.perform(requisicao);
+        } finally {
+            escopo.close();
+        }
+        if (escopo.getComandos() > maximo) {
+            throw new AssertionError("Orçamento de consultas excedido: " + escopo.getComandos() + " comandos (máximo " + maximo + ")\n  "
+                    + String.join("\n  ", escopo.getSql()));
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,33 @@
+package com.carro.SobreRodas.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ContadorDeConsultasTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void comandosDeMenosDeUmMilissegundoTemTempoMaiorQueZero() {
+        long menor = Long.MAX_VALUE;
+        for (int i = 0; i < 20; i++) {
+            try (ContadorDeConsultas.Escopo escopo = ContadorDeConsultas.abrir()) {
+                jdbcTemplate.queryForObject("select 1", Integer.class);
+                assertEquals(1, escopo.getComandos());
+                assertTrue(escopo.getTempoNanos() > 0, "Um comando não pode ser registrado com tempo zero");
+                menor = Math.min(menor, escopo.getTempoNanos());
+            }
+        }
+        // Com o cronômetro em milissegundos do proxy, estes comandos seriam registrados como 0.
+        assertTrue(menor < TimeUnit.MILLISECONDS.toNanos(1), "Menor tempo: " + menor + " ns");
+    }
+}
@@ -0,0 +1,43 @@
+package com.carro.SobreRodas.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RespostaComServerTimingTests {
+
+    @Test
+    void naoSeguraOCorpoEEscreveOCabecalhoAntesDoPrimeiroEnvio() throws Exception {
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        AtomicInteger chamadas = new AtomicInteger();
+        RespostaComServerTiming resposta = new RespostaComServerTiming(original,
+                () -> "total;dur=" + chamadas.incrementAndGet());
+
+        resposta.getOutputStream().write(new byte[100]);
+        assertEquals(100, original.getContentAsByteArray().length);
+        assertNull(original.getHeader("Server-Timing"));
+
+        resposta.flushBuffer();
+        assertTrue(original.isCommitted());
+        assertEquals("total;dur=1", original.getHeader("Server-Timing"));
+
+        resposta.getOutputStream().write(new byte[100]);
+        resposta.concluir();
+        assertEquals(1, chamadas.get());
+    }
+
+    @Test
+    void escreveOCabecalhoAntesDeOCorpoEncherOBuffer() throws Exception {
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        RespostaComServerTiming resposta = new RespostaComServerTiming(original, () -> "total;dur=1");
+
+        resposta.getOutputStream().write(new byte[original.getBufferSize() + 1]);
+
+        assertEquals("total;dur=1", original.getHeader("Server-Timing"));
+    }
+}
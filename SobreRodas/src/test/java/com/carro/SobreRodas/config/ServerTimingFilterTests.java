@@ -0,0 +1,46 @@
+package com.carro.SobreRodas.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {"server-timing.amostragem=1", "cache.paginas.habilitado=false"})
+class ServerTimingFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void paginaComConsultasTemTempoDeBancoMaiorQueZero() throws Exception {
+        String cabecalho = mockMvc.perform(get("/eventos"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("Server-Timing");
+        assertNotNull(cabecalho);
+
+        Matcher comandos = Pattern.compile("db;dur=([0-9.]+);desc=\"(\\d+) comandos SQL\"").matcher(cabecalho);
+        assertTrue(comandos.find(), cabecalho);
+        assertTrue(Integer.parseInt(comandos.group(2)) > 0, cabecalho);
+        double db = Double.parseDouble(comandos.group(1));
+        assertTrue(db > 0, cabecalho);
+        assertTrue(db <= duracao(cabecalho, "total"), cabecalho);
+    }
+
+    private static double duracao(String cabecalho, String fase) {
+        Matcher matcher = Pattern.compile(fase + ";dur=([0-9.]+)").matcher(cabecalho);
+        assertTrue(matcher.find(), cabecalho);
+        return Double.parseDouble(matcher.group(1));
+    }
+}
@@ -0,0 +1,41 @@
+package com.carro.SobreRodas.controller;
+
+import com.carro.SobreRodas.security.UsuarioPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdminControllerTests {
+
+    private static final UsuarioPrincipal ADMIN = new UsuarioPrincipal(1L, "Juan Admin", "juanadm@gmail.com", "ROLE_ADMIN", "");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void rejeitaFormularioSemTokenCsrf() throws Exception {
+        mockMvc.perform(post("/admin/noticias/massa").param("operacao", "EXCLUIR").param("alvo", "filtro")
+                        .param("confirmacao", "0").with(user(ADMIN)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void operacaoSobreOFiltroPedeConfirmacaoComONumeroDeNoticias() throws Exception {
+        mockMvc.perform(post("/admin/noticias/massa").param("operacao", "EXCLUIR").param("alvo", "filtro")
+                        .param("tag", "Inexistente").with(user(ADMIN)).with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(view().name("admin/confirmar-operacao"))
+                .andExpect(model().attribute("total", 0L));
+    }
+}
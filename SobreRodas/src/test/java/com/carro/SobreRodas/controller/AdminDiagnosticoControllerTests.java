@@ -0,0 +1,63 @@
+package com.carro.SobreRodas.controller;
+
+import com.carro.SobreRodas.security.UsuarioPrincipal;
+import com.carro.SobreRodas.service.DiagnosticoJfrService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdminDiagnosticoControllerTests {
+
+    private static final UsuarioPrincipal ADMIN = new UsuarioPrincipal(1L, "Juan Admin", "juanadm@gmail.com", "ROLE_ADMIN", "");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DiagnosticoJfrService diagnosticoJfrService;
+
+    @AfterEach
+    void descartarGravacao() throws Exception {
+        var gravacao = diagnosticoJfrService.getGravacaoPontual();
+        if (gravacao.isPresent()) {
+            for (int i = 0; i < 100 && !gravacao.get().isConcluida(); i++) {
+                Thread.sleep(100);
+            }
+            diagnosticoJfrService.baixar(gravacao.get().getId()).close();
+        }
+    }
+
+    @Test
+    void iniciaAGravacaoSemEsperarPorElaEAcompanhaNaPagina() throws Exception {
+        mockMvc.perform(post("/admin/diagnostico/jfr").param("perfil", "default").param("segundos", "3")
+                        .with(user(ADMIN)).with(csrf()))
+                .andExpect(redirectedUrl("/admin/diagnostico"))
+                .andExpect(flash().attribute("mensagemSucesso", "Gravação JFR iniciada."));
+        assertTrue(diagnosticoJfrService.getGravacaoPontual().isPresent());
+
+        mockMvc.perform(get("/admin/diagnostico").with(user(ADMIN)))
+                .andExpect(content().string(containsString("Gravando (perfil default) até")));
+    }
+
+    @Test
+    void duracaoInvalidaVoltaParaAPaginaComOErro() throws Exception {
+        mockMvc.perform(post("/admin/diagnostico/jfr").param("segundos", "0").with(user(ADMIN)).with(csrf()))
+                .andExpect(redirectedUrl("/admin/diagnostico"))
+                .andExpect(flash().attribute("mensagemErro", "A duração deve ser de 1 a 300 segundos."));
+    }
+}
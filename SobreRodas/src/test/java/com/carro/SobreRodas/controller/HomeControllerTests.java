@@ -0,0 +1,51 @@
+package com.carro.SobreRodas.controller;
+
+import com.carro.SobreRodas.model.Noticia;
+import com.carro.SobreRodas.service.NoticiaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "cache.paginas.habilitado=false")
+class HomeControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NoticiaService noticiaService;
+
+    @Test
+    void exclusaoMudaOValidadorDaPagina() throws Exception {
+        Noticia noticia = noticiaService.save(
+                new Noticia("Excluída", "Conteúdo", "Resumo", null, "01/01/2024", "Autor", "Exposição"));
+        MvcResult antes = mockMvc.perform(get("/eventos"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = antes.getResponse().getHeader(HttpHeaders.ETAG);
+
+        noticiaService.deleteById(noticia.getId());
+
+        // A exclusão não move a última modificação; nem o ETag antigo nem um If-Modified-Since no futuro dão 304.
+        mockMvc.perform(get("/eventos").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/eventos").header(HttpHeaders.IF_MODIFIED_SINCE,
+                        ZonedDateTime.now().plusDays(1).format(DateTimeFormatter.RFC_1123_DATE_TIME)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,54 @@
+package com.carro.SobreRodas.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListagemEmPartesTests {
+
+    @AfterEach
+    void limpar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void enviaOCabecalhoAntesDaConsultaEUmTrechoACadaLote() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        List<String> eventos = new ArrayList<>();
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            @Override
+            public void flushBuffer() {
+                eventos.add("envio");
+                super.flushBuffer();
+            }
+        };
+        AtomicBoolean fechado = new AtomicBoolean();
+        ListagemEmPartes<Integer> listagem = new ListagemEmPartes<>(() -> {
+            eventos.add("consulta");
+            return Stream.of(1, 2, 3, 4, 5).onClose(() -> fechado.set(true));
+        }, response, 2);
+
+        for (Integer item : listagem) {
+            eventos.add("item " + item);
+        }
+
+        assertEquals(List.of("envio", "consulta", "item 1", "envio", "item 2", "item 3", "envio", "item 4", "item 5"),
+                eventos);
+        assertTrue(fechado.get());
+        assertFalse(listagem.isEmpty());
+        assertThrows(IllegalStateException.class, listagem::iterator);
+    }
+}
@@ -0,0 +1,120 @@
+package com.carro.SobreRodas.controller;
+
+import com.carro.SobreRodas.OrcamentoDeConsultas;
+import com.carro.SobreRodas.security.UsuarioPrincipal;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Orçamento de comandos SQL por endpoint. Cada linha de {@link #endpoints()} declara o máximo de comandos
+ * que a requisição pode executar; ultrapassá-lo (ex.: um N+1 introduzido sem querer) quebra o build.
+ * Ao melhorar um endpoint, reduza o orçamento correspondente.
+ * Os redirecionamentos com flash attributes incluem 2 comandos da gravação da sessão (Spring Session JDBC).
+ * As páginas do admin com formulário também: o token CSRF é gravado na sessão, que aqui é nova a cada requisição
+ * (para um admin de verdade o token é gravado uma vez por sessão).
+ * As páginas públicas incluem 1 comando do carimbo usado no ETag; com o ETag atual, só ele é executado.
+ * Os orçamentos valem para a renderização: o cache de páginas fica desligado aqui, senão um acerto (que não executa
+ * nenhum comando) passaria por qualquer orçamento. O cache é testado em CacheDePaginasFilterTests.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "cache.paginas.habilitado=false")
+class OrcamentoDeConsultasTests {
+
+    // Usuários criados pelo DataInitializer (admin) e um leitor fictício, que não precisa existir no banco.
+    private static final UsuarioPrincipal ADMIN = new UsuarioPrincipal(1L, "Juan Admin", "juanadm@gmail.com", "ROLE_ADMIN", "");
+    private static final UsuarioPrincipal LEITOR = new UsuarioPrincipal(99L, "Leitor", "leitor@example.com", "ROLE_USER", "");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    static Stream<Arguments> endpoints() {
+        MockMultipartFile semImagem = new MockMultipartFile("imagemFile", "", "application/octet-stream", new byte[0]);
+        return Stream.of(
+                // HomeController
+                orcamento("home", get("/"), 6),
+                orcamento("eventos", get("/eventos"), 2),
+                orcamento("comparativo", get("/comparativo"), 2),
+                orcamento("notícia", get("/noticia/1"), 3),
+                orcamento("notícia inexistente", get("/noticia/999999"), 2),
+                orcamento("pesquisa", get("/pesquisa").param("q", "civic"), 2),
+
+                // UsuarioController
+                orcamento("login", get("/usuario/login"), 0),
+                orcamento("cadastro", get("/usuario/cadastro"), 0),
+                orcamento("cadastrar", post("/usuario/cadastro")
+                        .param("nome", "Novo Leitor").param("email", "novo.leitor@example.com").param("senha", "segredo123")
+                        .param("perguntaSeguranca", "Cor favorita?").param("respostaSeguranca", "azul"), 4),
+                orcamento("esqueci a senha", get("/usuario/esqueci-senha"), 0),
+                orcamento("pedir redefinição", post("/usuario/esqueci-senha").param("email", "juanadm@gmail.com"), 5),
+                orcamento("token inválido", get("/usuario/resetar-senha").param("token", "inexistente"), 3),
+                orcamento("redefinir com token inválido", post("/usuario/resetar-senha")
+                        .param("token", "inexistente").param("senha", "a").param("confirmarSenha", "a"), 3),
+                orcamento("perfil", get("/usuario/perfil").with(user(LEITOR)), 0),
+
+                // AdminController
+                // Página, contagem limitada e tags do filtro.
+                orcamento("admin: lista", get("/admin/noticias").with(user(ADMIN)), 5),
+                orcamento("admin: lista filtrada", get("/admin/noticias").param("tag", "Avaliação").param("titulo", "Novo")
+                        .param("de", "2024-01-01").param("ordenar", "titulo").param("direcao", "asc").param("pagina", "1")
+                        .with(user(ADMIN)), 5),
+                orcamento("admin: nova", get("/admin/noticias/nova").with(user(ADMIN)), 2),
+                // Cada gravação inclui a linha do log de alterações, lido pelos outros nós para limpar o cache.
+                orcamento("admin: criar", multipart("/admin/noticias/nova").file(semImagem).with(user(ADMIN)).with(csrf())
+                        .param("titulo", "Orçamento").param("resumo", "Resumo").param("conteudo", "Conteúdo")
+                        .param("autor", "Teste").param("tag", "Automotivo").param("data", "01/01/2024"), 4),
+                orcamento("admin: editar", get("/admin/noticias/editar/1").with(user(ADMIN)), 3),
+                orcamento("admin: salvar edição", multipart("/admin/noticias/editar/2").file(semImagem).with(user(ADMIN)).with(csrf())
+                        .param("titulo", "Teste Completo: Honda Civic Híbrido").param("resumo", "Resumo").param("conteudo", "Conteúdo")
+                        .param("autor", "Auto Esporte").param("tag", "Avaliação").param("data", "02/01/2024").param("versao", "0"), 5),
+                orcamento("admin: deletar inexistente", post("/admin/noticias/deletar/999999").with(user(ADMIN)).with(csrf()), 4),
+                // Só agenda: os lotes rodam em segundo plano.
+                orcamento("admin: operação em massa", post("/admin/noticias/massa").param("operacao", "REPUBLICAR")
+                        .param("ids", "999999").with(user(ADMIN)).with(csrf()), 0),
+                // Sobre o filtro: só a contagem exibida na confirmação.
+                orcamento("admin: confirmar operação no filtro", post("/admin/noticias/massa").param("operacao", "EXCLUIR")
+                        .param("alvo", "filtro").param("tag", "Inexistente").with(user(ADMIN)).with(csrf()), 1)
+        );
+    }
+
+    private static Arguments orcamento(String nome, RequestBuilder requisicao, int maximo) {
+        return Arguments.of(nome, requisicao, maximo);
+    }
+
+    @ParameterizedTest(name = "{0}: 304 com 1 comando SQL")
+    @ValueSource(strings = { "/", "/eventos", "/comparativo", "/noticia/1", "/pesquisa?q=civic" })
+    void respondeNaoModificadoSoComOCarimbo(String pagina) throws Exception {
+        String etag = mockMvc.perform(get(pagina)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        OrcamentoDeConsultas.executar(mockMvc, get(pagina).header(HttpHeaders.IF_NONE_MATCH, etag), 1)
+                .andExpect(status().isNotModified());
+    }
+
+    @ParameterizedTest(name = "{0}: no máximo {2} comandos SQL")
+    @MethodSource("endpoints")
+    void respeitaOOrcamentoDeConsultas(String nome, RequestBuilder requisicao, int maximo) throws Exception {
+        OrcamentoDeConsultas.executar(mockMvc, requisicao, maximo)
+                .andExpect(status().is(lessThan(500)));
+    }
+}
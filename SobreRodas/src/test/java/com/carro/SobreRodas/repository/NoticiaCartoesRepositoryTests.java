@@ -0,0 +1,58 @@
+package com.carro.SobreRodas.repository;
+
+import com.carro.SobreRodas.dto.CartaoNoticia;
+import com.carro.SobreRodas.model.Noticia;
+import com.carro.SobreRodas.service.NoticiaService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "listagem.em-partes.tamanho-pagina=2")
+class NoticiaCartoesRepositoryTests {
+
+    @Autowired
+    private NoticiaService noticiaService;
+
+    @Autowired
+    private NoticiaRepository noticiaRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<Long> criadas = new ArrayList<>();
+
+    @AfterEach
+    void limpar() {
+        criadas.forEach(noticiaService::deleteById);
+    }
+
+    @Test
+    void leEmPaginasPorIdSemSegurarConexaoEntreElas() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            criadas.add(noticiaService.save(
+                    new Noticia("Paginada " + i, "Conteúdo", "Resumo", null, "01/01/2024", "Autor", "Paginada")).getId());
+        }
+
+        List<Long> lidas = new ArrayList<>();
+        try (Stream<CartaoNoticia> cartoes = noticiaRepository.streamCartoesPorTags(List.of("Paginada"))) {
+            Iterator<CartaoNoticia> iterador = cartoes.iterator();
+            while (iterador.hasNext()) {
+                lidas.add(iterador.next().getId());
+                // Enquanto o item é renderizado (e enviado), nenhuma conexão fica com a listagem.
+                assertEquals(0, dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getActiveConnections());
+            }
+        }
+
+        assertEquals(criadas, lidas);
+    }
+}
@@ -0,0 +1,25 @@
+package com.carro.SobreRodas.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginThrottleServiceTests {
+
+    @Test
+    void chavesNovasAlemDoMaximoNaoLiberamQuemEstaBloqueado() {
+        LoginThrottleService servico = new LoginThrottleService(new SimpleMeterRegistry(), 2, 1, 100, 1, 10);
+        assertTrue(servico.tentarAdquirir("10.0.0.1", null));
+        assertTrue(servico.tentarAdquirir("10.0.0.1", null));
+        assertFalse(servico.tentarAdquirir("10.0.0.1", null));
+
+        // Uma rajada de IPs novos descarta os usados há mais tempo, não o que acabou de ser bloqueado.
+        for (int i = 0; i < 100; i++) {
+            servico.tentarAdquirir("10.0.1." + i, null);
+            servico.tentarAdquirir("10.0.0.1", null);
+        }
+        assertFalse(servico.tentarAdquirir("10.0.0.1", null));
+    }
+}
@@ -0,0 +1,91 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.model.Noticia;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheDePaginasTests {
+
+    private final CacheDePaginas cache = new CacheDePaginas(new SimpleMeterRegistry(), true, 100, 600, 5000);
+
+    @Test
+    void agrupaFalhasSimultaneasNumaUnicaRenderizacao() throws Exception {
+        AtomicInteger renderizacoes = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CacheDePaginas.Resultado>> resultados = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                resultados.add(threads.submit(() -> cache.obter("/", () -> {
+                    renderizacoes.incrementAndGet();
+                    aguardar(liberar);
+                    return pagina("home", Set.of(CacheDePaginas.RECENTES));
+                })));
+            }
+            Thread.sleep(200);
+            liberar.countDown();
+
+            for (Future<CacheDePaginas.Resultado> resultado : resultados) {
+                assertNotNull(resultado.get(5, TimeUnit.SECONDS).getPagina());
+            }
+            assertEquals(1, renderizacoes.get());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void invalidaSoAsPaginasQueDependemDaNoticiaGravada() throws Exception {
+        cache.obter("/noticia/1", () -> pagina("um", Set.of("noticia:1", CacheDePaginas.RECENTES)));
+        cache.obter("/eventos", () -> pagina("eventos", Set.of("tag:Exposição", "noticia:4")));
+
+        Noticia editada = new Noticia("Título", "Resumo", "Conteúdo", null, "01/01/2024", "Autor", "Avaliação");
+        editada.setId(1L);
+        cache.invalidar(editada, false);
+
+        assertTrue(cache.obter("/noticia/1", () -> null).renderizada());
+        CacheDePaginas.Resultado eventos = cache.obter("/eventos", () -> null);
+        assertArrayEquals("eventos".getBytes(StandardCharsets.UTF_8), eventos.getPagina().getCorpo());
+    }
+
+    @Test
+    void naoGuardaPaginaRenderizadaDuranteUmaInvalidacao() throws Exception {
+        cache.obter("/", () -> {
+            cache.invalidar(List.of(CacheDePaginas.RECENTES));
+            return pagina("home desatualizada", Set.of(CacheDePaginas.RECENTES));
+        });
+
+        assertNull(cache.obter("/", () -> null).getPagina());
+    }
+
+    private static void aguardar(CountDownLatch liberar) {
+        try {
+            liberar.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static CacheDePaginas.Pagina pagina(String corpo, Set<String> dependencias) {
+        return new CacheDePaginas.Pagina(Map.of("Content-Type", List.of("text/html;charset=UTF-8")),
+                corpo.getBytes(StandardCharsets.UTF_8), dependencias);
+    }
+}
@@ -0,0 +1,49 @@
+package com.carro.SobreRodas.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiagnosticoJfrServiceTests {
+
+    private final DiagnosticoJfrService service = new DiagnosticoJfrService(false, 15, 100, 300);
+
+    @AfterEach
+    void encerrar() {
+        service.encerrar();
+    }
+
+    @Test
+    void gravacaoPontualRodaEmSegundoPlanoEEhBaixadaUmaVez() throws Exception {
+        // Retorna logo, com a gravação ainda em andamento.
+        DiagnosticoJfrService.GravacaoPontual gravacao = service.iniciar("default", Duration.ofSeconds(3));
+        assertFalse(gravacao.isConcluida());
+        assertThrows(IllegalStateException.class, () -> service.iniciar("profile", Duration.ofSeconds(1)));
+        assertThrows(IllegalStateException.class, () -> service.baixar(gravacao.getId()));
+
+        for (int i = 0; i < 100 && !gravacao.isConcluida(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(gravacao.isConcluida());
+        try (InputStream jfr = service.baixar(gravacao.getId())) {
+            assertEquals("FLR", new String(jfr.readNBytes(3), StandardCharsets.US_ASCII));
+        }
+        assertFalse(service.getGravacaoPontual().isPresent());
+        assertThrows(IllegalArgumentException.class, () -> service.baixar(gravacao.getId()));
+    }
+
+    @Test
+    void recusaPerfilEDuracaoInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> service.iniciar("completo", Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> service.iniciar("default", Duration.ofSeconds(301)));
+        assertThrows(IllegalStateException.class, service::exportarContinua);
+    }
+}
@@ -0,0 +1,63 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.model.EmailOutbox;
+import com.carro.SobreRodas.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "email.outbox.intervalo-ms=3600000",
+        "email.outbox.tamanho-lote=2"
+})
+class EmailDispatcherTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @AfterEach
+    void limparFila() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void enviaTodosOsEmailsDaFilaEmLotes() {
+        for (int i = 0; i < 5; i++) {
+            emailOutboxService.enfileirar("leitor" + i + "@example.com", "Assunto " + i, "Corpo " + i);
+        }
+
+        emailDispatcher.despachar();
+
+        assertEquals(5, greenMail.getReceivedMessages().length);
+        assertEquals(5, outboxRepository.countByStatus(EmailOutbox.Status.ENVIADO));
+    }
+
+    @Test
+    void reagendaQuandoOServidorEstaIndisponivel() {
+        greenMail.stop();
+        EmailOutbox email = emailOutboxService.enfileirar("leitor@example.com", "Assunto", "Corpo");
+
+        emailDispatcher.despachar();
+
+        EmailOutbox depois = outboxRepository.findById(email.getId()).orElseThrow();
+        assertEquals(EmailOutbox.Status.PENDENTE, depois.getStatus());
+        assertEquals(1, depois.getTentativas());
+    }
+}
@@ -0,0 +1,96 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.model.NewsletterEnvio;
+import com.carro.SobreRodas.repository.AssinanteRepository;
+import com.carro.SobreRodas.repository.NewsletterEnvioRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "email.outbox.intervalo-ms=3600000",
+        "newsletter.envio.mensagens-por-segundo=1000",
+        "newsletter.envio.tamanho-pagina=7",
+        "newsletter.envio.tamanho-lote=3"
+})
+class NewsletterDigestServiceTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private NewsletterService newsletterService;
+
+    @Autowired
+    private NewsletterDigestService digestService;
+
+    @Autowired
+    private AssinanteRepository assinanteRepository;
+
+    @Autowired
+    private NewsletterEnvioRepository envioRepository;
+
+    @AfterEach
+    void limpar() {
+        envioRepository.deleteAll();
+        assinanteRepository.deleteAll();
+    }
+
+    @Test
+    void enviaParaTodosOsAssinantesAtivosComLinkDeCancelamentoIndividual() {
+        for (int i = 0; i < 30; i++) {
+            newsletterService.assinar("leitor" + i + "@example.com");
+        }
+        newsletterService.cancelar(assinanteRepository.findByEmail("leitor0@example.com").orElseThrow().getTokenCancelamento());
+
+        NewsletterEnvio envio = digestService.executar("2026-W1");
+
+        assertEquals(NewsletterEnvio.Status.CONCLUIDO, envio.getStatus());
+        assertEquals(29, envio.getEnviados());
+        MimeMessage[] recebidas = greenMail.getReceivedMessages();
+        assertEquals(29, recebidas.length);
+        String token = assinanteRepository.findByEmail("leitor1@example.com").orElseThrow().getTokenCancelamento();
+        boolean linkIndividual = false;
+        for (MimeMessage mensagem : recebidas) {
+            linkIndividual |= GreenMailUtil.getBody(mensagem).contains(token);
+        }
+        assertTrue(linkIndividual);
+
+        // Uma edição concluída não é reenviada.
+        digestService.executar("2026-W1");
+        assertEquals(29, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void naoEnviaEnquantoOutroNoTemOLeaseEAssumeQuandoEleVence() {
+        for (int i = 0; i < 5; i++) {
+            newsletterService.assinar("leitor" + i + "@example.com");
+        }
+        NewsletterEnvio envio = new NewsletterEnvio("2026-W2", "Resumo", "Conteúdo");
+        envio.renovarLease("outro-no", LocalDateTime.now().plusMinutes(5));
+        envio = envioRepository.save(envio);
+
+        assertEquals(NewsletterEnvio.Status.EM_ANDAMENTO, digestService.executar("2026-W2").getStatus());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+
+        // O outro nó caiu: o lease dele vence e este nó retoma o envio.
+        envio.renovarLease("outro-no", LocalDateTime.now().minusMinutes(1));
+        envioRepository.save(envio);
+
+        assertEquals(NewsletterEnvio.Status.CONCLUIDO, digestService.executar("2026-W2").getStatus());
+        assertEquals(5, greenMail.getReceivedMessages().length);
+    }
+}
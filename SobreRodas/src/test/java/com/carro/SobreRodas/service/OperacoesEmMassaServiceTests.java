@@ -0,0 +1,92 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.dto.FiltroNoticias;
+import com.carro.SobreRodas.model.Noticia;
+import com.carro.SobreRodas.repository.NoticiaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "admin.massa.tamanho-lote=2")
+class OperacoesEmMassaServiceTests {
+
+    @Autowired
+    private OperacoesEmMassaService operacoes;
+
+    @Autowired
+    private NoticiaRepository noticiaRepository;
+
+    private final List<Long> criadas = new ArrayList<>();
+
+    @AfterEach
+    void limpar() {
+        noticiaRepository.deleteByIdIn(criadas);
+    }
+
+    @Test
+    void trocaATagDasNoticiasMarcadasEmLotes() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            criar("Autor", "Massa-A");
+        }
+        List<Long> marcadas = criadas.subList(0, 3);
+
+        OperacoesEmMassaService.Progresso progresso =
+                aguardar(operacoes.agendar(OperacoesEmMassaService.Tipo.TROCAR_TAG, " Massa-B ", marcadas));
+
+        assertEquals(OperacoesEmMassaService.Status.CONCLUIDA, progresso.getStatus());
+        assertEquals(3, progresso.getAlteradas());
+        for (Noticia noticia : noticiaRepository.findAllById(criadas)) {
+            boolean marcada = marcadas.contains(noticia.getId());
+            assertEquals(marcada ? "Massa-B" : "Massa-A", noticia.getTag());
+            // A versão sobe como numa edição normal: um formulário aberto antes da operação é rejeitado.
+            assertEquals(marcada ? 1L : 0L, noticia.getVersao());
+        }
+    }
+
+    @Test
+    void excluiTodasAsNoticiasDoFiltro() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            criar("Autor Massa", "Massa");
+        }
+        Noticia outra = criar("Outro Autor", "Massa");
+        FiltroNoticias filtro = new FiltroNoticias();
+        filtro.setAutor("Autor Massa");
+
+        // A operação só é agendada com o número de notícias que o filtro seleciona agora.
+        assertEquals(5, operacoes.contar(OperacoesEmMassaService.Tipo.EXCLUIR, null, filtro));
+        assertThrows(IllegalArgumentException.class,
+                () -> operacoes.agendar(OperacoesEmMassaService.Tipo.EXCLUIR, null, filtro, 6));
+        OperacoesEmMassaService.Progresso progresso =
+                aguardar(operacoes.agendar(OperacoesEmMassaService.Tipo.EXCLUIR, null, filtro, 5));
+
+        assertEquals(5, progresso.getTotal());
+        assertEquals(5, progresso.getAlteradas());
+        assertEquals(List.of(outra.getId()),
+                noticiaRepository.findAllById(criadas).stream().map(Noticia::getId).toList());
+    }
+
+    private Noticia criar(String autor, String tag) {
+        Noticia noticia = noticiaRepository.save(
+                new Noticia("Título", "Conteúdo", "Resumo", null, "01/01/2024", autor, tag));
+        criadas.add(noticia.getId());
+        return noticia;
+    }
+
+    private static OperacoesEmMassaService.Progresso aguardar(OperacoesEmMassaService.Progresso progresso)
+            throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (progresso.isEmAndamento() && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        assertTrue(!progresso.isEmAndamento(), "A operação em massa não terminou a tempo");
+        return progresso;
+    }
+}
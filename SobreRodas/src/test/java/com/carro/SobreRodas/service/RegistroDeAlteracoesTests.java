@@ -0,0 +1,230 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.model.AlteracaoNoticia;
+import com.carro.SobreRodas.model.Noticia;
+import com.carro.SobreRodas.model.Usuario;
+import com.carro.SobreRodas.repository.AlteracaoNoticiaRepository;
+import com.carro.SobreRodas.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class RegistroDeAlteracoesTests {
+
+    @Autowired
+    private AlteracaoNoticiaRepository alteracaoRepository;
+
+    @Autowired
+    private NoticiaService noticiaService;
+
+    @Autowired
+    private CacheDePaginas cacheDePaginas;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Test
+    void cadaNoDescartaAsPaginasAfetadasPelasGravacoesDosOutros() throws Exception {
+        // Dois nós com caches próprios e o mesmo banco, começando depois das alterações dos outros testes.
+        CacheDePaginas cacheA = novoCache();
+        CacheDePaginas cacheB = novoCache();
+        RegistroDeAlteracoes noA = no(alteracaoRepository, cacheA, 0, new SimpleMeterRegistry());
+        RegistroDeAlteracoes noB = no(alteracaoRepository, cacheB, 0, new SimpleMeterRegistry());
+        for (CacheDePaginas cache : List.of(cacheA, cacheB)) {
+            guardar(cache, "noticia:77");
+            guardar(cache, "noticia:78");
+        }
+
+        noA.registrar(List.of("noticia:77"));
+
+        // O nó que gravou descarta na hora; o outro, na próxima leitura do log.
+        assertFalse(emCache(cacheA, "noticia:77"));
+        assertTrue(emCache(cacheB, "noticia:77"));
+        noB.consumir();
+        assertFalse(emCache(cacheB, "noticia:77"));
+        assertTrue(emCache(cacheB, "noticia:78"));
+
+        // Uma alteração já lida não é aplicada de novo.
+        guardar(cacheB, "noticia:77");
+        noB.consumir();
+        assertTrue(emCache(cacheB, "noticia:77"));
+    }
+
+    @Test
+    void aplicaAAlteracaoConfirmadaForaDeOrdemQuandoALacunaEhPreenchida() throws Exception {
+        List<AlteracaoNoticia> log = new ArrayList<>(List.of(alteracao(1, "noticia:1"), alteracao(3, "noticia:3")));
+        AlteracaoNoticiaRepository repositorio = logFalso(log, null);
+        CacheDePaginas cache = novoCache();
+        RegistroDeAlteracoes no = no(repositorio, cache, 30_000, new SimpleMeterRegistry());
+        for (String dependencia : List.of("noticia:1", "noticia:2", "noticia:3")) {
+            guardar(cache, dependencia);
+        }
+
+        no.consumir();
+        assertFalse(emCache(cache, "noticia:1"));
+        assertTrue(emCache(cache, "noticia:2"));
+        assertFalse(emCache(cache, "noticia:3"));
+
+        // A transação do id 2 é confirmada depois da do id 3.
+        log.add(alteracao(2, "noticia:2"));
+        no.consumir();
+        assertFalse(emCache(cache, "noticia:2"));
+
+        // Sem lacunas, a leitura seguinte começa depois da última alteração.
+        clearInvocations(repositorio);
+        no.consumir();
+        verify(repositorio).findByIdGreaterThanOrderByIdAsc(eq(3L), any());
+    }
+
+    @Test
+    void lacunasVencidasSaoDadasComoRollbackDeUmaVez() throws Exception {
+        AlteracaoNoticiaRepository repositorio = logFalso(List.of(alteracao(2, "noticia:2"), alteracao(4, "noticia:4")), null);
+        MeterRegistry metricas = new SimpleMeterRegistry();
+        RegistroDeAlteracoes no = no(repositorio, novoCache(), 100, metricas);
+
+        no.consumir();
+        clearInvocations(repositorio);
+        no.consumir();
+        // Os ids 1 e 3 ainda podem ser confirmados: a leitura continua começando antes deles.
+        verify(repositorio).findByIdGreaterThanOrderByIdAsc(eq(0L), any());
+
+        Thread.sleep(150);
+        no.consumir();
+        clearInvocations(repositorio);
+        no.consumir();
+        verify(repositorio).findByIdGreaterThanOrderByIdAsc(eq(4L), any());
+        assertEquals(2, metricas.counter("cache.cluster.lacunas.descartadas").count());
+    }
+
+    @Test
+    void aoIniciarReleAsAlteracoesRecentes() throws Exception {
+        AlteracaoNoticiaRepository repositorio = logFalso(List.of(alteracao(1, "noticia:1"),
+                alteracao(2, "noticia:2"), alteracao(3, "noticia:3")), 1L);
+        CacheDePaginas cache = novoCache();
+        for (String dependencia : List.of("noticia:1", "noticia:2", "noticia:3")) {
+            guardar(cache, dependencia);
+        }
+
+        // O nó reinicia: as alterações depois da última anterior à espera por lacunas são relidas.
+        no(repositorio, cache, 30_000, new SimpleMeterRegistry()).consumir();
+
+        assertTrue(emCache(cache, "noticia:1"));
+        assertFalse(emCache(cache, "noticia:2"));
+        assertFalse(emCache(cache, "noticia:3"));
+    }
+
+    @Test
+    void gravacaoDesfeitaNaoRegistraNemDescartaPaginas() throws Exception {
+        Noticia noticia = noticiaService.save(
+                new Noticia("Título", "Conteúdo", "Resumo", null, "01/01/2024", "Autor", "Rollback"));
+        try {
+            String dependencia = "noticia:" + noticia.getId();
+            guardar(cacheDePaginas, dependencia);
+            long alteracoes = alteracaoRepository.count();
+
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                noticia.setTitulo("Título desfeito");
+                noticiaService.save(noticia);
+                status.setRollbackOnly();
+            });
+
+            assertTrue(emCache(cacheDePaginas, dependencia));
+            assertEquals(alteracoes, alteracaoRepository.count());
+        } finally {
+            noticiaService.deleteById(noticia.getId());
+        }
+    }
+
+    @Test
+    void trocaDeSenhaDescartaOUsuarioDoCacheDosOutrosNos() {
+        RegistroDeAlteracoes noB = no(alteracaoRepository, novoCache(), 0, new SimpleMeterRegistry());
+        CustomUserDetailsService usuariosB = new CustomUserDetailsService(usuarioRepository, new SimpleMeterRegistry(),
+                noB, 100, 300);
+        Usuario admin = usuarioRepository.findByEmail("juanadm@gmail.com").orElseThrow();
+        String hashAntigo = usuariosB.loadUserByUsername(admin.getEmail()).getPassword();
+
+        try {
+            usuarioService.changeUserPassword(admin, "nova-senha");
+            // Até ler o log, o outro nó ainda tem o hash antigo; depois, relê o usuário do banco.
+            assertEquals(hashAntigo, usuariosB.loadUserByUsername(admin.getEmail()).getPassword());
+            noB.consumir();
+            assertFalse(hashAntigo.equals(usuariosB.loadUserByUsername(admin.getEmail()).getPassword()));
+        } finally {
+            usuarioService.changeUserPassword(admin, "1234");
+        }
+    }
+
+    private static RegistroDeAlteracoes no(AlteracaoNoticiaRepository repositorio, CacheDePaginas cache,
+                                           long esperaLacunaMs, MeterRegistry metricas) {
+        RegistroDeAlteracoes no = new RegistroDeAlteracoes(repositorio, cache, metricas, true, 1000, 500,
+                esperaLacunaMs, 24);
+        no.posicionar();
+        return no;
+    }
+
+    /**
+     * Um log em memória com as alterações já confirmadas, na ordem em que o teste as inclui.
+     */
+    private static AlteracaoNoticiaRepository logFalso(List<AlteracaoNoticia> confirmadas, Long ultimoIdAntes) {
+        AlteracaoNoticiaRepository repositorio = mock(AlteracaoNoticiaRepository.class);
+        when(repositorio.findUltimoIdAntes(any())).thenReturn(ultimoIdAntes);
+        when(repositorio.findByIdGreaterThanOrderByIdAsc(anyLong(), any())).thenAnswer(chamada -> {
+            long id = chamada.getArgument(0);
+            Pageable lote = chamada.getArgument(1);
+            return confirmadas.stream().filter(alteracao -> alteracao.getId() > id)
+                    .sorted(Comparator.comparing(AlteracaoNoticia::getId)).limit(lote.getPageSize()).toList();
+        });
+        return repositorio;
+    }
+
+    private static AlteracaoNoticia alteracao(long id, String dependencia) {
+        AlteracaoNoticia alteracao = new AlteracaoNoticia("outro-no", List.of(dependencia));
+        ReflectionTestUtils.setField(alteracao, "id", id);
+        return alteracao;
+    }
+
+    private static CacheDePaginas novoCache() {
+        return new CacheDePaginas(new SimpleMeterRegistry(), true, 100, 600, 5000);
+    }
+
+    // Uma página por dependência, com a própria dependência como chave.
+    private static void guardar(CacheDePaginas cache, String dependencia) throws Exception {
+        cache.obter(dependencia, () -> new CacheDePaginas.Pagina(Map.of(),
+                "página".getBytes(StandardCharsets.UTF_8), Set.of(dependencia)));
+    }
+
+    private static boolean emCache(CacheDePaginas cache, String dependencia) throws Exception {
+        return !cache.obter(dependencia, () -> null).renderizada();
+    }
+}
@@ -0,0 +1,44 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.model.Noticia;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RenderizadorDeConteudoTests {
+
+    private final RenderizadorDeConteudo renderizador = new RenderizadorDeConteudo(200, 40);
+
+    @Test
+    void converteMarkdownERemoveOQueNaoEhPermitido() {
+        RenderizadorDeConteudo.ConteudoRenderizado conteudo = renderizador.renderizar("""
+                ## Motor
+
+                O **novo** motor <script>alert(1)</script> tem [ficha](javascript:alert(1)) e [site](https://example.com).
+
+                <img src="/uploads/motor.jpg" onerror="alert(1)">
+                """);
+
+        String html = conteudo.getHtml();
+        assertTrue(html.contains("<h2>Motor</h2>"));
+        assertTrue(html.contains("<strong>novo</strong>"));
+        assertTrue(html.contains("<a href=\"https://example.com\" rel=\"nofollow noopener noreferrer\">site</a>"));
+        assertTrue(html.contains("<img src=\"/uploads/motor.jpg\" loading=\"lazy\">"));
+        assertFalse(html.contains("script"));
+        assertFalse(html.contains("javascript:"));
+        assertFalse(html.contains("onerror"));
+    }
+
+    @Test
+    void calculaPalavrasTempoDeLeituraEResumoQuandoEmBranco() {
+        Noticia noticia = new Noticia("Título", "palavra ".repeat(450), "", null, "01/01/2024", "Autor", "Tag");
+
+        renderizador.aplicar(noticia);
+
+        assertEquals(450, noticia.getPalavras());
+        assertEquals(3, noticia.getMinutosDeLeitura());
+        assertEquals("palavra palavra palavra palavra palavra…", noticia.getResumo());
+    }
+}
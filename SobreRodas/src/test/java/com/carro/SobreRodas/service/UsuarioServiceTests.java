@@ -0,0 +1,42 @@
+package com.carro.SobreRodas.service;
+
+import com.carro.SobreRodas.model.Usuario;
+import com.carro.SobreRodas.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "email.outbox.intervalo-ms=3600000"
+})
+class UsuarioServiceTests {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @SpyBean
+    private EmailOutboxService emailOutboxService;
+
+    @Test
+    void falhaAoEnfileirarOEmailMantemOTokenAnterior() {
+        Usuario usuario = usuarioRepository.findByEmail("juanadm@gmail.com").orElseThrow();
+        usuarioService.createPasswordResetTokenForUser(usuario, "token-anterior");
+        doThrow(new IllegalStateException("fila indisponível"))
+                .when(emailOutboxService).enfileirar(anyString(), anyString(), anyString());
+
+        assertThrows(IllegalStateException.class, () -> usuarioService.solicitarRedefinicao(usuario));
+
+        // O novo token foi desfeito junto com a fila de saída.
+        assertNull(usuarioService.validatePasswordResetToken("token-anterior"));
+    }
+}